@@ -0,0 +1,71 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Predicate over annotations held natively, used to select annotations for bulk updates without
+ * sending their ids across the channel. Criteria that are set must all match.
+ */
+class AnnotationFilter {
+  /** Annotation ids to consider, null for all annotations. */
+  Set<String> ids;
+  /** Group the annotations must belong to, null for any group or none. */
+  String group;
+  /** Tags of which an annotation must carry at least one, null to ignore tags. */
+  Set<String> tags;
+  /** Box the annotation geometry must lie in, null to ignore the geometry. */
+  GeoBounds bounds;
+  /** Matches the annotations that do not satisfy the criteria above instead. */
+  boolean invert = false;
+
+  /**
+   * Returns the ids to test, narrowed to {@link #ids} if set. An inverted filter matches the
+   * annotations outside of {@link #ids}, so all of them are candidates.
+   */
+  Collection<String> candidates(Collection<String> allIds) {
+    return ids != null && !invert ? ids : allIds;
+  }
+
+  boolean needsGeometry() {
+    return bounds != null;
+  }
+
+  /**
+   * Tests a single annotation. {@code lat} and {@code lng} are only read when
+   * {@link #needsGeometry()}.
+   */
+  boolean matches(String annotationId, Set<String> annotationTags, double lat, double lng) {
+    return invert != matchesCriteria(annotationId, annotationTags, lat, lng);
+  }
+
+  private boolean matchesCriteria(
+    String annotationId, Set<String> annotationTags, double lat, double lng) {
+    if (ids != null && !ids.contains(annotationId)) {
+      return false;
+    }
+    if (group != null && !group.equals(AnnotationGroup.groupName(annotationId))) {
+      return false;
+    }
+    if (tags != null) {
+      if (annotationTags == null) {
+        return false;
+      }
+      boolean tagged = false;
+      for (String tag : tags) {
+        if (annotationTags.contains(tag)) {
+          tagged = true;
+          break;
+        }
+      }
+      if (!tagged) {
+        return false;
+      }
+    }
+    return bounds == null || bounds.contains(lat, lng);
+  }
+}
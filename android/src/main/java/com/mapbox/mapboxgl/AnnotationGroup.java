@@ -0,0 +1,209 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.maps.MapView;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Style;
+import com.mapbox.mapboxsdk.plugins.annotation.Annotation;
+import com.mapbox.mapboxsdk.plugins.annotation.Circle;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleManager;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Line;
+import com.mapbox.mapboxsdk.plugins.annotation.LineManager;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.NamedAnnotationManagers;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolManager;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+import com.mapbox.mapboxsdk.style.layers.Layer;
+import com.mapbox.mapboxsdk.style.layers.Property;
+import com.mapbox.mapboxsdk.style.layers.PropertyFactory;
+
+/**
+ * A named set of annotations backed by its own symbol, line and circle managers, each with its own
+ * source and layer. Updating an annotation only re-serializes the source of its group.
+ *
+ * <p>Hiding a group switches the visibility of its layers, the annotations themselves are neither
+ * removed nor re-encoded. Managers are created on first use. Annotations of a group are known to
+ * the channel as {@code <group name>:<annotation id>}, as annotation ids are only unique per
+ * manager.
+ */
+class AnnotationGroup {
+  static final char ID_SEPARATOR = ':';
+
+  interface OnGroupAnnotationClickListener {
+    void onGroupAnnotationClick(AnnotationGroup group, Annotation annotation);
+  }
+
+  private final String name;
+  private final MapView mapView;
+  private final MapboxMap mapboxMap;
+  private final OnGroupAnnotationClickListener clickListener;
+  private String belowLayerId;
+  private boolean visible = true;
+  private SymbolManager symbolManager;
+  private AnnotationStore<Symbol, SymbolOptions> symbolStore;
+  private LineManager lineManager;
+  private AnnotationStore<Line, LineOptions> lineStore;
+  private CircleManager circleManager;
+  private AnnotationStore<Circle, CircleOptions> circleStore;
+
+  AnnotationGroup(
+    String name,
+    MapView mapView,
+    MapboxMap mapboxMap,
+    String belowLayerId,
+    OnGroupAnnotationClickListener clickListener) {
+    if (name.indexOf(ID_SEPARATOR) >= 0) {
+      throw new IllegalArgumentException("Group names must not contain '" + ID_SEPARATOR + "'");
+    }
+    this.name = name;
+    this.mapView = mapView;
+    this.mapboxMap = mapboxMap;
+    this.belowLayerId = belowLayerId;
+    this.clickListener = clickListener;
+  }
+
+  /** Returns the name of the group an annotation id belongs to, null for ungrouped ones. */
+  static String groupName(String annotationId) {
+    final int separator = annotationId.indexOf(ID_SEPARATOR);
+    return separator < 0 ? null : annotationId.substring(0, separator);
+  }
+
+  String getName() {
+    return name;
+  }
+
+  String annotationId(long id) {
+    return name + ID_SEPARATOR + id;
+  }
+
+  /**
+   * Places the layers of this group below the given style layer, or on top of the style for null.
+   * Layers of managers that already exist are moved, later ones are created in place.
+   */
+  void setBelowLayerId(String belowLayerId) {
+    this.belowLayerId = belowLayerId;
+    if (circleManager != null) {
+      moveLayer(NamedAnnotationManagers.layerId(circleManager));
+    }
+    if (lineManager != null) {
+      moveLayer(NamedAnnotationManagers.layerId(lineManager));
+    }
+    if (symbolManager != null) {
+      moveLayer(NamedAnnotationManagers.layerId(symbolManager));
+    }
+  }
+
+  private void moveLayer(String layerId) {
+    final Style style = style();
+    final Layer layer = style.getLayer(layerId);
+    if (layer == null || !style.removeLayer(layer)) {
+      return;
+    }
+    if (belowLayerId == null) {
+      style.addLayer(layer);
+    } else {
+      style.addLayerBelow(layer, belowLayerId);
+    }
+  }
+
+  AnnotationStore<Symbol, SymbolOptions> getSymbolStore() {
+    if (symbolManager == null) {
+      symbolManager = NamedAnnotationManagers.symbolManager(
+        mapView, mapboxMap, style(), name, belowLayerId);
+      symbolManager.setIconAllowOverlap(true);
+      symbolManager.setIconIgnorePlacement(true);
+      symbolManager.setTextAllowOverlap(true);
+      symbolManager.setTextIgnorePlacement(true);
+      symbolManager.addClickListener(symbol -> clickListener.onGroupAnnotationClick(this, symbol));
+      applyVisibility(NamedAnnotationManagers.layerId(symbolManager));
+      symbolStore = new ManagerAnnotationStore<>(symbolManager);
+    }
+    return symbolStore;
+  }
+
+  AnnotationStore<Line, LineOptions> getLineStore() {
+    if (lineManager == null) {
+      lineManager = NamedAnnotationManagers.lineManager(
+        mapView, mapboxMap, style(), name, belowLayerId);
+      lineManager.addClickListener(line -> clickListener.onGroupAnnotationClick(this, line));
+      applyVisibility(NamedAnnotationManagers.layerId(lineManager));
+      lineStore = new ManagerAnnotationStore<>(lineManager);
+    }
+    return lineStore;
+  }
+
+  AnnotationStore<Circle, CircleOptions> getCircleStore() {
+    if (circleManager == null) {
+      circleManager = NamedAnnotationManagers.circleManager(
+        mapView, mapboxMap, style(), name, belowLayerId);
+      circleManager.addClickListener(circle -> clickListener.onGroupAnnotationClick(this, circle));
+      applyVisibility(NamedAnnotationManagers.layerId(circleManager));
+      circleStore = new ManagerAnnotationStore<>(circleManager);
+    }
+    return circleStore;
+  }
+
+  boolean isVisible() {
+    return visible;
+  }
+
+  /** Shows or hides all layers of the group, independent of the number of annotations. */
+  void setVisible(boolean visible) {
+    if (this.visible == visible) {
+      return;
+    }
+    this.visible = visible;
+    if (symbolManager != null) {
+      applyVisibility(NamedAnnotationManagers.layerId(symbolManager));
+    }
+    if (lineManager != null) {
+      applyVisibility(NamedAnnotationManagers.layerId(lineManager));
+    }
+    if (circleManager != null) {
+      applyVisibility(NamedAnnotationManagers.layerId(circleManager));
+    }
+  }
+
+  private void applyVisibility(String layerId) {
+    final Layer layer = style().getLayer(layerId);
+    if (layer != null) {
+      layer.setProperties(PropertyFactory.visibility(visible ? Property.VISIBLE : Property.NONE));
+    }
+  }
+
+  /** Applies {@code allowOverlap} to the symbol manager, if it has been created. */
+  void setSymbolOverlap(boolean allowOverlap) {
+    if (symbolManager != null) {
+      symbolManager.setIconAllowOverlap(allowOverlap);
+      symbolManager.setIconIgnorePlacement(allowOverlap);
+      symbolManager.setTextAllowOverlap(allowOverlap);
+      symbolManager.setTextIgnorePlacement(allowOverlap);
+    }
+  }
+
+  /** Removes the sources and layers of the group together with all of its annotations. */
+  void onDestroy() {
+    if (symbolManager != null) {
+      symbolManager.onDestroy();
+    }
+    if (lineManager != null) {
+      lineManager.onDestroy();
+    }
+    if (circleManager != null) {
+      circleManager.onDestroy();
+    }
+  }
+
+  private Style style() {
+    final Style style = mapboxMap.getStyle();
+    if (style == null) {
+      throw new IllegalStateException("Annotation groups require a loaded style");
+    }
+    return style;
+  }
+}
@@ -0,0 +1,32 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.Annotation;
+import com.mapbox.mapboxsdk.plugins.annotation.Options;
+
+import java.util.List;
+
+/**
+ * The writes the plugin makes to an annotation manager. Annotation code only depends on this
+ * interface, so it can run against a recording store instead of a manager bound to a map view.
+ */
+interface AnnotationStore<T extends Annotation, S extends Options<T>> {
+
+  T create(S options);
+
+  /** Creates all annotations with a single source update. */
+  List<T> create(List<S> options);
+
+  void update(T annotation);
+
+  /** Writes all annotations with a single source update. */
+  void update(List<T> annotations);
+
+  void delete(T annotation);
+
+  /** Deletes all annotations with a single source update. */
+  void delete(List<T> annotations);
+}
@@ -0,0 +1,96 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.Circle;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Line;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the annotations changed by native animations during a frame and writes them with one
+ * update per annotation store when the frame ends.
+ */
+class AnnotationUpdateBatch implements Runnable {
+  private final Map<Object, Boolean> pending = new IdentityHashMap<>();
+  private final Map<AnnotationStore<Symbol, SymbolOptions>, List<Symbol>> symbols =
+    new IdentityHashMap<>();
+  private final Map<AnnotationStore<Circle, CircleOptions>, List<Circle>> circles =
+    new IdentityHashMap<>();
+  private final Map<AnnotationStore<Line, LineOptions>, List<Line>> lines =
+    new IdentityHashMap<>();
+
+  void add(SymbolController symbol, AnnotationStore<Symbol, SymbolOptions> symbolStore) {
+    if (pending.put(symbol, Boolean.TRUE) == null) {
+      listOf(symbols, symbolStore).add(symbol.getSymbol());
+    }
+  }
+
+  void add(CircleController circle, AnnotationStore<Circle, CircleOptions> circleStore) {
+    if (pending.put(circle, Boolean.TRUE) == null) {
+      listOf(circles, circleStore).add(circle.getCircle());
+    }
+  }
+
+  void add(LineController line, AnnotationStore<Line, LineOptions> lineStore) {
+    if (pending.put(line, Boolean.TRUE) == null) {
+      listOf(lines, lineStore).add(line.getLine());
+    }
+  }
+
+  /** Flushes the batch, meant to be installed as the frame end listener of a FrameClock. */
+  @Override
+  public void run() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    for (Map.Entry<AnnotationStore<Symbol, SymbolOptions>, List<Symbol>> entry
+      : symbols.entrySet()) {
+      final Tracer tracer = Tracing.begin("SymbolManager.update");
+      try {
+        entry.getKey().update(entry.getValue());
+      } finally {
+        Tracing.end(tracer);
+      }
+    }
+    for (Map.Entry<AnnotationStore<Circle, CircleOptions>, List<Circle>> entry
+      : circles.entrySet()) {
+      final Tracer tracer = Tracing.begin("CircleManager.update");
+      try {
+        entry.getKey().update(entry.getValue());
+      } finally {
+        Tracing.end(tracer);
+      }
+    }
+    for (Map.Entry<AnnotationStore<Line, LineOptions>, List<Line>> entry : lines.entrySet()) {
+      final Tracer tracer = Tracing.begin("LineManager.update");
+      try {
+        entry.getKey().update(entry.getValue());
+      } finally {
+        Tracing.end(tracer);
+      }
+    }
+    pending.clear();
+    symbols.clear();
+    circles.clear();
+    lines.clear();
+  }
+
+  private static <M, A> List<A> listOf(Map<M, List<A>> lists, M store) {
+    List<A> list = lists.get(store);
+    if (list == null) {
+      list = new ArrayList<>();
+      lists.put(store, list);
+    }
+    return list;
+  }
+}
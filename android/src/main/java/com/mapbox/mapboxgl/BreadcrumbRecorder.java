@@ -0,0 +1,128 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.location.Location;
+
+import com.mapbox.geojson.LineString;
+import com.mapbox.geojson.Point;
+
+import java.util.Arrays;
+
+/**
+ * Appends location fixes to the geometry of a line, keeping the trail on the platform side.
+ *
+ * <p>A fix closer than the minimum distance to the last point is dropped. A fix that continues
+ * the last segment within the minimum angle replaces the last point instead of adding one, so
+ * straight stretches collapse into a single segment. The trail is kept in a ring buffer of at
+ * most {@code maxPoints} points, dropping the oldest ones.
+ */
+class BreadcrumbRecorder implements LocationFeed.OnLocationFixListener {
+
+  interface OnTrailChangedListener {
+    void onTrailChanged(String lineId, LineController line);
+  }
+
+  private final String lineId;
+  private final LineController line;
+  private final Point[] ring;
+  private final double minDistanceMeters;
+  private final double minAngleDegrees;
+  private final OnTrailChangedListener listener;
+  private int head = 0;
+  private int count = 0;
+
+  BreadcrumbRecorder(
+    String lineId,
+    LineController line,
+    int maxPoints,
+    double minDistanceMeters,
+    double minAngleDegrees,
+    OnTrailChangedListener listener) {
+    if (maxPoints < 2) {
+      throw new IllegalArgumentException("A breadcrumb trail needs at least 2 points");
+    }
+    this.lineId = lineId;
+    this.line = line;
+    this.ring = new Point[maxPoints];
+    this.minDistanceMeters = minDistanceMeters;
+    this.minAngleDegrees = minAngleDegrees;
+    this.listener = listener;
+    // Continue the trail already drawn by the line.
+    final double[] existing = line.getPackedGeometry();
+    for (int i = Math.max(0, existing.length / 2 - maxPoints); i < existing.length / 2; i++) {
+      push(Point.fromLngLat(existing[i * 2 + 1], existing[i * 2]));
+    }
+  }
+
+  String getLineId() {
+    return lineId;
+  }
+
+  @Override
+  public void onLocationFix(Location location) {
+    if (append(location.getLatitude(), location.getLongitude())) {
+      line.setGeometry(LineString.fromLngLats(Arrays.asList(toArray())));
+      listener.onTrailChanged(lineId, line);
+    }
+  }
+
+  /** Adds a position to the trail and returns whether the trail changed. */
+  boolean append(double lat, double lng) {
+    if (count > 0) {
+      final Point last = get(count - 1);
+      final double distance = GeoMath.distance(last.latitude(), last.longitude(), lat, lng);
+      if (distance < minDistanceMeters) {
+        return false;
+      }
+      if (count > 1 && minAngleDegrees > 0) {
+        final Point previous = get(count - 2);
+        final double heading = GeoMath.bearing(
+          previous.latitude(), previous.longitude(), last.latitude(), last.longitude());
+        final double turn =
+          Math.abs(heading - GeoMath.bearing(last.latitude(), last.longitude(), lat, lng));
+        if (Math.min(turn, 360 - turn) < minAngleDegrees) {
+          ring[(head + count - 1) % ring.length] = Point.fromLngLat(lng, lat);
+          return true;
+        }
+      }
+    }
+    push(Point.fromLngLat(lng, lat));
+    return true;
+  }
+
+  /** Returns the trail packed as {@code lat, lng} pairs, oldest first. */
+  double[] getPackedTrail() {
+    final double[] coordinates = new double[count * 2];
+    for (int i = 0; i < count; i++) {
+      final Point point = get(i);
+      coordinates[i * 2] = point.latitude();
+      coordinates[i * 2 + 1] = point.longitude();
+    }
+    return coordinates;
+  }
+
+  private void push(Point point) {
+    if (count == ring.length) {
+      ring[head] = point;
+      head = (head + 1) % ring.length;
+    } else {
+      ring[(head + count) % ring.length] = point;
+      count++;
+    }
+  }
+
+  private Point get(int index) {
+    return ring[(head + index) % ring.length];
+  }
+
+  private Point[] toArray() {
+    final Point[] points = new Point[count];
+    final int tail = Math.min(count, ring.length - head);
+    System.arraycopy(ring, head, points, 0, tail);
+    System.arraycopy(ring, 0, points, tail, count - tail);
+    return points;
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+/**
+ * Keeps the camera on a symbol or circle whose geometry is updated natively, so following a
+ * moving annotation needs no camera calls from Dart.
+ */
+class CameraFollower {
+  private final MapCamera camera;
+  private final String annotationType;
+  private final String annotationId;
+  private final int smoothingMs;
+  private final double lookAheadMeters;
+  private final boolean alignBearing;
+  private final Double zoom;
+  private final double[] lookAhead = new double[2];
+  private double lastLat = Double.NaN;
+  private double lastLng = Double.NaN;
+  private double bearing = Double.NaN;
+
+  CameraFollower(
+    MapCamera camera,
+    String annotationType,
+    String annotationId,
+    int smoothingMs,
+    double lookAheadMeters,
+    boolean alignBearing,
+    Double zoom) {
+    this.camera = camera;
+    this.annotationType = annotationType;
+    this.annotationId = annotationId;
+    this.smoothingMs = smoothingMs;
+    this.lookAheadMeters = lookAheadMeters;
+    this.alignBearing = alignBearing;
+    this.zoom = zoom;
+  }
+
+  boolean follows(String annotationType, String annotationId) {
+    return this.annotationType.equals(annotationType) && this.annotationId.equals(annotationId);
+  }
+
+  /** Moves the camera to the new geometry of the followed annotation. */
+  void onGeometryChanged(LatLng geometry) {
+    final double lat = geometry.getLatitude();
+    final double lng = geometry.getLongitude();
+    if (lat == lastLat && lng == lastLng) {
+      return;
+    }
+    if (!Double.isNaN(lastLat) && GeoMath.distance(lastLat, lastLng, lat, lng) > 0.5) {
+      bearing = GeoMath.bearing(lastLat, lastLng, lat, lng);
+    }
+    lastLat = lat;
+    lastLng = lng;
+
+    final CameraPosition.Builder builder = new CameraPosition.Builder(camera.getCameraPosition());
+    if (lookAheadMeters > 0 && !Double.isNaN(bearing)) {
+      GeoMath.destination(lat, lng, bearing, lookAheadMeters, lookAhead);
+      builder.target(new LatLng(lookAhead[0], lookAhead[1]));
+    } else {
+      builder.target(geometry);
+    }
+    if (alignBearing && !Double.isNaN(bearing)) {
+      builder.bearing(bearing);
+    }
+    if (zoom != null) {
+      builder.zoom(zoom);
+    }
+    if (smoothingMs > 0) {
+      camera.easeCamera(
+        CameraUpdateFactory.newCameraPosition(builder.build()), smoothingMs, false, null);
+    } else {
+      camera.moveCamera(CameraUpdateFactory.newCameraPosition(builder.build()), null);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdate;
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+import java.util.List;
+
+/**
+ * Plays a list of camera keyframes natively, starting each keyframe when the previous transition
+ * finishes, so multi step camera tours need a single method call. Padding set by keyframes only
+ * applies while the timeline plays, the previous padding is restored when it ends.
+ */
+class CameraTimeline implements MapboxMap.CancelableCallback {
+
+  /** A single camera target of a timeline, unset fields keep the value of the previous step. */
+  static class Keyframe {
+    LatLng target;
+    Double zoom;
+    Double bearing;
+    Double tilt;
+    /** Left, top, right and bottom padding in physical pixels. */
+    int[] padding;
+    int durationMs;
+    String easing = "ease";
+  }
+
+  private final int id;
+  private final MapCamera camera;
+  private final List<Keyframe> keyframes;
+  private final OnCameraTimelineListener listener;
+  private int index = -1;
+  private boolean finished = false;
+  private int[] previousPadding = null;
+
+  CameraTimeline(
+    int id, MapCamera camera, List<Keyframe> keyframes, OnCameraTimelineListener listener) {
+    this.id = id;
+    this.camera = camera;
+    this.keyframes = keyframes;
+    this.listener = listener;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  void start() {
+    next();
+  }
+
+  /** Stops the timeline, the running transition is cancelled and reported as such. */
+  void cancel() {
+    if (!finished) {
+      // Finish first, so the onCancel of the running transition is ignored.
+      finish(true);
+      camera.cancelTransitions();
+    }
+  }
+
+  @Override
+  public void onCancel() {
+    if (!finished) {
+      finish(true);
+    }
+  }
+
+  @Override
+  public void onFinish() {
+    if (finished) {
+      return;
+    }
+    listener.onCameraTimelineProgress(id, index, keyframes.size());
+    next();
+  }
+
+  private void next() {
+    index++;
+    if (index >= keyframes.size()) {
+      finish(false);
+      return;
+    }
+    final Keyframe keyframe = keyframes.get(index);
+    if (keyframe.padding != null) {
+      if (previousPadding == null) {
+        previousPadding = camera.getPadding();
+      }
+      camera.setPadding(
+        keyframe.padding[0], keyframe.padding[1], keyframe.padding[2], keyframe.padding[3]);
+    }
+    final CameraUpdate update = CameraUpdateFactory.newCameraPosition(toCameraPosition(keyframe));
+    if (keyframe.durationMs <= 0 || "jump".equals(keyframe.easing)) {
+      camera.moveCamera(update, this);
+      return;
+    }
+    switch (keyframe.easing) {
+      case "fly":
+        camera.animateCamera(update, keyframe.durationMs, this);
+        break;
+      case "linear":
+        camera.easeCamera(update, keyframe.durationMs, false, this);
+        break;
+      default:
+        camera.easeCamera(update, keyframe.durationMs, true, this);
+        break;
+    }
+  }
+
+  private CameraPosition toCameraPosition(Keyframe keyframe) {
+    final CameraPosition.Builder builder = new CameraPosition.Builder(camera.getCameraPosition());
+    if (keyframe.target != null) {
+      builder.target(keyframe.target);
+    }
+    if (keyframe.zoom != null) {
+      builder.zoom(keyframe.zoom);
+    }
+    if (keyframe.bearing != null) {
+      builder.bearing(keyframe.bearing);
+    }
+    if (keyframe.tilt != null) {
+      builder.tilt(keyframe.tilt);
+    }
+    return builder.build();
+  }
+
+  private void finish(boolean cancelled) {
+    finished = true;
+    if (previousPadding != null) {
+      camera.setPadding(
+        previousPadding[0], previousPadding[1], previousPadding[2], previousPadding[3]);
+    }
+    listener.onCameraTimelineFinished(id, cancelled);
+  }
+}
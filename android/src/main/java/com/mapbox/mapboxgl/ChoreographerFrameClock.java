@@ -0,0 +1,71 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link FrameClock} backed by the main thread {@link Choreographer}. Only requests frames while
+ * at least one callback is registered.
+ */
+class ChoreographerFrameClock implements FrameClock, Choreographer.FrameCallback {
+  private final Choreographer choreographer = Choreographer.getInstance();
+  private final List<FrameCallback> callbacks = new ArrayList<>();
+  private final List<FrameCallback> running = new ArrayList<>();
+  private boolean scheduled = false;
+  private Runnable onFrameEndListener;
+
+  @Override
+  public void addFrameCallback(FrameCallback callback) {
+    if (!callbacks.contains(callback)) {
+      callbacks.add(callback);
+    }
+    if (!scheduled) {
+      scheduled = true;
+      choreographer.postFrameCallback(this);
+    }
+  }
+
+  @Override
+  public void removeFrameCallback(FrameCallback callback) {
+    callbacks.remove(callback);
+    if (callbacks.isEmpty() && scheduled) {
+      scheduled = false;
+      choreographer.removeFrameCallback(this);
+    }
+  }
+
+  @Override
+  public void setOnFrameEndListener(Runnable listener) {
+    this.onFrameEndListener = listener;
+  }
+
+  @Override
+  public long nanoTime() {
+    return System.nanoTime();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    scheduled = false;
+    running.addAll(callbacks);
+    for (FrameCallback callback : running) {
+      if (!callback.doFrame(frameTimeNanos)) {
+        callbacks.remove(callback);
+      }
+    }
+    running.clear();
+    if (onFrameEndListener != null) {
+      onFrameEndListener.run();
+    }
+    if (!callbacks.isEmpty() && !scheduled) {
+      scheduled = true;
+      choreographer.postFrameCallback(this);
+    }
+  }
+}
@@ -9,20 +9,24 @@ package com.mapbox.mapboxgl;
 import com.mapbox.geojson.Point;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.plugins.annotation.Circle;
-import com.mapbox.mapboxsdk.plugins.annotation.CircleManager;
 import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
 
 class CircleBuilder implements CircleOptionsSink {
-  private final CircleManager circleManager;
+  private final AnnotationStore<Circle, CircleOptions> circleStore;
   private final CircleOptions circleOptions;
 
-  CircleBuilder(CircleManager circleManager) {
-    this.circleManager = circleManager;
+  CircleBuilder(AnnotationStore<Circle, CircleOptions> circleStore) {
+    this.circleStore = circleStore;
     this.circleOptions = new CircleOptions();
   }
 
   Circle build() {
-    return circleManager.create(circleOptions);
+    final Tracer tracer = Tracing.begin("CircleManager.create");
+    try {
+      return circleStore.create(circleOptions);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -9,14 +9,18 @@ package com.mapbox.mapboxgl;
 import android.graphics.Color;
 import com.mapbox.geojson.Point;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.AnnotationProperties;
 import com.mapbox.mapboxsdk.plugins.annotation.Circle;
-import com.mapbox.mapboxsdk.plugins.annotation.CircleManager;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
 
 /** Controller of a single Circle on the map. */
 class CircleController implements CircleOptionsSink {
   private final Circle circle;
   private final OnCircleTappedListener onTappedListener;
   private boolean consumeTapEvents;
+  private boolean zoomHidden = false;
+  private float shownCircleOpacity = 1f;
+  private float shownCircleStrokeOpacity = 1f;
 
   CircleController(Circle circle, boolean consumeTapEvents, OnCircleTappedListener onTappedListener) {
     this.circle = circle;
@@ -31,8 +35,17 @@ class CircleController implements CircleOptionsSink {
     return consumeTapEvents;
   }
 
-  void remove(CircleManager circleManager) {
-    circleManager.delete(circle);
+  Circle getCircle() {
+    return circle;
+  }
+
+  void remove(AnnotationStore<Circle, CircleOptions> circleStore) {
+    final Tracer tracer = Tracing.begin("CircleManager.delete");
+    try {
+      circleStore.delete(circle);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -52,7 +65,11 @@ class CircleController implements CircleOptionsSink {
 
   @Override
   public void setCircleOpacity(float circleOpacity) {
-    circle.setCircleOpacity(circleOpacity);
+    if (zoomHidden) {
+      shownCircleOpacity = circleOpacity;
+    } else {
+      circle.setCircleOpacity(circleOpacity);
+    }
   }
 
   @Override
@@ -67,7 +84,38 @@ class CircleController implements CircleOptionsSink {
 
   @Override
   public void setCircleStrokeOpacity(float circleStrokeOpacity) {
-    circle.setCircleStrokeOpacity(circleStrokeOpacity);
+    if (zoomHidden) {
+      shownCircleStrokeOpacity = circleStrokeOpacity;
+    } else {
+      circle.setCircleStrokeOpacity(circleStrokeOpacity);
+    }
+  }
+
+  /**
+   * Hides the circle outside of its zoom range by making it transparent, keeping the configured
+   * opacities for when it is shown again. Returns whether the circle needs an update.
+   */
+  boolean setZoomHidden(boolean hidden) {
+    if (zoomHidden == hidden) {
+      return false;
+    }
+    zoomHidden = hidden;
+    if (hidden) {
+      shownCircleOpacity = AnnotationProperties.getFloat(circle, "circle-opacity", 1f);
+      shownCircleStrokeOpacity =
+        AnnotationProperties.getFloat(circle, "circle-stroke-opacity", 1f);
+      circle.setCircleOpacity(0f);
+      circle.setCircleStrokeOpacity(0f);
+    } else {
+      circle.setCircleOpacity(shownCircleOpacity);
+      circle.setCircleStrokeOpacity(shownCircleStrokeOpacity);
+    }
+    return true;
+  }
+
+  /** Returns whether the circle is hidden because the zoom is outside of its range. */
+  boolean isZoomHidden() {
+    return zoomHidden;
   }
 
   @Override
@@ -85,8 +133,13 @@ class CircleController implements CircleOptionsSink {
     circle.setDraggable(draggable);
   }
 
-  public void update(CircleManager circleManager) {
-    circleManager.update(circle);
+  public void update(AnnotationStore<Circle, CircleOptions> circleStore) {
+    final Tracer tracer = Tracing.begin("CircleManager.update");
+    try {
+      circleStore.update(circle);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
 }
@@ -6,30 +6,29 @@ package com.mapbox.mapboxgl;
 
 import android.graphics.Point;
 
-import android.util.Log;
 
 import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.camera.CameraUpdate;
 import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
-import com.mapbox.mapboxsdk.log.Logger;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.geojson.LineString;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Conversions between JSON-like values and MapboxMaps data types.
  */
 class Convert {
 
-  private final static String TAG = "Convert";
-
 //  private static BitmapDescriptor toBitmapDescriptor(Object o) {
 //    final List<?> data = toList(o);
 //    switch (toString(data.get(0))) {
@@ -71,6 +70,15 @@ class Convert {
   }
 
   static CameraUpdate toCameraUpdate(Object o, MapboxMap mapboxMap, float density) {
+    final Tracer tracer = Tracing.begin("Convert.toCameraUpdate");
+    try {
+      return createCameraUpdate(o, mapboxMap, density);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private static CameraUpdate createCameraUpdate(Object o, MapboxMap mapboxMap, float density) {
     final List<?> data = toList(o);
     switch (toString(data.get(0))) {
       case "newCameraPosition":
@@ -109,7 +117,149 @@ class Convert {
     }
   }
 
-  private static double toDouble(Object o) {
+  static List<CameraTimeline.Keyframe> toCameraKeyframes(Object o, float density) {
+    final List<?> data = toList(o);
+    final List<CameraTimeline.Keyframe> keyframes = new ArrayList<>(data.size());
+    for (Object item : data) {
+      final Map<?, ?> map = toMap(item);
+      final CameraTimeline.Keyframe keyframe = new CameraTimeline.Keyframe();
+      final Object target = map.get("target");
+      if (target != null) {
+        keyframe.target = toLatLng(target);
+      }
+      final Object zoom = map.get("zoom");
+      if (zoom != null) {
+        keyframe.zoom = toDouble(zoom);
+      }
+      final Object bearing = map.get("bearing");
+      if (bearing != null) {
+        keyframe.bearing = toDouble(bearing);
+      }
+      final Object tilt = map.get("tilt");
+      if (tilt != null) {
+        keyframe.tilt = toDouble(tilt);
+      }
+      final Object padding = map.get("padding");
+      if (padding != null) {
+        final List<?> paddingData = toList(padding);
+        keyframe.padding = new int[] {
+          toPixels(paddingData.get(0), density),
+          toPixels(paddingData.get(1), density),
+          toPixels(paddingData.get(2), density),
+          toPixels(paddingData.get(3), density)};
+      }
+      final Object duration = map.get("duration");
+      if (duration != null) {
+        keyframe.durationMs = toInt(duration);
+      }
+      final Object easing = map.get("easing");
+      if (easing != null) {
+        keyframe.easing = toString(easing);
+      }
+      keyframes.add(keyframe);
+    }
+    return keyframes;
+  }
+
+  static PropertyAnimator.Spec toPropertyAnimationSpec(Object o) {
+    final Map<?, ?> data = toMap(o);
+    final PropertyAnimator.Spec spec = new PropertyAnimator.Spec();
+    final Object from = data.get("from");
+    if (from != null) {
+      spec.from = toFloat(from);
+    }
+    spec.to = toFloat(data.get("to"));
+    spec.durationMs = toLong(data.get("durationMs"));
+    final Object easing = data.get("easing");
+    if (easing != null) {
+      spec.easing = toString(easing);
+    }
+    final Object repeat = data.get("repeat");
+    if (repeat != null) {
+      spec.repeat = toInt(repeat);
+    }
+    final Object reverse = data.get("reverse");
+    if (reverse != null) {
+      spec.reverse = toBoolean(reverse);
+    }
+    final Object stopAfterMs = data.get("stopAfterMs");
+    if (stopAfterMs != null) {
+      spec.stopAfterMs = toLong(stopAfterMs);
+    }
+    return spec;
+  }
+
+  static AnnotationFilter toAnnotationFilter(Object o) {
+    final Map<?, ?> data = toMap(o);
+    final AnnotationFilter filter = new AnnotationFilter();
+    final Object ids = data.get("ids");
+    if (ids != null) {
+      filter.ids = toStringSet(ids);
+    }
+    final Object group = data.get("group");
+    if (group != null) {
+      filter.group = toString(group);
+    }
+    final Object tags = data.get("tags");
+    if (tags != null) {
+      filter.tags = toStringSet(tags);
+    }
+    final Object bounds = data.get("bounds");
+    if (bounds != null) {
+      final List<?> corners = toList(bounds);
+      filter.bounds = new GeoBounds();
+      final List<?> southwest = toList(corners.get(0));
+      final List<?> northeast = toList(corners.get(1));
+      filter.bounds.set(toDouble(southwest.get(0)), toDouble(southwest.get(1)),
+        toDouble(northeast.get(0)), toDouble(northeast.get(1)));
+    }
+    final Object invert = data.get("invert");
+    if (invert != null) {
+      filter.invert = toBoolean(invert);
+    }
+    return filter;
+  }
+
+  /**
+   * Merges the {@code minZoom} and {@code maxZoom} options into {@code range}. A bound given as
+   * null is cleared, a bound that is left out keeps its value.
+   */
+  static ZoomRange interpretZoomRange(Object o, ZoomRange range) {
+    final Map<?, ?> data = toMap(o);
+    final boolean hasMinZoom = data.containsKey("minZoom");
+    final boolean hasMaxZoom = data.containsKey("maxZoom");
+    if (!hasMinZoom && !hasMaxZoom) {
+      return range;
+    }
+    if (range == null) {
+      range = new ZoomRange();
+    }
+    if (hasMinZoom) {
+      final Object minZoom = data.get("minZoom");
+      range.minZoom = minZoom == null ? 0 : toDouble(minZoom);
+    }
+    if (hasMaxZoom) {
+      final Object maxZoom = data.get("maxZoom");
+      range.maxZoom = maxZoom == null ? Double.POSITIVE_INFINITY : toDouble(maxZoom);
+    }
+    return range;
+  }
+
+  /** Returns {@code list}, or an empty list for a missing argument. */
+  static <T> List<T> orEmpty(List<T> list) {
+    return list != null ? list : Collections.<T>emptyList();
+  }
+
+  static Set<String> toStringSet(Object o) {
+    final List<?> data = toList(o);
+    final Set<String> strings = new HashSet<>(data.size() * 2);
+    for (Object item : data) {
+      strings.add(toString(item));
+    }
+    return strings;
+  }
+
+  static double toDouble(Object o) {
     return ((Number) o).doubleValue();
   }
 
@@ -137,11 +287,32 @@ class Convert {
     return data;
   }
 
+  /**
+   * Writes {@code position} into the given containers instead of allocating new ones. Only for
+   * payloads that are encoded before the next call, such as camera move events.
+   */
+  static void toJson(CameraPosition position, Map<String, Object> data, List<Object> target) {
+    target.set(0, box(target.get(0), position.target.getLatitude()));
+    target.set(1, box(target.get(1), position.target.getLongitude()));
+    data.put("bearing", box(data.get("bearing"), position.bearing));
+    data.put("target", target);
+    data.put("tilt", box(data.get("tilt"), position.tilt));
+    data.put("zoom", box(data.get("zoom"), position.zoom));
+  }
+
+  /** Returns {@code previous} if it already holds {@code value}, otherwise boxes {@code value}. */
+  private static Object box(Object previous, double value) {
+    if (previous instanceof Double && (Double) previous == value) {
+      return previous;
+    }
+    return value;
+  }
+
   private static Object toJson(LatLng latLng) {
     return Arrays.asList(latLng.getLatitude(), latLng.getLongitude());
   }
 
-  private static LatLng toLatLng(Object o) {
+  static LatLng toLatLng(Object o) {
     final List<?> data = toList(o);
     return new LatLng(toDouble(data.get(0)), toDouble(data.get(1)));
   }
@@ -171,6 +342,14 @@ class Convert {
     return latLngList;
   }
 
+  private static List<LatLng> toLatLngList(double[] coordinates) {
+    final List<LatLng> latLngList = new ArrayList<>(coordinates.length / 2);
+    for (int i = 0; i < coordinates.length; i += 2) {
+      latLngList.add(new LatLng(coordinates[i], coordinates[i + 1]));
+    }
+    return latLngList;
+  }
+
   private static List<?> toList(Object o) {
     return (List<?>) o;
   }
@@ -191,6 +370,11 @@ class Convert {
     return (int) toFractionalPixels(o, density);
   }
 
+  /** Returns side {@code index} of a left, top, right, bottom padding, 0 without padding. */
+  static int toPaddingPixels(List<?> padding, int index, float density) {
+    return padding != null && index < padding.size() ? toPixels(padding.get(index), density) : 0;
+  }
+
   private static Point toPoint(Object o, float density) {
     final List<?> data = toList(o);
     return new Point(toPixels(data.get(0), density), toPixels(data.get(1), density));
@@ -201,6 +385,15 @@ class Convert {
   }
 
   static void interpretMapboxMapOptions(Object o, MapboxMapOptionsSink sink) {
+    final Tracer tracer = Tracing.begin("Convert.interpretMapboxMapOptions");
+    try {
+      applyMapboxMapOptions(o, sink);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private static void applyMapboxMapOptions(Object o, MapboxMapOptionsSink sink) {
     final Map<?, ?> data = toMap(o);
     final Object cameraTargetBounds = data.get("cameraTargetBounds");
     if (cameraTargetBounds != null) {
@@ -253,6 +446,15 @@ class Convert {
   }
 
   static void interpretSymbolOptions(Object o, SymbolOptionsSink sink) {
+    final Tracer tracer = Tracing.begin("Convert.interpretSymbolOptions");
+    try {
+      applySymbolOptions(o, sink);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private static void applySymbolOptions(Object o, SymbolOptionsSink sink) {
     final Map<?, ?> data = toMap(o);
     final Object iconSize = data.get("iconSize");
     if (iconSize != null) {
@@ -352,7 +554,8 @@ class Convert {
     }
     final Object geometry = data.get("geometry");
     if (geometry != null) {
-      sink.setGeometry(toLatLng(geometry));
+      final List<?> latLng = toList(geometry);
+      sink.setGeometry(toDouble(latLng.get(0)), toDouble(latLng.get(1)));
     }
     final Object zIndex = data.get("zIndex");
     if (zIndex != null) {
@@ -365,6 +568,15 @@ class Convert {
   }
 
   static void interpretCircleOptions(Object o, CircleOptionsSink sink) {
+    final Tracer tracer = Tracing.begin("Convert.interpretCircleOptions");
+    try {
+      applyCircleOptions(o, sink);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private static void applyCircleOptions(Object o, CircleOptionsSink sink) {
     final Map<?, ?> data = toMap(o);
     final Object circleRadius = data.get("circleRadius");
     if (circleRadius != null) {
@@ -405,56 +617,73 @@ class Convert {
   }
 
   static void interpretLineOptions(Object o, LineOptionsSink sink) {
+    final Tracer tracer = Tracing.begin("Convert.interpretLineOptions");
+    try {
+      applyLineOptions(o, sink);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private static void applyLineOptions(Object o, LineOptionsSink sink) {
     final Map<?, ?> data = toMap(o);
     final Object lineJoin = data.get("lineJoin");
     if (lineJoin != null) {
-      Logger.e(TAG, "setLineJoin" +  lineJoin);
       sink.setLineJoin(toString(lineJoin));
     }
     final Object lineOpacity = data.get("lineOpacity");
     if (lineOpacity != null) {
-      Logger.e(TAG, "setLineOpacity" + lineOpacity);
       sink.setLineOpacity(toFloat(lineOpacity));
     }
     final Object lineColor = data.get("lineColor");
     if (lineColor != null) {
-      Logger.e(TAG, "setLineColor" +  lineColor);
       sink.setLineColor(toString(lineColor));
     }
     final Object lineWidth = data.get("lineWidth");
     if (lineWidth != null) {
-      Logger.e(TAG, "setLineWidth" + lineWidth);
       sink.setLineWidth(toFloat(lineWidth));
     }
     final Object lineGapWidth = data.get("lineGapWidth");
     if (lineGapWidth != null) {
-      Logger.e(TAG, "setLineGapWidth" + lineGapWidth);
       sink.setLineGapWidth(toFloat(lineGapWidth));
     }
     final Object lineOffset = data.get("lineOffset");
     if (lineOffset != null) {
-      Logger.e(TAG, "setLineOffset" + lineOffset);
       sink.setLineOffset(toFloat(lineOffset));
     }
     final Object lineBlur = data.get("lineBlur");
     if (lineBlur != null) {
-      Logger.e(TAG, "setLineBlur" + lineBlur);
       sink.setLineBlur(toFloat(lineBlur));
     }
     final Object linePattern = data.get("linePattern");
     if (linePattern != null) {
-      Logger.e(TAG, "setLinePattern" +  linePattern);
       sink.setLinePattern(toString(linePattern));
     }
     final Object geometry = data.get("geometry");
     if (geometry != null) {
-      Logger.e(TAG, "SetGeometry");
       sink.setGeometry(toLatLngList(geometry));
     }
+    final Object encodedGeometry = data.get("encodedGeometry");
+    if (encodedGeometry != null) {
+      final Object precision = data.get("encodedGeometryPrecision");
+      sink.setGeometry(toLatLngList(PolylineCodec.decodePolyline(
+        toString(encodedGeometry), precision == null ? 5 : toInt(precision))));
+    }
+    final Object packedGeometry = data.get("packedGeometry");
+    if (packedGeometry != null) {
+      sink.setGeometry(toLatLngList(PolylineCodec.decodeDeltaE6((byte[]) packedGeometry)));
+    }
     final Object draggable = data.get("draggable");
     if (draggable != null) {
-      Logger.e(TAG, "SetDraggable");
       sink.setDraggable(toBoolean(draggable));
     }
   }
+
+  /** Returns whether line options set the geometry, in any of the supported formats. */
+  static boolean hasLineGeometry(Object o) {
+    final Map<?, ?> data = toMap(o);
+    return data.get("geometry") != null
+      || data.get("encodedGeometry") != null
+      || data.get("packedGeometry") != null;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Source of display frames for native annotation animations. Animations only depend on this
+ * interface, so they can be driven by a manual clock instead of the display.
+ */
+interface FrameClock {
+
+  interface FrameCallback {
+    /**
+     * Called once per frame with the frame time in {@link System#nanoTime()} base.
+     *
+     * @return whether the callback wants to receive the next frame as well.
+     */
+    boolean doFrame(long frameTimeNanos);
+  }
+
+  /** Registers {@code callback} for the next frames, registering it twice has no effect. */
+  void addFrameCallback(FrameCallback callback);
+
+  void removeFrameCallback(FrameCallback callback);
+
+  /** Sets a listener that runs after all callbacks of a frame, e.g. to flush batched updates. */
+  void setOnFrameEndListener(Runnable listener);
+
+  long nanoTime();
+}
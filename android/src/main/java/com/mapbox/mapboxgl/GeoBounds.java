@@ -0,0 +1,112 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+
+/**
+ * Mutable latitude/longitude box used to accumulate and cache annotation extents without
+ * allocating per vertex.
+ *
+ * <p>Longitudes are unwrapped: {@link #west} is in [-180, 180) and {@link #east} may exceed 180
+ * for a box crossing the antimeridian. Included points and boxes extend the box towards the side
+ * that keeps it smallest, so points on both sides of the antimeridian give a box across it.
+ */
+final class GeoBounds {
+  double south = Double.POSITIVE_INFINITY;
+  double west = Double.POSITIVE_INFINITY;
+  double north = Double.NEGATIVE_INFINITY;
+  double east = Double.NEGATIVE_INFINITY;
+
+  boolean isEmpty() {
+    return south > north;
+  }
+
+  /**
+   * Sets the box from its corners. A {@code west} greater than {@code east} crosses the
+   * antimeridian, an {@code east} already unwrapped past {@code west + 360} covers all longitudes.
+   */
+  void set(double south, double west, double north, double east) {
+    this.south = Math.min(south, north);
+    this.north = Math.max(south, north);
+    this.west = west;
+    this.east = east < west ? east + 360 : east;
+    normalize();
+  }
+
+  void include(double lat, double lng) {
+    if (isEmpty()) {
+      set(lat, lng, lat, lng);
+      return;
+    }
+    if (lat < south) {
+      south = lat;
+    }
+    if (lat > north) {
+      north = lat;
+    }
+    final double shifted = lng + shift(lng, lng);
+    if (shifted < west) {
+      west = shifted;
+    }
+    if (shifted > east) {
+      east = shifted;
+    }
+    normalize();
+  }
+
+  void include(GeoBounds other) {
+    if (other.isEmpty()) {
+      return;
+    }
+    if (isEmpty()) {
+      set(other.south, other.west, other.north, other.east);
+      return;
+    }
+    south = Math.min(south, other.south);
+    north = Math.max(north, other.north);
+    final double shift = shift(other.west, other.east);
+    west = Math.min(west, other.west + shift);
+    east = Math.max(east, other.east + shift);
+    normalize();
+  }
+
+  boolean contains(double lat, double lng) {
+    final double shifted = lng + shift(lng, lng);
+    return lat >= south && lat <= north && shifted >= west && shifted <= east;
+  }
+
+  boolean intersects(GeoBounds other) {
+    if (isEmpty() || other.isEmpty()) {
+      return false;
+    }
+    final double shift = shift(other.west, other.east);
+    return other.south <= north && other.north >= south
+      && other.west + shift <= east && other.east + shift >= west;
+  }
+
+  LatLngBounds toLatLngBounds() {
+    return LatLngBounds.from(north, east, south, west);
+  }
+
+  /**
+   * Returns the multiple of 360 degrees that moves the longitudes {@code west} to {@code east}
+   * closest to the middle of this box.
+   */
+  private double shift(double west, double east) {
+    return Math.round(((this.west + this.east) - (west + east)) / 720) * 360.0;
+  }
+
+  private void normalize() {
+    if (east - west >= 360) {
+      west = -180;
+      east = 180;
+      return;
+    }
+    final double shift = Math.floor((west + 180) / 360) * 360;
+    west -= shift;
+    east -= shift;
+  }
+}
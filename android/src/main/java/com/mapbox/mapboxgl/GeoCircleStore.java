@@ -0,0 +1,247 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.graphics.Color;
+import android.util.LruCache;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.Fill;
+import com.mapbox.mapboxsdk.plugins.annotation.FillManager;
+import com.mapbox.mapboxsdk.plugins.annotation.FillOptions;
+import com.mapbox.mapboxsdk.utils.ColorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Circles with a radius in meters, rendered as geodesic polygons through a {@link FillManager}.
+ *
+ * <p>The number of polygon vertices follows the on screen size of the circle and is re-evaluated
+ * when the camera becomes idle, so zooming needs no channel traffic. Rings are cached by center,
+ * radius and vertex count, shared between circles and zoom levels.
+ */
+class GeoCircleStore {
+  private static final int MIN_VERTICES = 16;
+  private static final int MAX_VERTICES = 256;
+  /** Target length of a polygon edge on screen. */
+  private static final double EDGE_PIXELS = 6;
+  private static final double EQUATOR_METERS = 2 * Math.PI * GeoMath.EARTH_RADIUS_METERS;
+
+  private static class Entry {
+    final Fill fill;
+    double lat;
+    double lng;
+    double radiusMeters;
+    int vertices;
+
+    Entry(Fill fill) {
+      this.fill = fill;
+    }
+  }
+
+  private static final class RingKey {
+    final double lat;
+    final double lng;
+    final double radiusMeters;
+    final int vertices;
+
+    RingKey(double lat, double lng, double radiusMeters, int vertices) {
+      this.lat = lat;
+      this.lng = lng;
+      this.radiusMeters = radiusMeters;
+      this.vertices = vertices;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof RingKey)) {
+        return false;
+      }
+      final RingKey other = (RingKey) o;
+      return lat == other.lat && lng == other.lng && radiusMeters == other.radiusMeters
+        && vertices == other.vertices;
+    }
+
+    @Override
+    public int hashCode() {
+      int hash = hash(lat);
+      hash = 31 * hash + hash(lng);
+      hash = 31 * hash + hash(radiusMeters);
+      return 31 * hash + vertices;
+    }
+
+    private static int hash(double value) {
+      final long bits = Double.doubleToLongBits(value);
+      return (int) (bits ^ (bits >>> 32));
+    }
+  }
+
+  private final AnnotationStore<Fill, FillOptions> fills;
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final LruCache<RingKey, List<List<LatLng>>> rings = new LruCache<>(512);
+  private final double[] point = new double[2];
+
+  GeoCircleStore(AnnotationStore<Fill, FillOptions> fills) {
+    this.fills = fills;
+  }
+
+  /**
+   * Adds a circle described by {@code options}, holding {@code center}, {@code radius} in meters
+   * and optionally {@code fillColor}, {@code fillOpacity} and {@code fillOutlineColor}.
+   */
+  String add(Map<?, ?> options, double zoom) {
+    final List<?> center = (List<?>) options.get("center");
+    final double lat = Convert.toDouble(center.get(0));
+    final double lng = Convert.toDouble(center.get(1));
+    final double radiusMeters = Convert.toDouble(options.get("radius"));
+    final int vertices = vertices(lat, radiusMeters, zoom);
+    final FillOptions fillOptions = new FillOptions()
+      .withLatLngs(ring(lat, lng, radiusMeters, vertices));
+    final Object fillColor = options.get("fillColor");
+    if (fillColor != null) {
+      fillOptions.withFillColor(toRgbaString(fillColor));
+    }
+    final Object fillOpacity = options.get("fillOpacity");
+    if (fillOpacity != null) {
+      fillOptions.withFillOpacity((float) Convert.toDouble(fillOpacity));
+    }
+    final Object fillOutlineColor = options.get("fillOutlineColor");
+    if (fillOutlineColor != null) {
+      fillOptions.withFillOutlineColor(toRgbaString(fillOutlineColor));
+    }
+    final Entry entry = new Entry(fills.create(fillOptions));
+    entry.lat = lat;
+    entry.lng = lng;
+    entry.radiusMeters = radiusMeters;
+    entry.vertices = vertices;
+    final String circleId = String.valueOf(entry.fill.getId());
+    entries.put(circleId, entry);
+    return circleId;
+  }
+
+  /** Applies the options that are present, as for {@link #add}. */
+  void update(String circleId, Map<?, ?> options, double zoom) {
+    final Entry entry = entry(circleId);
+    final Object center = options.get("center");
+    final Object radius = options.get("radius");
+    if (center != null || radius != null) {
+      if (center != null) {
+        entry.lat = Convert.toDouble(((List<?>) center).get(0));
+        entry.lng = Convert.toDouble(((List<?>) center).get(1));
+      }
+      if (radius != null) {
+        entry.radiusMeters = Convert.toDouble(radius);
+      }
+      entry.vertices = vertices(entry.lat, entry.radiusMeters, zoom);
+      entry.fill.setLatLngs(ring(entry.lat, entry.lng, entry.radiusMeters, entry.vertices));
+    }
+    final Object fillColor = options.get("fillColor");
+    if (fillColor != null) {
+      entry.fill.setFillColor(toColor(fillColor));
+    }
+    final Object fillOpacity = options.get("fillOpacity");
+    if (fillOpacity != null) {
+      entry.fill.setFillOpacity((float) Convert.toDouble(fillOpacity));
+    }
+    final Object fillOutlineColor = options.get("fillOutlineColor");
+    if (fillOutlineColor != null) {
+      entry.fill.setFillOutlineColor(toColor(fillOutlineColor));
+    }
+    fills.update(entry.fill);
+  }
+
+  void remove(String circleId) {
+    final Entry entry = entries.remove(circleId);
+    if (entry != null) {
+      fills.delete(entry.fill);
+    }
+  }
+
+  /** Re-tessellates the circles whose vertex count changed at {@code zoom}, in one update. */
+  void onZoomChanged(double zoom) {
+    if (entries.isEmpty()) {
+      return;
+    }
+    final List<Fill> changed = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      final int vertices = vertices(entry.lat, entry.radiusMeters, zoom);
+      if (vertices != entry.vertices) {
+        entry.vertices = vertices;
+        entry.fill.setLatLngs(ring(entry.lat, entry.lng, entry.radiusMeters, vertices));
+        changed.add(entry.fill);
+      }
+    }
+    if (!changed.isEmpty()) {
+      final Tracer tracer = Tracing.begin("FillManager.update");
+      try {
+        fills.update(changed);
+      } finally {
+        Tracing.end(tracer);
+      }
+    }
+  }
+
+  void onDestroy() {
+    entries.clear();
+    rings.evictAll();
+  }
+
+  private Entry entry(String circleId) {
+    final Entry entry = entries.get(circleId);
+    if (entry == null) {
+      throw new IllegalArgumentException("Unknown geo circle: " + circleId);
+    }
+    return entry;
+  }
+
+  /** Parses a color option such as {@code #RRGGBB}, for adds and updates alike. */
+  private static int toColor(Object color) {
+    return Color.parseColor((String) color);
+  }
+
+  /** Converts a color option to the rgba string held by fill options, like the fill setters. */
+  private static String toRgbaString(Object color) {
+    return ColorUtils.colorToRgbaString(toColor(color));
+  }
+
+  /** Vertex count for edges of about {@link #EDGE_PIXELS}, rounded to a power of two. */
+  private static int vertices(double lat, double radiusMeters, double zoom) {
+    final double metersPerPixel =
+      EQUATOR_METERS * Math.cos(Math.toRadians(lat)) / (512 * Math.pow(2, zoom));
+    final double circumferencePixels = 2 * Math.PI * radiusMeters / metersPerPixel;
+    int vertices = MIN_VERTICES;
+    while (vertices < MAX_VERTICES && vertices * EDGE_PIXELS < circumferencePixels) {
+      vertices *= 2;
+    }
+    return vertices;
+  }
+
+  private List<List<LatLng>> ring(double lat, double lng, double radiusMeters, int vertices) {
+    final RingKey key = new RingKey(lat, lng, radiusMeters, vertices);
+    List<List<LatLng>> ring = rings.get(key);
+    if (ring == null) {
+      final List<LatLng> points = new ArrayList<>(vertices + 1);
+      for (int i = 0; i < vertices; i++) {
+        GeoMath.destination(lat, lng, 360.0 * i / vertices, radiusMeters, point);
+        double pointLng = point[1];
+        // Keep rings around the antimeridian contiguous.
+        if (pointLng - lng > 180) {
+          pointLng -= 360;
+        } else if (pointLng - lng < -180) {
+          pointLng += 360;
+        }
+        points.add(new LatLng(point[0], pointLng));
+      }
+      points.add(points.get(0));
+      ring = Collections.singletonList(points);
+      rings.put(key, ring);
+    }
+    return ring;
+  }
+}
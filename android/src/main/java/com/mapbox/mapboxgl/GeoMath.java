@@ -0,0 +1,129 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Spherical earth helpers working on plain degrees, so callers on hot paths need no LatLng
+ * instances.
+ */
+final class GeoMath {
+  static final double EARTH_RADIUS_METERS = 6371008.8;
+
+  private GeoMath() {
+  }
+
+  /** Great circle distance in meters. */
+  static double distance(double lat1, double lng1, double lat2, double lng2) {
+    final double phi1 = Math.toRadians(lat1);
+    final double phi2 = Math.toRadians(lat2);
+    final double dPhi = phi2 - phi1;
+    final double dLambda = Math.toRadians(lng2 - lng1);
+    final double a = Math.sin(dPhi / 2) * Math.sin(dPhi / 2)
+      + Math.cos(phi1) * Math.cos(phi2) * Math.sin(dLambda / 2) * Math.sin(dLambda / 2);
+    return 2 * EARTH_RADIUS_METERS * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+  }
+
+  /** Initial bearing from the first to the second point, in degrees clockwise from north. */
+  static double bearing(double lat1, double lng1, double lat2, double lng2) {
+    final double phi1 = Math.toRadians(lat1);
+    final double phi2 = Math.toRadians(lat2);
+    final double dLambda = Math.toRadians(lng2 - lng1);
+    final double y = Math.sin(dLambda) * Math.cos(phi2);
+    final double x = Math.cos(phi1) * Math.sin(phi2)
+      - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda);
+    return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+  }
+
+  /**
+   * Point reached when travelling {@code meters} from the origin along {@code bearing}, written to
+   * {@code out} as latitude and longitude.
+   */
+  static void destination(double lat, double lng, double bearing, double meters, double[] out) {
+    final double delta = meters / EARTH_RADIUS_METERS;
+    final double theta = Math.toRadians(bearing);
+    final double phi1 = Math.toRadians(lat);
+    final double lambda1 = Math.toRadians(lng);
+    final double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta)
+      + Math.cos(phi1) * Math.sin(delta) * Math.cos(theta));
+    final double lambda2 = lambda1 + Math.atan2(
+      Math.sin(theta) * Math.sin(delta) * Math.cos(phi1),
+      Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+    out[0] = Math.toDegrees(phi2);
+    out[1] = (Math.toDegrees(lambda2) + 540) % 360 - 180;
+  }
+
+  /**
+   * Inserts points along the great circle between consecutive coordinates, packed as
+   * {@code lat, lng} pairs, so that no step is longer than {@code maxStepMeters}. Longitudes are
+   * unwrapped past +-180 degrees, so lines crossing the antimeridian render continuously.
+   */
+  static double[] densify(double[] coordinates, double maxStepMeters) {
+    final int count = coordinates.length / 2;
+    if (count < 2) {
+      return coordinates;
+    }
+    final double maxStep = maxStepMeters / EARTH_RADIUS_METERS;
+    int total = 1;
+    for (int i = 1; i < count; i++) {
+      total += steps(coordinates, i, maxStep);
+    }
+    final double[] dense = new double[total * 2];
+    dense[0] = coordinates[0];
+    dense[1] = coordinates[1];
+    int j = 2;
+    for (int i = 1; i < count; i++) {
+      final int steps = steps(coordinates, i, maxStep);
+      final double phi1 = Math.toRadians(coordinates[2 * i - 2]);
+      final double lambda1 = Math.toRadians(coordinates[2 * i - 1]);
+      final double phi2 = Math.toRadians(coordinates[2 * i]);
+      final double lambda2 = Math.toRadians(coordinates[2 * i + 1]);
+      final double x1 = Math.cos(phi1) * Math.cos(lambda1);
+      final double y1 = Math.cos(phi1) * Math.sin(lambda1);
+      final double z1 = Math.sin(phi1);
+      final double x2 = Math.cos(phi2) * Math.cos(lambda2);
+      final double y2 = Math.cos(phi2) * Math.sin(lambda2);
+      final double z2 = Math.sin(phi2);
+      final double delta = angle(phi1, lambda1, phi2, lambda2);
+      final double sinDelta = Math.sin(delta);
+      for (int k = 1; k <= steps; k++) {
+        double lat;
+        double lng;
+        if (k == steps || sinDelta < 1e-12) {
+          lat = coordinates[2 * i];
+          lng = coordinates[2 * i + 1];
+        } else {
+          final double f = (double) k / steps;
+          final double a = Math.sin((1 - f) * delta) / sinDelta;
+          final double b = Math.sin(f * delta) / sinDelta;
+          final double x = a * x1 + b * x2;
+          final double y = a * y1 + b * y2;
+          final double z = a * z1 + b * z2;
+          lat = Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)));
+          lng = Math.toDegrees(Math.atan2(y, x));
+        }
+        final double previousLng = dense[j - 1];
+        lng = previousLng + ((lng - previousLng) % 360 + 540) % 360 - 180;
+        dense[j++] = lat;
+        dense[j++] = lng;
+      }
+    }
+    return dense;
+  }
+
+  private static int steps(double[] coordinates, int i, double maxStep) {
+    final double delta = angle(
+      Math.toRadians(coordinates[2 * i - 2]), Math.toRadians(coordinates[2 * i - 1]),
+      Math.toRadians(coordinates[2 * i]), Math.toRadians(coordinates[2 * i + 1]));
+    return Math.max(1, (int) Math.ceil(delta / maxStep));
+  }
+
+  /** Central angle between two points given in radians. */
+  private static double angle(double phi1, double lambda1, double phi2, double lambda2) {
+    final double sinDPhi = Math.sin((phi2 - phi1) / 2);
+    final double sinDLambda = Math.sin((lambda2 - lambda1) / 2);
+    final double a = sinDPhi * sinDPhi + Math.cos(phi1) * Math.cos(phi2) * sinDLambda * sinDLambda;
+    return 2 * Math.atan2(Math.sqrt(a), Math.sqrt(Math.max(0, 1 - a)));
+  }
+}
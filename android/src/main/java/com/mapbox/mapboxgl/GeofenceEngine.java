@@ -0,0 +1,314 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates location fixes against circular and polygonal geofences and reports enter, exit and
+ * dwell transitions.
+ *
+ * <p>Fences are bucketed into a uniform latitude/longitude grid, so a fix only tests the fences of
+ * its own cell plus the ones it is currently inside. A fence is entered as soon as the fix is
+ * inside it, but only exited once the fix is more than the hysteresis distance outside, so GPS
+ * jitter along a boundary does not produce enter/exit pairs. Dwell is reported once per visit,
+ * on the first fix after the fence has been occupied for the dwell time.
+ *
+ * <p>Polygons are single rings without holes and must not cross the antimeridian.
+ */
+class GeofenceEngine {
+  static final int ENTER = 0;
+  static final int EXIT = 1;
+  static final int DWELL = 2;
+
+  private static final int CIRCLE = 0;
+  private static final int POLYGON = 1;
+  private static final double MIN_CELL_DEGREES = 0.002;
+  private static final double MAX_CELL_DEGREES = 1;
+  // Fences spanning more cells than this are tested on every fix instead of being indexed.
+  private static final int MAX_CELLS_PER_FENCE = 1024;
+  private static final double METERS_PER_DEGREE =
+    Math.toRadians(1) * GeoMath.EARTH_RADIUS_METERS;
+
+  static final class Transition {
+    final String fenceId;
+    final int type;
+
+    Transition(String fenceId, int type) {
+      this.fenceId = fenceId;
+      this.type = type;
+    }
+  }
+
+  private String[] ids = new String[0];
+  private int[] kinds = new int[0];
+  // Circles: lat, lng, radius. Polygons: index of the first and one past the last vertex.
+  private double[] shapes = new double[0];
+  private double[] vertices = new double[0];
+  // minLat, minLng, maxLat, maxLng per fence.
+  private double[] boxes = new double[0];
+  private final Map<Long, int[]> cells = new HashMap<>();
+  private int[] unindexed = new int[0];
+  private double cellDegrees = MAX_CELL_DEGREES;
+
+  private boolean[] inside = new boolean[0];
+  private boolean[] dwelled = new boolean[0];
+  private long[] enteredAt = new long[0];
+  private int[] evaluatedIn = new int[0];
+  private int evaluation = 0;
+  private final List<Integer> occupied = new ArrayList<>();
+
+  private double hysteresisMeters = 20;
+  private long dwellMillis = 0;
+
+  void setHysteresisMeters(double hysteresisMeters) {
+    this.hysteresisMeters = Math.max(0, hysteresisMeters);
+  }
+
+  /** Sets the occupancy time after which a dwell is reported, zero disables dwell transitions. */
+  void setDwellMillis(long dwellMillis) {
+    this.dwellMillis = Math.max(0, dwellMillis);
+  }
+
+  /**
+   * Replaces all fences. {@code circles} holds {@code lat, lng, radiusMeters} per circle,
+   * {@code polygonCoordinates} holds {@code lat, lng} pairs and {@code polygonOffsets} the index
+   * of the first vertex of every polygon. Every fence starts out as not occupied.
+   */
+  void load(
+    List<String> circleIds,
+    double[] circles,
+    List<String> polygonIds,
+    int[] polygonOffsets,
+    double[] polygonCoordinates) {
+    final int circleCount = circleIds == null ? 0 : circleIds.size();
+    final int polygonCount = polygonIds == null ? 0 : polygonIds.size();
+    final int vertexCount = polygonCoordinates == null ? 0 : polygonCoordinates.length / 2;
+    if (circleCount * 3 != (circles == null ? 0 : circles.length)) {
+      throw new IllegalArgumentException("Expected 3 values per circle geofence");
+    }
+    if (polygonCount != (polygonOffsets == null ? 0 : polygonOffsets.length)) {
+      throw new IllegalArgumentException("Expected one offset per polygon geofence");
+    }
+    final int count = circleCount + polygonCount;
+    ids = new String[count];
+    kinds = new int[count];
+    shapes = new double[count * 3];
+    vertices = polygonCoordinates == null ? new double[0] : polygonCoordinates;
+    boxes = new double[count * 4];
+    for (int i = 0; i < circleCount; i++) {
+      ids[i] = circleIds.get(i);
+      kinds[i] = CIRCLE;
+      System.arraycopy(circles, i * 3, shapes, i * 3, 3);
+      final double lat = circles[i * 3];
+      final double lng = circles[i * 3 + 1];
+      final double dLat = circles[i * 3 + 2] / METERS_PER_DEGREE;
+      final double dLng = dLat / Math.max(Math.cos(Math.toRadians(lat)), 1e-6);
+      setBox(i, lat - dLat, lng - dLng, lat + dLat, lng + dLng);
+    }
+    for (int p = 0; p < polygonCount; p++) {
+      final int i = circleCount + p;
+      final int start = polygonOffsets[p];
+      final int end = p + 1 < polygonCount ? polygonOffsets[p + 1] : vertexCount;
+      if (start < 0 || end > vertexCount || end - start < 3) {
+        throw new IllegalArgumentException(
+          "Polygon geofence " + polygonIds.get(p) + " needs at least 3 vertices");
+      }
+      ids[i] = polygonIds.get(p);
+      kinds[i] = POLYGON;
+      shapes[i * 3] = start;
+      shapes[i * 3 + 1] = end;
+      double minLat = Double.POSITIVE_INFINITY;
+      double minLng = Double.POSITIVE_INFINITY;
+      double maxLat = Double.NEGATIVE_INFINITY;
+      double maxLng = Double.NEGATIVE_INFINITY;
+      for (int v = start; v < end; v++) {
+        minLat = Math.min(minLat, vertices[v * 2]);
+        maxLat = Math.max(maxLat, vertices[v * 2]);
+        minLng = Math.min(minLng, vertices[v * 2 + 1]);
+        maxLng = Math.max(maxLng, vertices[v * 2 + 1]);
+      }
+      setBox(i, minLat, minLng, maxLat, maxLng);
+    }
+    inside = new boolean[count];
+    dwelled = new boolean[count];
+    enteredAt = new long[count];
+    evaluatedIn = new int[count];
+    evaluation = 0;
+    occupied.clear();
+    buildIndex();
+  }
+
+  void clear() {
+    load(null, null, null, null, null);
+  }
+
+  boolean isEmpty() {
+    return ids.length == 0;
+  }
+
+  /** Appends the transitions caused by a fix at the given position to {@code out}. */
+  void evaluate(double lat, double lng, long timeMillis, List<Transition> out) {
+    if (ids.length == 0) {
+      return;
+    }
+    evaluation++;
+    for (int i = occupied.size() - 1; i >= 0; i--) {
+      evaluate(occupied.get(i), lat, lng, timeMillis, out);
+    }
+    final int[] cell = cells.get(cellKey(lat, lng));
+    if (cell != null) {
+      for (int fence : cell) {
+        evaluate(fence, lat, lng, timeMillis, out);
+      }
+    }
+    for (int fence : unindexed) {
+      evaluate(fence, lat, lng, timeMillis, out);
+    }
+  }
+
+  private void evaluate(int fence, double lat, double lng, long timeMillis, List<Transition> out) {
+    if (evaluatedIn[fence] == evaluation) {
+      return;
+    }
+    evaluatedIn[fence] = evaluation;
+    if (!inside[fence]) {
+      if (contains(fence, lat, lng, 0)) {
+        inside[fence] = true;
+        dwelled[fence] = false;
+        enteredAt[fence] = timeMillis;
+        occupied.add(fence);
+        out.add(new Transition(ids[fence], ENTER));
+      }
+    } else if (!contains(fence, lat, lng, hysteresisMeters)) {
+      inside[fence] = false;
+      occupied.remove(Integer.valueOf(fence));
+      out.add(new Transition(ids[fence], EXIT));
+    } else if (dwellMillis > 0 && !dwelled[fence]
+      && timeMillis - enteredAt[fence] >= dwellMillis) {
+      dwelled[fence] = true;
+      out.add(new Transition(ids[fence], DWELL));
+    }
+  }
+
+  /** Whether the position is inside the fence grown by {@code margin} meters. */
+  private boolean contains(int fence, double lat, double lng, double margin) {
+    if (kinds[fence] == CIRCLE) {
+      return GeoMath.distance(shapes[fence * 3], shapes[fence * 3 + 1], lat, lng)
+        <= shapes[fence * 3 + 2] + margin;
+    }
+    final int start = (int) shapes[fence * 3];
+    final int end = (int) shapes[fence * 3 + 1];
+    if (containsPoint(start, end, lat, lng)) {
+      return true;
+    }
+    return margin > 0 && distanceToRing(start, end, lat, lng) <= margin;
+  }
+
+  private boolean containsPoint(int start, int end, double lat, double lng) {
+    boolean result = false;
+    for (int v = start, u = end - 1; v < end; u = v++) {
+      final double latV = vertices[v * 2];
+      final double lngV = vertices[v * 2 + 1];
+      final double latU = vertices[u * 2];
+      final double lngU = vertices[u * 2 + 1];
+      if ((latV > lat) != (latU > lat)
+        && lng < (lngU - lngV) * (lat - latV) / (latU - latV) + lngV) {
+        result = !result;
+      }
+    }
+    return result;
+  }
+
+  /** Distance in meters to the closest edge, on a local equirectangular projection. */
+  private double distanceToRing(int start, int end, double lat, double lng) {
+    final double scale = Math.cos(Math.toRadians(lat));
+    double closest = Double.POSITIVE_INFINITY;
+    for (int v = start, u = end - 1; v < end; u = v++) {
+      final double ax = (vertices[u * 2 + 1] - lng) * scale;
+      final double ay = vertices[u * 2] - lat;
+      final double bx = (vertices[v * 2 + 1] - lng) * scale;
+      final double by = vertices[v * 2] - lat;
+      final double dx = bx - ax;
+      final double dy = by - ay;
+      final double lengthSquared = dx * dx + dy * dy;
+      final double t = lengthSquared == 0
+        ? 0 : Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSquared));
+      final double x = ax + t * dx;
+      final double y = ay + t * dy;
+      closest = Math.min(closest, x * x + y * y);
+    }
+    return Math.sqrt(closest) * METERS_PER_DEGREE;
+  }
+
+  private void setBox(int fence, double minLat, double minLng, double maxLat, double maxLng) {
+    boxes[fence * 4] = minLat;
+    boxes[fence * 4 + 1] = minLng;
+    boxes[fence * 4 + 2] = maxLat;
+    boxes[fence * 4 + 3] = maxLng;
+  }
+
+  /** Sizes the grid cells after the average fence and buckets every fence into its cells. */
+  private void buildIndex() {
+    cells.clear();
+    unindexed = new int[0];
+    final int count = ids.length;
+    if (count == 0) {
+      return;
+    }
+    double span = 0;
+    for (int i = 0; i < count; i++) {
+      span += Math.max(boxes[i * 4 + 2] - boxes[i * 4], boxes[i * 4 + 3] - boxes[i * 4 + 1]);
+    }
+    cellDegrees = Math.max(MIN_CELL_DEGREES, Math.min(MAX_CELL_DEGREES, span / count));
+
+    final Map<Long, List<Integer>> buckets = new HashMap<>();
+    final List<Integer> large = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final long minRow = cell(boxes[i * 4]);
+      final long minColumn = cell(boxes[i * 4 + 1]);
+      final long maxRow = cell(boxes[i * 4 + 2]);
+      final long maxColumn = cell(boxes[i * 4 + 3]);
+      if ((maxRow - minRow + 1) * (maxColumn - minColumn + 1) > MAX_CELLS_PER_FENCE) {
+        large.add(i);
+        continue;
+      }
+      for (long row = minRow; row <= maxRow; row++) {
+        for (long column = minColumn; column <= maxColumn; column++) {
+          final long key = (row << 32) | (column & 0xffffffffL);
+          List<Integer> bucket = buckets.get(key);
+          if (bucket == null) {
+            bucket = new ArrayList<>(2);
+            buckets.put(key, bucket);
+          }
+          bucket.add(i);
+        }
+      }
+    }
+    for (Map.Entry<Long, List<Integer>> bucket : buckets.entrySet()) {
+      cells.put(bucket.getKey(), toArray(bucket.getValue()));
+    }
+    unindexed = toArray(large);
+  }
+
+  private long cell(double degrees) {
+    return (long) Math.floor(degrees / cellDegrees);
+  }
+
+  private long cellKey(double lat, double lng) {
+    return (cell(lat) << 32) | (cell(lng) & 0xffffffffL);
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    final int[] array = new int[values.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = values.get(i);
+    }
+    return array;
+  }
+}
@@ -10,20 +10,24 @@ import java.util.List;
 import com.mapbox.geojson.Point;
 import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.plugins.annotation.Line;
-import com.mapbox.mapboxsdk.plugins.annotation.LineManager;
 import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
 
 class LineBuilder implements LineOptionsSink {
-  private final LineManager lineManager;
+  private final AnnotationStore<Line, LineOptions> lineStore;
   private final LineOptions lineOptions;
 
-  LineBuilder(LineManager lineManager) {
-    this.lineManager = lineManager;
+  LineBuilder(AnnotationStore<Line, LineOptions> lineStore) {
+    this.lineStore = lineStore;
     this.lineOptions = new LineOptions();
   }
 
   Line build() {
-    return lineManager.create(lineOptions);
+    final Tracer tracer = Tracing.begin("LineManager.create");
+    try {
+      return lineStore.create(lineOptions);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -6,15 +6,18 @@
 
 package com.mapbox.mapboxgl;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import android.graphics.PointF;
 import android.util.Log;
 
+import com.mapbox.geojson.LineString;
 import com.mapbox.geojson.Point;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.AnnotationProperties;
 import com.mapbox.mapboxsdk.plugins.annotation.Line;
-import com.mapbox.mapboxsdk.plugins.annotation.LineManager;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
 import com.mapbox.mapboxsdk.utils.ColorUtils;
 
 /**
@@ -24,6 +27,9 @@ class LineController implements LineOptionsSink {
   private final Line line;
   private final OnLineTappedListener onTappedListener;
   private boolean consumeTapEvents;
+  private GeoBounds bounds;
+  private boolean zoomHidden = false;
+  private float shownLineOpacity = 1f;
 
   LineController(Line line, boolean consumeTapEvents, OnLineTappedListener onTappedListener) {
     this.line = line;
@@ -38,8 +44,17 @@ class LineController implements LineOptionsSink {
     return consumeTapEvents;
   }
 
-  void remove(LineManager lineManager) {
-    lineManager.delete(line);
+  Line getLine() {
+    return line;
+  }
+
+  void remove(AnnotationStore<Line, LineOptions> lineStore) {
+    final Tracer tracer = Tracing.begin("LineManager.delete");
+    try {
+      lineStore.delete(line);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -49,7 +64,34 @@ class LineController implements LineOptionsSink {
   
   @Override
   public void setLineOpacity(float lineOpacity) {
-    line.setLineOpacity(lineOpacity);
+    if (zoomHidden) {
+      shownLineOpacity = lineOpacity;
+    } else {
+      line.setLineOpacity(lineOpacity);
+    }
+  }
+
+  /**
+   * Hides the line outside of its zoom range by making it transparent, keeping the configured
+   * opacity for when it is shown again. Returns whether the line needs an update.
+   */
+  boolean setZoomHidden(boolean hidden) {
+    if (zoomHidden == hidden) {
+      return false;
+    }
+    zoomHidden = hidden;
+    if (hidden) {
+      shownLineOpacity = AnnotationProperties.getFloat(line, "line-opacity", 1f);
+      line.setLineOpacity(0f);
+    } else {
+      line.setLineOpacity(shownLineOpacity);
+    }
+    return true;
+  }
+
+  /** Returns whether the line is hidden because the zoom is outside of its range. */
+  boolean isZoomHidden() {
+    return zoomHidden;
   }
   
   @Override
@@ -85,6 +127,44 @@ class LineController implements LineOptionsSink {
   @Override
   public void setGeometry(List<LatLng> geometry) {
     line.setLatLngs(geometry);
+    bounds = null;
+  }
+
+  /** Replaces the geometry with coordinates packed as {@code lat, lng} pairs. */
+  void setGeometry(double[] coordinates) {
+    final List<LatLng> geometry = new ArrayList<>(coordinates.length / 2);
+    for (int i = 0; i < coordinates.length; i += 2) {
+      geometry.add(new LatLng(coordinates[i], coordinates[i + 1]));
+    }
+    setGeometry(geometry);
+  }
+
+  /** Replaces the geometry without copying the points of {@code geometry}. */
+  void setGeometry(LineString geometry) {
+    line.setGeometry(geometry);
+    bounds = null;
+  }
+
+  /** Returns the geometry packed as {@code lat, lng} pairs. */
+  double[] getPackedGeometry() {
+    final List<LatLng> geometry = line.getLatLngs();
+    final double[] coordinates = new double[geometry.size() * 2];
+    for (int i = 0; i < geometry.size(); i++) {
+      coordinates[2 * i] = geometry.get(i).getLatitude();
+      coordinates[2 * i + 1] = geometry.get(i).getLongitude();
+    }
+    return coordinates;
+  }
+
+  /** Returns the extent of the line, computed once per geometry. */
+  GeoBounds getBounds() {
+    if (bounds == null) {
+      bounds = new GeoBounds();
+      for (LatLng latLng : line.getLatLngs()) {
+        bounds.include(latLng.getLatitude(), latLng.getLongitude());
+      }
+    }
+    return bounds;
   }
 
   @Override
@@ -92,7 +172,12 @@ class LineController implements LineOptionsSink {
     line.setDraggable(draggable);
   }
 
-  public void update(LineManager lineManager) {
-    lineManager.update(line);
+  public void update(AnnotationStore<Line, LineOptions> lineStore) {
+    final Tracer tracer = Tracing.begin("LineManager.update");
+    try {
+      lineStore.update(line);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 }
@@ -0,0 +1,207 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the full geometry of lines that are rendered with a zoom dependent level of detail,
+ * clipped to the viewport or along great circles.
+ *
+ * <p>Each line is densified along great circles, simplified once per detail level and split into
+ * segments on a background thread. The levels are kept as long as the geometry does not change,
+ * so zooming back and forth reuses them. The map then only swaps the geometry matching the camera
+ * into the {@link LineController} when the camera becomes idle, so zoomed out maps do not encode
+ * thousands of vertices per pixel and zoomed in maps only encode what is near the screen.
+ */
+class LineDetailStore {
+  /** Level {@code i} is used below zoom {@code LEVEL_ZOOMS[i] + 1}, full detail above. */
+  private static final int[] LEVEL_ZOOMS = {3, 6, 9, 12, 15};
+  /** Simplification tolerance in pixels of the level zoom. */
+  private static final double TOLERANCE_PIXELS = 1;
+  /** Zoom of the pixel size that great circle arcs of the full detail level are accurate to. */
+  private static final int FULL_DETAIL_ZOOM = 18;
+  private static final double EQUATOR_METERS = 2 * Math.PI * GeoMath.EARTH_RADIUS_METERS;
+
+  interface OnLevelsReadyListener {
+    void onLevelsReady(String lineId);
+  }
+
+  private static class Level {
+    final double[] coordinates;
+    final PolylineSegments segments;
+
+    Level(double[] coordinates, boolean clip) {
+      this.coordinates = coordinates;
+      this.segments = clip ? new PolylineSegments(coordinates) : null;
+    }
+  }
+
+  private static class Entry {
+    final double[] coordinates;
+    final GeoBounds bounds = new GeoBounds();
+    final boolean simplify;
+    final boolean clip;
+    final boolean geodesic;
+    Level[] levels;
+    Level appliedLevel;
+    BitSet appliedSegments;
+
+    Entry(double[] coordinates, boolean simplify, boolean clip, boolean geodesic) {
+      this.coordinates = coordinates;
+      this.simplify = simplify;
+      this.clip = clip;
+      this.geodesic = geodesic;
+      for (int i = 0; i < coordinates.length; i += 2) {
+        bounds.include(coordinates[i], coordinates[i + 1]);
+      }
+    }
+  }
+
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final OnLevelsReadyListener listener;
+  private final BitSet visibleSegments = new BitSet();
+
+  LineDetailStore(OnLevelsReadyListener listener) {
+    this.listener = listener;
+  }
+
+  boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  boolean contains(String lineId) {
+    return entries.containsKey(lineId);
+  }
+
+  boolean isSimplified(String lineId) {
+    final Entry entry = entries.get(lineId);
+    return entry != null && entry.simplify;
+  }
+
+  boolean isClipped(String lineId) {
+    final Entry entry = entries.get(lineId);
+    return entry != null && entry.clip;
+  }
+
+  boolean isGeodesic(String lineId) {
+    final Entry entry = entries.get(lineId);
+    return entry != null && entry.geodesic;
+  }
+
+  Iterable<String> lineIds() {
+    return entries.keySet();
+  }
+
+  /**
+   * Stores the full geometry of a line, packed as {@code lat, lng} pairs, and starts computing its
+   * detail levels and segments. Until they are ready the line keeps its current geometry.
+   *
+   * @param geodesic whether to connect the vertices along great circles, with a step size that
+   *     keeps every level within a pixel of the true arc.
+   */
+  void put(String lineId, double[] coordinates, boolean simplify, boolean clip, boolean geodesic) {
+    final Entry entry = new Entry(coordinates, simplify, clip, geodesic);
+    entries.put(lineId, entry);
+    executor.execute(() -> {
+      final Level[] levels = new Level[simplify || geodesic ? LEVEL_ZOOMS.length + 1 : 1];
+      double[] previous = geodesic
+        ? GeoMath.densify(coordinates, maxArcStepMeters(FULL_DETAIL_ZOOM))
+        : coordinates;
+      levels[levels.length - 1] = new Level(previous, clip);
+      for (int i = levels.length - 2; i >= 0; i--) {
+        // Coarser levels are densified with longer steps from the vertices, or else simplified
+        // from the next finer level, which is already much smaller.
+        if (geodesic) {
+          previous = GeoMath.densify(coordinates, maxArcStepMeters(LEVEL_ZOOMS[i]));
+        }
+        if (simplify) {
+          previous = PolylineSimplifier.simplify(previous, tolerance(LEVEL_ZOOMS[i]));
+        }
+        levels[i] = new Level(previous, clip);
+      }
+      handler.post(() -> {
+        if (entries.get(lineId) == entry) {
+          entry.levels = levels;
+          listener.onLevelsReady(lineId);
+        }
+      });
+    });
+  }
+
+  /** Returns the extent of the full geometry of a line, or null if it is not stored. */
+  GeoBounds getBounds(String lineId) {
+    final Entry entry = entries.get(lineId);
+    return entry == null ? null : entry.bounds;
+  }
+
+  /** Forgets a line and returns its full geometry, or null if it was not stored. */
+  double[] remove(String lineId) {
+    final Entry entry = entries.remove(lineId);
+    return entry == null ? null : entry.coordinates;
+  }
+
+  /**
+   * Returns the geometry to render at {@code zoom} within {@code viewport}, or null if it is the
+   * one applied last or the levels are not computed yet.
+   */
+  double[] geometryFor(String lineId, double zoom, GeoBounds viewport) {
+    final Entry entry = entries.get(lineId);
+    if (entry == null || entry.levels == null) {
+      return null;
+    }
+    Level level = entry.levels[entry.levels.length - 1];
+    for (int i = 0; i < entry.levels.length - 1; i++) {
+      if (zoom < LEVEL_ZOOMS[i] + 1) {
+        level = entry.levels[i];
+        break;
+      }
+    }
+    if (level.segments == null) {
+      if (level == entry.appliedLevel) {
+        return null;
+      }
+      entry.appliedLevel = level;
+      return level.coordinates;
+    }
+    level.segments.findVisible(viewport, visibleSegments);
+    if (level == entry.appliedLevel && visibleSegments.equals(entry.appliedSegments)) {
+      return null;
+    }
+    entry.appliedLevel = level;
+    entry.appliedSegments = (BitSet) visibleSegments.clone();
+    return level.segments.materialize(visibleSegments);
+  }
+
+  void dispose() {
+    entries.clear();
+    executor.shutdownNow();
+    handler.removeCallbacksAndMessages(null);
+  }
+
+  /**
+   * Longest great circle step whose chord stays within a pixel at {@code zoom} of the arc. The
+   * sagitta of a step of angle {@code a} is about {@code R * a^2 / 8}.
+   */
+  private static double maxArcStepMeters(int zoom) {
+    final double pixelMeters = EQUATOR_METERS / (512.0 * (1 << zoom));
+    return GeoMath.EARTH_RADIUS_METERS
+      * Math.sqrt(8 * TOLERANCE_PIXELS * pixelMeters / GeoMath.EARTH_RADIUS_METERS);
+  }
+
+  /** Size of a pixel at {@code zoom} in degrees, for 512 pixel tiles. */
+  private static double tolerance(int zoom) {
+    return TOLERANCE_PIXELS * 360.0 / (512.0 * (1 << zoom));
+  }
+}
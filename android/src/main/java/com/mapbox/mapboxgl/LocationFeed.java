@@ -0,0 +1,109 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.location.Location;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+
+import com.mapbox.android.core.location.LocationEngine;
+import com.mapbox.android.core.location.LocationEngineCallback;
+import com.mapbox.android.core.location.LocationEngineRequest;
+import com.mapbox.android.core.location.LocationEngineResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shares one subscription to the location engine of the map's location component between all
+ * native consumers of location fixes.
+ *
+ * <p>Updates are only requested while an engine is attached and at least one listener is
+ * registered. Fixes are delivered on the main thread.
+ */
+class LocationFeed implements LocationEngineCallback<LocationEngineResult> {
+  private static final String TAG = "LocationFeed";
+  private static final long INTERVAL_MILLIS = 1000;
+  private static final long FASTEST_INTERVAL_MILLIS = 250;
+
+  interface OnLocationFixListener {
+    void onLocationFix(Location location);
+  }
+
+  private final List<OnLocationFixListener> listeners = new ArrayList<>();
+  private LocationEngine engine = null;
+  private boolean requesting = false;
+
+  /** Switches to the given engine, which may be null while the location component is off. */
+  void attach(LocationEngine engine) {
+    stopUpdates();
+    this.engine = engine;
+    updateRequest();
+  }
+
+  void detach() {
+    attach(null);
+  }
+
+  void addListener(OnLocationFixListener listener) {
+    if (!listeners.contains(listener)) {
+      listeners.add(listener);
+      updateRequest();
+    }
+  }
+
+  void removeListener(OnLocationFixListener listener) {
+    if (listeners.remove(listener)) {
+      updateRequest();
+    }
+  }
+
+  @Override
+  public void onSuccess(LocationEngineResult result) {
+    final Location location = result.getLastLocation();
+    if (location == null) {
+      return;
+    }
+    // Listeners may unregister themselves while handling a fix.
+    for (OnLocationFixListener listener : new ArrayList<>(listeners)) {
+      listener.onLocationFix(location);
+    }
+  }
+
+  @Override
+  public void onFailure(@NonNull Exception exception) {
+    Log.w(TAG, "Location update failed: " + exception.getMessage());
+  }
+
+  @SuppressWarnings( {"MissingPermission"})
+  private void updateRequest() {
+    final boolean wanted = engine != null && !listeners.isEmpty();
+    if (wanted == requesting) {
+      return;
+    }
+    if (!wanted) {
+      stopUpdates();
+      return;
+    }
+    final LocationEngineRequest request = new LocationEngineRequest.Builder(INTERVAL_MILLIS)
+      .setPriority(LocationEngineRequest.PRIORITY_HIGH_ACCURACY)
+      .setFastestInterval(FASTEST_INTERVAL_MILLIS)
+      .build();
+    try {
+      engine.requestLocationUpdates(request, this, Looper.getMainLooper());
+      requesting = true;
+    } catch (SecurityException e) {
+      Log.e(TAG, "missing location permissions");
+    }
+  }
+
+  private void stopUpdates() {
+    if (requesting && engine != null) {
+      engine.removeLocationUpdates(this);
+    }
+    requesting = false;
+  }
+}
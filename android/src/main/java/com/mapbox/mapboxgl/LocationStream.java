@@ -0,0 +1,132 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.location.Location;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import io.flutter.plugin.common.EventChannel;
+
+/**
+ * Streams the fixes of a {@link LocationFeed} to Dart over an {@link EventChannel}.
+ *
+ * <p>Fixes are dropped when they are less accurate than the configured accuracy, or closer in
+ * time or distance to the last accepted fix than the configured minimums. Accepted fixes are
+ * delivered at most once per batch interval; fixes arriving in between are sent together in the
+ * next event, so a busy Dart isolate receives fewer, larger messages. Each event is a double
+ * array with {@link #FIELDS} values per fix: latitude, longitude, accuracy, altitude, speed,
+ * bearing and time in milliseconds since the epoch.
+ */
+class LocationStream implements EventChannel.StreamHandler, LocationFeed.OnLocationFixListener {
+  static final int FIELDS = 7;
+  // Oldest fixes are dropped beyond this many pending fixes.
+  private static final int MAX_PENDING = 256;
+
+  private final LocationFeed feed;
+  private final Handler handler = new Handler(Looper.getMainLooper());
+  private final Runnable flush = this::flush;
+  private EventChannel.EventSink sink = null;
+
+  private long minIntervalMillis = 0;
+  private double minDistanceMeters = 0;
+  private double maxAccuracyMeters = Double.POSITIVE_INFINITY;
+  private long batchMillis = 0;
+
+  private double[] pending = new double[FIELDS * 4];
+  private int pendingCount = 0;
+  private Location lastAccepted = null;
+  private long lastFlushUptime = 0;
+
+  LocationStream(LocationFeed feed) {
+    this.feed = feed;
+  }
+
+  @Override
+  public void onListen(Object arguments, EventChannel.EventSink events) {
+    final Map<?, ?> options = arguments == null ? null : Convert.toMap(arguments);
+    minIntervalMillis = options == null || options.get("minIntervalMillis") == null
+      ? 0 : Convert.toLong(options.get("minIntervalMillis"));
+    minDistanceMeters = options == null || options.get("minDistanceMeters") == null
+      ? 0 : Convert.toDouble(options.get("minDistanceMeters"));
+    maxAccuracyMeters = options == null || options.get("maxAccuracyMeters") == null
+      ? Double.POSITIVE_INFINITY : Convert.toDouble(options.get("maxAccuracyMeters"));
+    batchMillis = options == null || options.get("batchMillis") == null
+      ? 0 : Convert.toLong(options.get("batchMillis"));
+    reset();
+    sink = events;
+    feed.addListener(this);
+  }
+
+  @Override
+  public void onCancel(Object arguments) {
+    feed.removeListener(this);
+    sink = null;
+    reset();
+  }
+
+  @Override
+  public void onLocationFix(Location location) {
+    if (!accept(location)) {
+      return;
+    }
+    lastAccepted = location;
+    if (pendingCount == MAX_PENDING) {
+      System.arraycopy(pending, FIELDS, pending, 0, (pendingCount - 1) * FIELDS);
+      pendingCount--;
+    }
+    if ((pendingCount + 1) * FIELDS > pending.length) {
+      pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    final int offset = pendingCount * FIELDS;
+    pending[offset] = location.getLatitude();
+    pending[offset + 1] = location.getLongitude();
+    pending[offset + 2] = location.hasAccuracy() ? location.getAccuracy() : -1;
+    pending[offset + 3] = location.getAltitude();
+    pending[offset + 4] = location.hasSpeed() ? location.getSpeed() : -1;
+    pending[offset + 5] = location.hasBearing() ? location.getBearing() : -1;
+    pending[offset + 6] = location.getTime();
+    pendingCount++;
+    if (pendingCount == 1) {
+      final long due = lastFlushUptime + batchMillis;
+      handler.postAtTime(flush, Math.max(SystemClock.uptimeMillis(), due));
+    }
+  }
+
+  private boolean accept(Location location) {
+    if (location.hasAccuracy() && location.getAccuracy() > maxAccuracyMeters) {
+      return false;
+    }
+    if (lastAccepted == null) {
+      return true;
+    }
+    if (location.getTime() - lastAccepted.getTime() < minIntervalMillis) {
+      return false;
+    }
+    return minDistanceMeters <= 0 || GeoMath.distance(
+      lastAccepted.getLatitude(), lastAccepted.getLongitude(),
+      location.getLatitude(), location.getLongitude()) >= minDistanceMeters;
+  }
+
+  private void flush() {
+    if (sink == null || pendingCount == 0) {
+      return;
+    }
+    sink.success(Arrays.copyOf(pending, pendingCount * FIELDS));
+    pendingCount = 0;
+    lastFlushUptime = SystemClock.uptimeMillis();
+  }
+
+  private void reset() {
+    handler.removeCallbacks(flush);
+    pendingCount = 0;
+    lastAccepted = null;
+    lastFlushUptime = 0;
+  }
+}
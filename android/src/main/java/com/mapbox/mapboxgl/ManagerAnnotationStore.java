@@ -0,0 +1,51 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.Annotation;
+import com.mapbox.mapboxsdk.plugins.annotation.AnnotationManager;
+import com.mapbox.mapboxsdk.plugins.annotation.Options;
+
+import java.util.List;
+
+/** {@link AnnotationStore} backed by an annotation manager of the annotation plugin. */
+class ManagerAnnotationStore<T extends Annotation, S extends Options<T>>
+  implements AnnotationStore<T, S> {
+  private final AnnotationManager<?, T, S, ?, ?, ?> manager;
+
+  ManagerAnnotationStore(AnnotationManager<?, T, S, ?, ?, ?> manager) {
+    this.manager = manager;
+  }
+
+  @Override
+  public T create(S options) {
+    return manager.create(options);
+  }
+
+  @Override
+  public List<T> create(List<S> options) {
+    return manager.create(options);
+  }
+
+  @Override
+  public void update(T annotation) {
+    manager.update(annotation);
+  }
+
+  @Override
+  public void update(List<T> annotations) {
+    manager.update(annotations);
+  }
+
+  @Override
+  public void delete(T annotation) {
+    manager.delete(annotation);
+  }
+
+  @Override
+  public void delete(List<T> annotations) {
+    manager.delete(annotations);
+  }
+}
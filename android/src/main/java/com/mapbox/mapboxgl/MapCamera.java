@@ -0,0 +1,38 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdate;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+/**
+ * The camera of a map. Native camera features only depend on this interface, so they can be
+ * driven against a recording camera instead of a {@link MapboxMap}.
+ */
+interface MapCamera {
+
+  CameraPosition getCameraPosition();
+
+  /** Jumps to the update, {@code callback} may be null. */
+  void moveCamera(CameraUpdate update, MapboxMap.CancelableCallback callback);
+
+  /** Eases to the update, {@code callback} may be null. */
+  void easeCamera(
+    CameraUpdate update,
+    int durationMs,
+    boolean easingInterpolator,
+    MapboxMap.CancelableCallback callback);
+
+  /** Flies to the update, {@code callback} may be null. */
+  void animateCamera(CameraUpdate update, int durationMs, MapboxMap.CancelableCallback callback);
+
+  void cancelTransitions();
+
+  /** Returns the left, top, right and bottom padding in physical pixels. */
+  int[] getPadding();
+
+  void setPadding(int left, int top, int right, int bottom);
+}
@@ -0,0 +1,58 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdate;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+/** {@link MapCamera} backed by a {@link MapboxMap}. */
+class MapboxMapCamera implements MapCamera {
+  private final MapboxMap mapboxMap;
+
+  MapboxMapCamera(MapboxMap mapboxMap) {
+    this.mapboxMap = mapboxMap;
+  }
+
+  @Override
+  public CameraPosition getCameraPosition() {
+    return mapboxMap.getCameraPosition();
+  }
+
+  @Override
+  public void moveCamera(CameraUpdate update, MapboxMap.CancelableCallback callback) {
+    mapboxMap.moveCamera(update, callback);
+  }
+
+  @Override
+  public void easeCamera(
+    CameraUpdate update,
+    int durationMs,
+    boolean easingInterpolator,
+    MapboxMap.CancelableCallback callback) {
+    mapboxMap.easeCamera(update, durationMs, easingInterpolator, callback);
+  }
+
+  @Override
+  public void animateCamera(
+    CameraUpdate update, int durationMs, MapboxMap.CancelableCallback callback) {
+    mapboxMap.animateCamera(update, durationMs, callback);
+  }
+
+  @Override
+  public void cancelTransitions() {
+    mapboxMap.cancelTransitions();
+  }
+
+  @Override
+  public int[] getPadding() {
+    return mapboxMap.getPadding();
+  }
+
+  @Override
+  public void setPadding(int left, int top, int right, int bottom) {
+    mapboxMap.setPadding(left, top, right, bottom);
+  }
+}
@@ -22,6 +22,7 @@ import android.util.Base64;
 import android.util.Log;
 import android.view.View;
 
+import com.mapbox.android.core.location.LocationEngineProvider;
 import com.mapbox.mapboxsdk.Mapbox;
 import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.camera.CameraUpdate;
@@ -47,29 +48,40 @@ import com.mapbox.mapboxsdk.snapshotter.MapSnapshotter;
 import com.mapbox.mapboxsdk.plugins.annotation.Annotation;
 import com.mapbox.mapboxsdk.plugins.annotation.Circle;
 import com.mapbox.mapboxsdk.plugins.annotation.CircleManager;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.FillManager;
 import com.mapbox.mapboxsdk.plugins.annotation.OnCircleDragListener;
 import com.mapbox.mapboxsdk.plugins.annotation.OnAnnotationClickListener;
 import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
 import com.mapbox.mapboxsdk.plugins.annotation.SymbolManager;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
 import com.mapbox.mapboxsdk.plugins.annotation.Line;
 import com.mapbox.mapboxsdk.plugins.annotation.LineManager;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
 import com.mapbox.geojson.Feature;
 import com.mapbox.mapboxsdk.style.expressions.Expression;
 
 import org.json.JSONObject;
 import org.json.JSONException;
 
+import io.flutter.plugin.common.EventChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.PluginRegistry;
 import io.flutter.plugin.platform.PlatformView;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.mapbox.mapboxgl.MapboxMapsPlugin.CREATED;
@@ -97,20 +109,37 @@ final class MapboxMapController
   OnLineTappedListener,
   OnCircleTappedListener,
   OnCircleDragAssembleListener,
+  OnCameraTimelineListener,
+  AnnotationGroup.OnGroupAnnotationClickListener,
   PlatformView {
   private static final String TAG = "MapboxMapController";
   private final int id;
   private final AtomicInteger activityState;
-  private final MethodChannel methodChannel;
+  private final MethodInvoker methodInvoker;
+  private final EventChannel locationChannel;
   private final PluginRegistry.Registrar registrar;
   private final MapView mapView;
   private MapboxMap mapboxMap;
-  private final Map<String, SymbolController> symbols;
-  private final Map<String, LineController> lines;
-  private final Map<String, CircleController> circles;
+  private MapCamera mapCamera;
+  private final Map<String, SymbolController> symbols = new HashMap<>();
+  private final Map<String, LineController> lines = new HashMap<>();
+  private final Map<String, CircleController> circles = new HashMap<>();
+  private final Map<String, Set<String>> symbolTags = new HashMap<>();
+  private final Map<String, ZoomRange> symbolZoomRanges = new HashMap<>();
+  private final Map<String, ZoomRange> lineZoomRanges = new HashMap<>();
+  private final Map<String, ZoomRange> circleZoomRanges = new HashMap<>();
+  private GeoCircleStore geoCircles = null;
+  private final LineDetailStore lineDetails = new LineDetailStore(this::onLineLevelsReady);
+  private final Map<String, SymbolTemplate> symbolTemplates = new HashMap<>();
+  private final SymbolSyncRegistry symbolSyncRegistry = new SymbolSyncRegistry();
   private SymbolManager symbolManager;
   private LineManager lineManager;
   private CircleManager circleManager;
+  private FillManager fillManager;
+  private AnnotationStore<Symbol, SymbolOptions> symbolStore;
+  private AnnotationStore<Line, LineOptions> lineStore;
+  private AnnotationStore<Circle, CircleOptions> circleStore;
+  private final Map<String, AnnotationGroup> groups = new HashMap<>();
   private boolean trackCameraPosition = false;
   private boolean myLocationEnabled = false;
   private int myLocationTrackingMode = 0;
@@ -121,8 +150,33 @@ final class MapboxMapController
   private final Context context;
   private final String styleStringInitial;
   private LocationComponent locationComponent = null;
+  private final LocationFeed locationFeed = new LocationFeed();
+  private final LocationStream locationStream = new LocationStream(locationFeed);
+  private GeofenceEngine geofences = null;
+  private final LocationFeed.OnLocationFixListener geofenceFixListener = this::onGeofenceFix;
+  private final List<GeofenceEngine.Transition> geofenceTransitions = new ArrayList<>();
+  private BreadcrumbRecorder breadcrumbs = null;
+  private ReplayLocationEngine replayLocationEngine = null;
+  private int replayGeneration = 0;
   private LocalizationPlugin localizationPlugin = null;
   private HashMap<String, Bitmap> styleImages = null;
+  private MethodCallRecorder recorder = null;
+  private MethodCallReplayer replayer = null;
+  // Payloads of high frequency events are reused, invokeMethod encodes them before returning.
+  private final Map<String, Object> cameraMoveStartedArguments = new HashMap<>(2);
+  private final Map<String, Object> cameraMoveArguments = new HashMap<>(2);
+  private final Map<String, Object> cameraMovePosition = new HashMap<>(8);
+  private final List<Object> cameraMoveTarget = new ArrayList<>(Arrays.asList(0.0, 0.0));
+  private final Map<String, Object> circleDragArguments = new HashMap<>(2);
+  private Circle draggedCircle = null;
+  private String draggedCircleId = null;
+  private CameraTimeline cameraTimeline = null;
+  private int cameraTimelineCount = 0;
+  private CameraFollower cameraFollower = null;
+  private final FrameClock frameClock;
+  private final AnnotationUpdateBatch animationBatch = new AnnotationUpdateBatch();
+  private final SymbolMotionAnimator symbolMotionAnimator;
+  private final PropertyAnimator propertyAnimator;
 
   MapboxMapController(
     int id,
@@ -138,16 +192,55 @@ final class MapboxMapController
     this.registrar = registrar;
     this.styleStringInitial = styleStringInitial;
     this.mapView = new MapView(context, options);
-    this.symbols = new HashMap<>();
-    this.lines = new HashMap<>();
-    this.circles = new HashMap<>();
     this.density = context.getResources().getDisplayMetrics().density;
-    methodChannel =
+    this.frameClock = new ChoreographerFrameClock();
+    this.frameClock.setOnFrameEndListener(animationBatch);
+    this.symbolMotionAnimator =
+      new SymbolMotionAnimator(frameClock, animationBatch, this::onSymbolMoved);
+    this.propertyAnimator = new PropertyAnimator(frameClock, animationBatch);
+    final MethodChannel methodChannel =
       new MethodChannel(registrar.messenger(), "plugins.flutter.io/mapbox_maps_" + id);
     methodChannel.setMethodCallHandler(this);
+    this.methodInvoker = methodChannel::invokeMethod;
+    locationChannel =
+      new EventChannel(registrar.messenger(), "plugins.flutter.io/mapbox_maps_location_" + id);
+    locationChannel.setStreamHandler(locationStream);
     this.registrarActivityHashCode = registrar.activity().hashCode();
   }
 
+  /**
+   * Creates a controller without a map view, whose annotations, camera and frames are the given
+   * ones and whose calls to Dart go to {@code methodInvoker}. Method calls run through
+   * {@link #onMethodCall} the same way as on a map, so they can be driven on the JVM.
+   */
+  MapboxMapController(
+    AnnotationStore<Symbol, SymbolOptions> symbolStore,
+    AnnotationStore<Line, LineOptions> lineStore,
+    AnnotationStore<Circle, CircleOptions> circleStore,
+    MapCamera mapCamera,
+    FrameClock frameClock,
+    MethodInvoker methodInvoker) {
+    this.id = 0;
+    this.context = null;
+    this.activityState = new AtomicInteger(RESUMED);
+    this.registrar = null;
+    this.styleStringInitial = null;
+    this.mapView = null;
+    this.density = 1;
+    this.symbolStore = symbolStore;
+    this.lineStore = lineStore;
+    this.circleStore = circleStore;
+    this.mapCamera = mapCamera;
+    this.frameClock = frameClock;
+    this.frameClock.setOnFrameEndListener(animationBatch);
+    this.symbolMotionAnimator =
+      new SymbolMotionAnimator(frameClock, animationBatch, this::onSymbolMoved);
+    this.propertyAnimator = new PropertyAnimator(frameClock, animationBatch);
+    this.methodInvoker = methodInvoker;
+    this.locationChannel = null;
+    this.registrarActivityHashCode = 0;
+  }
+
   private static String getAccessToken(@NonNull Context context) {
     try {
       ApplicationInfo ai = context.getPackageManager().getApplicationInfo(context.getPackageName(), PackageManager.GET_META_DATA);
@@ -208,7 +301,7 @@ final class MapboxMapController
   }
 
   private void moveCamera(CameraUpdate cameraUpdate) {
-    mapboxMap.moveCamera(cameraUpdate);
+    mapCamera.moveCamera(cameraUpdate, null);
   }
 
   private void animateCamera(CameraUpdate cameraUpdate) {
@@ -216,20 +309,131 @@ final class MapboxMapController
   }
 
   private CameraPosition getCameraPosition() {
-    return trackCameraPosition ? mapboxMap.getCameraPosition() : null;
+    return trackCameraPosition ? mapCamera.getCameraPosition() : null;
   }
 
   private SymbolBuilder newSymbolBuilder() {
-    return new SymbolBuilder(symbolManager);
+    return new SymbolBuilder(symbolStore);
   }
-  
+
+  private AnnotationGroup group(String name) {
+    final AnnotationGroup group = groups.get(name);
+    if (group == null) {
+      throw new IllegalArgumentException("Unknown annotation group: " + name);
+    }
+    return group;
+  }
+
+  /** Returns the group of the given name, creating it on first use, or null for no group. */
+  private AnnotationGroup obtainGroup(String name) {
+    if (name == null) {
+      return null;
+    }
+    AnnotationGroup group = groups.get(name);
+    if (group == null) {
+      group = new AnnotationGroup(name, mapView, mapboxMap, null, this);
+      groups.put(name, group);
+    }
+    return group;
+  }
+
+  private AnnotationGroup groupOf(String annotationId) {
+    final String name = AnnotationGroup.groupName(annotationId);
+    return name == null ? null : group(name);
+  }
+
+  private AnnotationStore<Symbol, SymbolOptions> symbolStore(String symbolId) {
+    final AnnotationGroup group = groupOf(symbolId);
+    return group == null ? symbolStore : group.getSymbolStore();
+  }
+
+  private AnnotationStore<Line, LineOptions> lineStore(String lineId) {
+    final AnnotationGroup group = groupOf(lineId);
+    return group == null ? lineStore : group.getLineStore();
+  }
+
+  private AnnotationStore<Circle, CircleOptions> circleStore(String circleId) {
+    final AnnotationGroup group = groupOf(circleId);
+    return group == null ? circleStore : group.getCircleStore();
+  }
+
+  /** Stores a created symbol and returns its channel id, qualified by the group if any. */
+  private String putSymbol(Symbol symbol, AnnotationGroup group) {
+    if (group == null) {
+      final String symbolId = String.valueOf(symbol.getId());
+      symbols.put(symbolId, new SymbolController(symbol, true, this));
+      return symbolId;
+    }
+    final String symbolId = group.annotationId(symbol.getId());
+    symbols.put(symbolId,
+      new SymbolController(symbol, true, tapped -> onSymbolTapped(symbolId)));
+    return symbolId;
+  }
+
+  private String putLine(Line line, AnnotationGroup group) {
+    if (group == null) {
+      final String lineId = String.valueOf(line.getId());
+      lines.put(lineId, new LineController(line, true, this));
+      return lineId;
+    }
+    final String lineId = group.annotationId(line.getId());
+    lines.put(lineId, new LineController(line, true, tapped -> onLineTapped(lineId)));
+    return lineId;
+  }
+
+  private String putCircle(Circle circle, AnnotationGroup group) {
+    if (group == null) {
+      final String circleId = String.valueOf(circle.getId());
+      circles.put(circleId, new CircleController(circle, true, this));
+      return circleId;
+    }
+    final String circleId = group.annotationId(circle.getId());
+    circles.put(circleId, new CircleController(circle, true, tapped -> onCircleTapped(circleId)));
+    return circleId;
+  }
+
   private void removeSymbol(String symbolId) {
-    final SymbolController symbolController = symbols.remove(symbolId);
+    final AnnotationStore<Symbol, SymbolOptions> store = symbolStore(symbolId);
+    final SymbolController symbolController = detachSymbol(symbolId);
     if (symbolController != null) {
-      symbolController.remove(symbolManager);
+      symbolController.remove(store);
+    }
+  }
+
+  /** Forgets a symbol and everything driving it, without deleting it from its manager. */
+  private SymbolController detachSymbol(String symbolId) {
+    if (cameraFollower != null && cameraFollower.follows("symbol", symbolId)) {
+      dismissCameraFollower();
     }
+    symbolMotionAnimator.cancel(symbolId);
+    propertyAnimator.stop("symbol:" + symbolId, null);
+    symbolSyncRegistry.forgetSymbol(symbolId);
+    symbolTags.remove(symbolId);
+    symbolZoomRanges.remove(symbolId);
+    return symbols.remove(symbolId);
   }
   
+  private void onSymbolMoved(String symbolId, double lat, double lng) {
+    if (cameraFollower != null && cameraFollower.follows("symbol", symbolId)) {
+      cameraFollower.onGeometryChanged(new LatLng(lat, lng));
+    }
+  }
+
+  /** Replaces the tags of a symbol, null removes them. */
+  private void setSymbolTags(String symbolId, Object tags) {
+    if (tags == null) {
+      symbolTags.remove(symbolId);
+    } else {
+      symbolTags.put(symbolId, Convert.toStringSet(tags));
+    }
+  }
+
+  /** Stops following an annotation and tells Dart, which cannot see natively ended follows. */
+  private void dismissCameraFollower() {
+    cameraFollower = null;
+    invokeMethod("camera#onFollowDismissed", Collections.singletonMap("map", id));
+  }
+
   private SymbolController symbol(String symbolId) {
     final SymbolController symbol = symbols.get(symbolId);
     if (symbol == null) {
@@ -239,15 +443,27 @@ final class MapboxMapController
   }
   
   private LineBuilder newLineBuilder() {
-    return new LineBuilder(lineManager);
+    return new LineBuilder(lineStore);
   }
   
   private void removeLine(String lineId) {
-    final LineController lineController = lines.remove(lineId);
+    final AnnotationStore<Line, LineOptions> store = lineStore(lineId);
+    final LineController lineController = detachLine(lineId);
     if (lineController != null) {
-      lineController.remove(lineManager);
+      lineController.remove(store);
     }
   }
+
+  private LineController detachLine(String lineId) {
+    propertyAnimator.stop("line:" + lineId, null);
+    lineZoomRanges.remove(lineId);
+    lineDetails.remove(lineId);
+    if (breadcrumbs != null && breadcrumbs.getLineId().equals(lineId)) {
+      locationFeed.removeListener(breadcrumbs);
+      breadcrumbs = null;
+    }
+    return lines.remove(lineId);
+  }
   
   private LineController line(String lineId) {
     final LineController line = lines.get(lineId);
@@ -258,14 +474,198 @@ final class MapboxMapController
   }
 
   private CircleBuilder newCircleBuilder() {
-    return new CircleBuilder(circleManager);
+    return new CircleBuilder(circleStore);
   }
     
   private void removeCircle(String circleId) {
-    final CircleController circleController = circles.remove(circleId);
+    final AnnotationStore<Circle, CircleOptions> store = circleStore(circleId);
+    final CircleController circleController = detachCircle(circleId);
     if (circleController != null) {
-      circleController.remove(circleManager);
+      circleController.remove(store);
+    }
+  }
+
+  private CircleController detachCircle(String circleId) {
+    if (cameraFollower != null && cameraFollower.follows("circle", circleId)) {
+      dismissCameraFollower();
     }
+    propertyAnimator.stop("circle:" + circleId, null);
+    circleZoomRanges.remove(circleId);
+    return circles.remove(circleId);
+  }
+
+  /**
+   * Merges the zoom range options of an annotation into {@code ranges} and returns whether the
+   * annotation is outside of its range at the current zoom.
+   */
+  private boolean interpretZoomRange(
+    Map<String, ZoomRange> ranges, String annotationId, Object options) {
+    return putZoomRange(
+      ranges, annotationId, Convert.interpretZoomRange(options, ranges.get(annotationId)));
+  }
+
+  /**
+   * Stores the zoom range of an annotation, dropping it when it is null or unbounded, and returns
+   * whether the annotation is outside of it at the current zoom.
+   */
+  private boolean putZoomRange(
+    Map<String, ZoomRange> ranges, String annotationId, ZoomRange range) {
+    if (range == null || range.isUnbounded()) {
+      ranges.remove(annotationId);
+      return false;
+    }
+    ranges.put(annotationId, range);
+    return !range.contains(mapCamera.getCameraPosition().zoom);
+  }
+
+  /** Shows and hides annotations with a zoom range, writing one update per changed manager. */
+  private void applyZoomRanges() {
+    if (symbolZoomRanges.isEmpty() && lineZoomRanges.isEmpty() && circleZoomRanges.isEmpty()) {
+      return;
+    }
+    final double zoom = mapCamera.getCameraPosition().zoom;
+    for (Map.Entry<String, ZoomRange> entry : symbolZoomRanges.entrySet()) {
+      final SymbolController symbol = symbols.get(entry.getKey());
+      if (symbol.setZoomHidden(!entry.getValue().contains(zoom))) {
+        animationBatch.add(symbol, symbolStore(entry.getKey()));
+      }
+    }
+    for (Map.Entry<String, ZoomRange> entry : lineZoomRanges.entrySet()) {
+      final LineController line = lines.get(entry.getKey());
+      if (line.setZoomHidden(!entry.getValue().contains(zoom))) {
+        animationBatch.add(line, lineStore(entry.getKey()));
+      }
+    }
+    for (Map.Entry<String, ZoomRange> entry : circleZoomRanges.entrySet()) {
+      final CircleController circle = circles.get(entry.getKey());
+      if (circle.setZoomHidden(!entry.getValue().contains(zoom))) {
+        animationBatch.add(circle, circleStore(entry.getKey()));
+      }
+    }
+    animationBatch.run();
+  }
+
+  /**
+   * Applies the {@code simplify}, {@code clip} and {@code geodesic} line options, storing the full
+   * geometry of the line for level of detail, viewport clipped or great circle rendering or
+   * restoring it.
+   */
+  private void interpretLineDetail(String lineId, LineController line, Object options) {
+    final Map<?, ?> data = Convert.toMap(options);
+    final Object simplifyOption = data.get("simplify");
+    final Object clipOption = data.get("clip");
+    final Object geodesicOption = data.get("geodesic");
+    final boolean geometryChanged = Convert.hasLineGeometry(options);
+    if (simplifyOption == null && clipOption == null && geodesicOption == null
+      && !(geometryChanged && lineDetails.contains(lineId))) {
+      return;
+    }
+    final boolean simplify = simplifyOption != null
+      ? (Boolean) simplifyOption
+      : lineDetails.isSimplified(lineId);
+    final boolean clip = clipOption != null ? (Boolean) clipOption : lineDetails.isClipped(lineId);
+    final boolean geodesic = geodesicOption != null
+      ? (Boolean) geodesicOption
+      : lineDetails.isGeodesic(lineId);
+    final double[] stored = lineDetails.remove(lineId);
+    // Unless the options set a new one, the controller may hold a reduced geometry.
+    final double[] coordinates =
+      geometryChanged || stored == null ? line.getPackedGeometry() : stored;
+    if (simplify || clip || geodesic) {
+      lineDetails.put(lineId, coordinates, simplify, clip, geodesic);
+    } else if (coordinates == stored) {
+      line.setGeometry(coordinates);
+    }
+  }
+
+  /**
+   * Returns the viewport grown by half its size on every side, in which lines are not clipped. A
+   * viewport across the antimeridian gets an east longitude past 180 degrees.
+   */
+  private GeoBounds clipBounds() {
+    final LatLngBounds visible = mapboxMap.getProjection().getVisibleRegion().latLngBounds;
+    final double west = visible.getLonWest();
+    final double east = visible.getLonEast() < west
+      ? visible.getLonEast() + 360 : visible.getLonEast();
+    final double latPadding = (visible.getLatNorth() - visible.getLatSouth()) / 2;
+    final double lngPadding = (east - west) / 2;
+    final GeoBounds bounds = new GeoBounds();
+    bounds.set(visible.getLatSouth() - latPadding, west - lngPadding,
+      visible.getLatNorth() + latPadding, east + lngPadding);
+    return bounds;
+  }
+
+  private void onLineLevelsReady(String lineId) {
+    final double[] geometry = lineDetails.geometryFor(
+      lineId, mapCamera.getCameraPosition().zoom, clipBounds());
+    if (geometry != null) {
+      final LineController line = lines.get(lineId);
+      line.setGeometry(geometry);
+      line.update(lineStore(lineId));
+    }
+  }
+
+  /** Swaps the geometry matching the camera into every simplified or clipped line. */
+  private void applyLineDetails() {
+    if (lineDetails.isEmpty()) {
+      return;
+    }
+    final double zoom = mapCamera.getCameraPosition().zoom;
+    final GeoBounds viewport = clipBounds();
+    for (String lineId : lineDetails.lineIds()) {
+      final double[] geometry = lineDetails.geometryFor(lineId, zoom, viewport);
+      if (geometry != null) {
+        final LineController line = lines.get(lineId);
+        line.setGeometry(geometry);
+        animationBatch.add(line, lineStore(lineId));
+      }
+    }
+    animationBatch.run();
+  }
+
+  /**
+   * Returns the store of metric circles, creating its fill layer below the lines on first use, or
+   * null while no style is loaded.
+   */
+  private GeoCircleStore geoCircles() {
+    if (geoCircles == null) {
+      final Style style = mapboxMap != null ? mapboxMap.getStyle() : null;
+      if (style == null) {
+        return null;
+      }
+      fillManager = new FillManager(
+        mapView,
+        mapboxMap,
+        style,
+        lineManager != null ? LineManager.ID_GEOJSON_LAYER : null);
+      geoCircles = new GeoCircleStore(new ManagerAnnotationStore<>(fillManager));
+    }
+    return geoCircles;
+  }
+
+  /** Forgets all annotations of a group and removes its sources and layers from the style. */
+  private void removeGroup(String name) {
+    final AnnotationGroup group = groups.remove(name);
+    if (group == null) {
+      return;
+    }
+    final String prefix = name + AnnotationGroup.ID_SEPARATOR;
+    for (String symbolId : new ArrayList<>(symbols.keySet())) {
+      if (symbolId.startsWith(prefix)) {
+        detachSymbol(symbolId);
+      }
+    }
+    for (String lineId : new ArrayList<>(lines.keySet())) {
+      if (lineId.startsWith(prefix)) {
+        detachLine(lineId);
+      }
+    }
+    for (String circleId : new ArrayList<>(circles.keySet())) {
+      if (circleId.startsWith(prefix)) {
+        detachCircle(circleId);
+      }
+    }
+    group.onDestroy();
   }
 
   private CircleController circle(String circleId) {
@@ -279,6 +679,7 @@ final class MapboxMapController
   @Override
   public void onMapReady(MapboxMap mapboxMap) {
     this.mapboxMap = mapboxMap;
+    this.mapCamera = new MapboxMapCamera(mapboxMap);
     if (mapReadyResult != null) {
       mapReadyResult.success(null);
       mapReadyResult = null;
@@ -349,22 +750,43 @@ final class MapboxMapController
 
   @SuppressWarnings( {"MissingPermission"})
   private void enableLocationComponent(@NonNull Style style) {
-    if (hasLocationPermission()) {
+    if (replayLocationEngine != null || hasLocationPermission()) {
       LocationComponentOptions locationComponentOptions = LocationComponentOptions.builder(context)
         .trackingGesturesManagement(true)
         .build();
       locationComponent = mapboxMap.getLocationComponent();
-      locationComponent.activateLocationComponent(context, style, locationComponentOptions);
+      if (replayLocationEngine != null) {
+        // A replayed trace needs no location permission.
+        locationComponent.activateLocationComponent(
+          context, style, replayLocationEngine, locationComponentOptions);
+      } else {
+        locationComponent.activateLocationComponent(context, style, locationComponentOptions);
+      }
       locationComponent.setLocationComponentEnabled(true);
       locationComponent.setRenderMode(RenderMode.COMPASS);
       updateMyLocationTrackingMode();
       setMyLocationTrackingMode(this.myLocationTrackingMode);
       locationComponent.addOnCameraTrackingChangedListener(this);
+      locationFeed.attach(locationComponent.getLocationEngine());
     } else {
       Log.e(TAG, "missing location permissions");
     }
   }
 
+  /** Replaces the location engine with {@code engine}, stopping the previous replay. */
+  private void startReplay(ReplayLocationEngine engine) {
+    if (replayLocationEngine != null) {
+      replayLocationEngine.stop();
+    }
+    replayLocationEngine = engine;
+    if (locationComponent != null) {
+      locationComponent.setLocationEngine(engine);
+      locationFeed.attach(engine);
+    } else if (mapboxMap.getStyle() != null) {
+      enableLocationComponent(mapboxMap.getStyle());
+    }
+  }
+
   private void enableLocalization(@NonNull Style style){
     localizationPlugin = new LocalizationPlugin(mapView, mapboxMap, style);
     try {
@@ -382,6 +804,7 @@ final class MapboxMapController
       symbolManager.setTextAllowOverlap(true);
       symbolManager.setTextIgnorePlacement(true);
       symbolManager.addClickListener(MapboxMapController.this::onAnnotationClick);
+      symbolStore = new ManagerAnnotationStore<>(symbolManager);
     }
   }
 
@@ -389,6 +812,7 @@ final class MapboxMapController
     if (lineManager == null) {
       lineManager = new LineManager(mapView, mapboxMap, style);
       lineManager.addClickListener(MapboxMapController.this::onAnnotationClick);
+      lineStore = new ManagerAnnotationStore<>(lineManager);
     }
   }
     
@@ -396,6 +820,7 @@ final class MapboxMapController
     if (circleManager == null) {
       circleManager = new CircleManager(mapView, mapboxMap, style);
       circleManager.addClickListener(MapboxMapController.this::onAnnotationClick);
+      circleStore = new ManagerAnnotationStore<>(circleManager);
       // Click LongClick 写法可以一样， Drag 使用类似的写法会报 xxx is not functional interface 查找源码无望后，翻到文章 https://github.com/mapbox/mapbox-plugins-android/blob/master/app/src/main/java/com/mapbox/mapboxsdk/plugins/testapp/activity/annotation/CircleActivity.java 的 drag 写法
       circleManager.addDragListener(new OnCircleDragListener() {
         @Override
@@ -418,6 +843,58 @@ final class MapboxMapController
 
   @Override
   public void onMethodCall(MethodCall call, MethodChannel.Result result) {
+    final Tracer tracer = Tracing.begin(call.method);
+    try {
+      // Calls fed back by a replay are not recorded again.
+      final boolean record =
+        recorder != null && (replayer == null || !replayer.isDispatching());
+      handleMethodCall(call, record ? recordCall(call, result) : result);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private void invokeMethod(String method, Object arguments) {
+    final Tracer tracer = Tracing.begin(method);
+    try {
+      methodInvoker.invokeMethod(method, arguments);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  private MethodChannel.Result recordCall(MethodCall call, MethodChannel.Result result) {
+    switch (call.method) {
+      case "map#startRecording":
+      case "map#stopRecording":
+      case "map#replayRecording":
+        return result;
+      default:
+        try {
+          return recorder.record(call, result);
+        } catch (IOException e) {
+          Log.e(TAG, "Failed to record " + call.method + ", recording stopped: " + e.getMessage());
+          stopRecording();
+          return result;
+        }
+    }
+  }
+
+  private int stopRecording() {
+    if (recorder == null) {
+      return 0;
+    }
+    final int callCount = recorder.getCallCount();
+    try {
+      recorder.close();
+    } catch (IOException e) {
+      Log.e(TAG, "Failed to close recording: " + e.getMessage());
+    }
+    recorder = null;
+    return callCount;
+  }
+
+  private void handleMethodCall(MethodCall call, MethodChannel.Result result) {
     switch (call.method) {
       case "map#waitForMap":
         if (mapboxMap != null) {
@@ -480,11 +957,21 @@ final class MapboxMapController
         break;
       }
       case "symbol#add": {
-        final SymbolBuilder symbolBuilder = newSymbolBuilder();
+        final AnnotationGroup group = obtainGroup(call.argument("group"));
+        final SymbolBuilder symbolBuilder = group == null
+          ? newSymbolBuilder()
+          : new SymbolBuilder(group.getSymbolStore());
         Convert.interpretSymbolOptions(call.argument("options"), symbolBuilder);
-        final Symbol symbol = symbolBuilder.build();
-        final String symbolId = String.valueOf(symbol.getId());
-        symbols.put(symbolId, new SymbolController(symbol, true, this));
+        final String symbolId = putSymbol(symbolBuilder.build(), group);
+        final SymbolController symbol = symbols.get(symbolId);
+        if (symbol.setZoomHidden(
+          interpretZoomRange(symbolZoomRanges, symbolId, call.argument("options")))) {
+          symbol.update(symbolStore(symbolId));
+        }
+        final Object tags = call.argument("tags");
+        if (tags != null) {
+          symbolTags.put(symbolId, Convert.toStringSet(tags));
+        }
         result.success(symbolId);
         break;
       }
@@ -498,16 +985,279 @@ final class MapboxMapController
         final String symbolId = call.argument("symbol");
         final SymbolController symbol = symbol(symbolId);
         Convert.interpretSymbolOptions(call.argument("options"), symbol);
-        symbol.update(symbolManager);
+        symbol.setZoomHidden(
+          interpretZoomRange(symbolZoomRanges, symbolId, call.argument("options")));
+        symbol.update(symbolStore(symbolId));
+        if (cameraFollower != null && cameraFollower.follows("symbol", symbolId)) {
+          cameraFollower.onGeometryChanged(symbol.getGeometry());
+        }
+        result.success(null);
+        break;
+      }
+      case "symbol#setTags": {
+        final String symbolId = call.argument("symbol");
+        symbol(symbolId);
+        setSymbolTags(symbolId, call.argument("tags"));
+        result.success(null);
+        break;
+      }
+      case "annotations#updateWhere": {
+        final AnnotationFilter filter = Convert.toAnnotationFilter(call.argument("filter"));
+        final Object options = call.argument("options");
+        final SymbolTemplate changes = new SymbolTemplate();
+        Convert.interpretSymbolOptions(options, changes);
+        final Map<AnnotationStore<Symbol, SymbolOptions>, List<Symbol>> updated =
+          new IdentityHashMap<>();
+        final List<String> symbolIds = new ArrayList<>();
+        for (String symbolId : filter.candidates(symbols.keySet())) {
+          final SymbolController symbol = symbols.get(symbolId);
+          if (symbol == null) {
+            continue;
+          }
+          double lat = 0;
+          double lng = 0;
+          if (filter.needsGeometry()) {
+            final LatLng geometry = symbol.getGeometry();
+            lat = geometry.getLatitude();
+            lng = geometry.getLongitude();
+          }
+          if (!filter.matches(symbolId, symbolTags.get(symbolId), lat, lng)) {
+            continue;
+          }
+          changes.applyTo(symbol);
+          symbol.setZoomHidden(interpretZoomRange(symbolZoomRanges, symbolId, options));
+          final AnnotationStore<Symbol, SymbolOptions> store = symbolStore(symbolId);
+          List<Symbol> storeSymbols = updated.get(store);
+          if (storeSymbols == null) {
+            storeSymbols = new ArrayList<>();
+            updated.put(store, storeSymbols);
+          }
+          storeSymbols.add(symbol.getSymbol());
+          symbolIds.add(symbolId);
+        }
+        final Tracer tracer = Tracing.begin("SymbolManager.update");
+        try {
+          for (Map.Entry<AnnotationStore<Symbol, SymbolOptions>, List<Symbol>> entry
+            : updated.entrySet()) {
+            entry.getKey().update(entry.getValue());
+          }
+        } finally {
+          Tracing.end(tracer);
+        }
+        result.success(symbolIds);
+        break;
+      }
+      case "symbol#registerTemplate": {
+        final SymbolTemplate template = new SymbolTemplate();
+        Convert.interpretSymbolOptions(call.argument("options"), template);
+        template.setZoomRange(Convert.interpretZoomRange(call.argument("options"), null));
+        symbolTemplates.put(call.argument("name"), template);
+        result.success(null);
+        break;
+      }
+      case "symbol#unregisterTemplate": {
+        symbolTemplates.remove(call.<String>argument("name"));
+        result.success(null);
+        break;
+      }
+      case "symbol#addFromTemplate": {
+        final String name = call.argument("name");
+        final SymbolTemplate template = symbolTemplates.get(name);
+        if (template == null) {
+          throw new IllegalArgumentException("Unknown symbol template: " + name);
+        }
+        final AnnotationGroup group = obtainGroup(call.argument("group"));
+        final AnnotationStore<Symbol, SymbolOptions> store =
+          group == null ? symbolStore : group.getSymbolStore();
+        final double[] geometries = call.argument("geometries");
+        final List<?> overrides = call.argument("overrides");
+        final List<SymbolBuilder> builders = new ArrayList<>(geometries.length / 2);
+        final List<ZoomRange> zoomRanges = new ArrayList<>(geometries.length / 2);
+        for (int i = 0; i < geometries.length / 2; i++) {
+          final SymbolBuilder symbolBuilder = new SymbolBuilder(store);
+          template.applyTo(symbolBuilder);
+          ZoomRange zoomRange = template.getZoomRange() == null
+            ? null : template.getZoomRange().copy();
+          if (overrides != null && overrides.get(i) != null) {
+            Convert.interpretSymbolOptions(overrides.get(i), symbolBuilder);
+            zoomRange = Convert.interpretZoomRange(overrides.get(i), zoomRange);
+          }
+          symbolBuilder.setGeometry(geometries[2 * i], geometries[2 * i + 1]);
+          builders.add(symbolBuilder);
+          zoomRanges.add(zoomRange);
+        }
+        final List<Symbol> created = SymbolBuilder.buildAll(store, builders);
+        final List<String> symbolIds = new ArrayList<>(created.size());
+        final List<Symbol> hidden = new ArrayList<>();
+        for (int i = 0; i < created.size(); i++) {
+          final String symbolId = putSymbol(created.get(i), group);
+          if (symbols.get(symbolId).setZoomHidden(
+            putZoomRange(symbolZoomRanges, symbolId, zoomRanges.get(i)))) {
+            hidden.add(created.get(i));
+          }
+          symbolIds.add(symbolId);
+        }
+        if (!hidden.isEmpty()) {
+          store.update(hidden);
+        }
+        result.success(symbolIds);
+        break;
+      }
+      case "symbols#sync": {
+        final List<?> desired = call.argument("symbols");
+        final Set<String> desiredKeys = new HashSet<>(desired.size());
+        final List<Map<?, ?>> addedEntries = new ArrayList<>();
+        final List<SymbolBuilder> builders = new ArrayList<>();
+        final List<String> updatedKeys = new ArrayList<>();
+        final List<Symbol> updated = new ArrayList<>();
+        final List<String> missingKeys = new ArrayList<>();
+        for (Object item : desired) {
+          final Map<?, ?> entry = Convert.toMap(item);
+          final String key = (String) entry.get("key");
+          final Object hash = entry.get("hash");
+          final Object options = entry.get("options");
+          desiredKeys.add(key);
+          final String symbolId = symbolSyncRegistry.getSymbolId(key);
+          // Dart leaves out the options of keys whose hash it saw acknowledged before.
+          if (options == null) {
+            if (symbolId == null) {
+              missingKeys.add(key);
+            }
+          } else if (symbolId == null) {
+            final SymbolBuilder symbolBuilder = newSymbolBuilder();
+            Convert.interpretSymbolOptions(options, symbolBuilder);
+            builders.add(symbolBuilder);
+            addedEntries.add(entry);
+          } else if (!symbolSyncRegistry.hashMatches(key, hash)) {
+            final SymbolController symbol = symbol(symbolId);
+            Convert.interpretSymbolOptions(options, symbol);
+            symbol.setZoomHidden(interpretZoomRange(symbolZoomRanges, symbolId, options));
+            setSymbolTags(symbolId, entry.get("tags"));
+            symbolSyncRegistry.setHash(key, hash);
+            updated.add(symbol.getSymbol());
+            updatedKeys.add(key);
+          }
+        }
+        final List<String> removedKeys = new ArrayList<>();
+        final List<Symbol> removed = new ArrayList<>();
+        for (String key : new ArrayList<>(symbolSyncRegistry.keySet())) {
+          if (!desiredKeys.contains(key)) {
+            final SymbolController symbol = detachSymbol(symbolSyncRegistry.getSymbolId(key));
+            if (symbol != null) {
+              removed.add(symbol.getSymbol());
+            }
+            removedKeys.add(key);
+          }
+        }
+        final Tracer tracer = Tracing.begin("SymbolManager.sync");
+        try {
+          if (!removed.isEmpty()) {
+            symbolStore.delete(removed);
+          }
+          if (!updated.isEmpty()) {
+            symbolStore.update(updated);
+          }
+        } finally {
+          Tracing.end(tracer);
+        }
+        final Map<String, String> addedIds = new HashMap<>(addedEntries.size());
+        if (!builders.isEmpty()) {
+          final List<Symbol> created = SymbolBuilder.buildAll(symbolStore, builders);
+          final List<Symbol> hidden = new ArrayList<>();
+          for (int i = 0; i < created.size(); i++) {
+            final Map<?, ?> entry = addedEntries.get(i);
+            final String key = (String) entry.get("key");
+            final String symbolId = putSymbol(created.get(i), null);
+            if (symbols.get(symbolId).setZoomHidden(
+              interpretZoomRange(symbolZoomRanges, symbolId, entry.get("options")))) {
+              hidden.add(created.get(i));
+            }
+            setSymbolTags(symbolId, entry.get("tags"));
+            symbolSyncRegistry.put(key, symbolId, entry.get("hash"));
+            addedIds.put(key, symbolId);
+          }
+          if (!hidden.isEmpty()) {
+            symbolStore.update(hidden);
+          }
+        }
+        final Map<String, Object> reply = new HashMap<>(4);
+        reply.put("added", addedIds);
+        reply.put("updated", updatedKeys);
+        reply.put("removed", removedKeys);
+        reply.put("missing", missingKeys);
+        result.success(reply);
+        break;
+      }
+      case "symbol#animateTo": {
+        final String symbolId = call.argument("symbol");
+        final Object iconRotate = call.argument("iconRotate");
+        final Object durationMs = call.argument("durationMs");
+        final Object timestampMs = call.argument("timestampMs");
+        final Float rotation = symbolMotionAnimator.animateTo(
+          symbolId,
+          symbol(symbolId),
+          symbolStore(symbolId),
+          Convert.toLatLng(call.argument("geometry")),
+          durationMs == null ? -1 : Convert.toLong(durationMs),
+          timestampMs == null ? 0 : Convert.toLong(timestampMs),
+          iconRotate == null ? null : (float) Convert.toDouble(iconRotate),
+          Boolean.TRUE.equals(call.argument("alignToPath")));
+        result.success(rotation == null ? null : rotation.doubleValue());
+        break;
+      }
+      case "annotation#animateProperty": {
+        final String annotationType = call.argument("type");
+        final String annotationId = call.argument("id");
+        final Object annotation;
+        final AnnotationStore<?, ?> store;
+        switch (annotationType) {
+          case "symbol":
+            annotation = symbol(annotationId);
+            store = symbolStore(annotationId);
+            break;
+          case "line":
+            annotation = line(annotationId);
+            store = lineStore(annotationId);
+            break;
+          default:
+            annotation = circle(annotationId);
+            store = circleStore(annotationId);
+            break;
+        }
+        try {
+          propertyAnimator.animate(
+            annotationType + ":" + annotationId,
+            annotation,
+            store,
+            call.argument("property"),
+            Convert.toPropertyAnimationSpec(call.argument("animation")));
+        } catch (IllegalArgumentException e) {
+          result.error("AnimationError", e.getMessage(), null);
+          break;
+        }
+        result.success(null);
+        break;
+      }
+      case "annotation#stopAnimation": {
+        final String annotationType = call.argument("type");
+        final String annotationId = call.argument("id");
+        propertyAnimator.stop(annotationType + ":" + annotationId, call.argument("property"));
         result.success(null);
         break;
       }
       case "line#add": {
-        final LineBuilder lineBuilder = newLineBuilder();
+        final AnnotationGroup group = obtainGroup(call.argument("group"));
+        final LineBuilder lineBuilder = group == null
+          ? newLineBuilder()
+          : new LineBuilder(group.getLineStore());
         Convert.interpretLineOptions(call.argument("options"), lineBuilder);
-        final Line line = lineBuilder.build();
-        final String lineId = String.valueOf(line.getId());
-        lines.put(lineId, new LineController(line, true, this));
+        final String lineId = putLine(lineBuilder.build(), group);
+        final LineController line = lines.get(lineId);
+        interpretLineDetail(lineId, line, call.argument("options"));
+        if (line.setZoomHidden(
+          interpretZoomRange(lineZoomRanges, lineId, call.argument("options")))) {
+          line.update(lineStore(lineId));
+        }
         result.success(lineId);
         break;
       }
@@ -521,16 +1271,24 @@ final class MapboxMapController
         final String lineId = call.argument("line");
         final LineController line = line(lineId);
         Convert.interpretLineOptions(call.argument("options"), line);
-        line.update(lineManager);
+        interpretLineDetail(lineId, line, call.argument("options"));
+        line.setZoomHidden(interpretZoomRange(lineZoomRanges, lineId, call.argument("options")));
+        line.update(lineStore(lineId));
         result.success(null);
         break;
       }
       case "circle#add": {
-        final CircleBuilder circleBuilder = newCircleBuilder();
+        final AnnotationGroup group = obtainGroup(call.argument("group"));
+        final CircleBuilder circleBuilder = group == null
+          ? newCircleBuilder()
+          : new CircleBuilder(group.getCircleStore());
         Convert.interpretCircleOptions(call.argument("options"), circleBuilder);
-        final Circle circle = circleBuilder.build();
-        final String circleId = String.valueOf(circle.getId());
-        circles.put(circleId, new CircleController(circle, true, this));
+        final String circleId = putCircle(circleBuilder.build(), group);
+        final CircleController circle = circles.get(circleId);
+        if (circle.setZoomHidden(
+          interpretZoomRange(circleZoomRanges, circleId, call.argument("options")))) {
+          circle.update(circleStore(circleId));
+        }
         result.success(circleId);
         break;
       }
@@ -541,11 +1299,46 @@ final class MapboxMapController
         break;
       }
       case "circle#update": {
-        Log.e(TAG, "update circle");
         final String circleId = call.argument("circle");
         final CircleController circle = circle(circleId);
         Convert.interpretCircleOptions(call.argument("options"), circle);
-        circle.update(circleManager);
+        circle.setZoomHidden(
+          interpretZoomRange(circleZoomRanges, circleId, call.argument("options")));
+        circle.update(circleStore(circleId));
+        if (cameraFollower != null && cameraFollower.follows("circle", circleId)) {
+          cameraFollower.onGeometryChanged(circle.getGeometry());
+        }
+        result.success(null);
+        break;
+      }
+      case "geoCircle#add": {
+        final GeoCircleStore store = geoCircles();
+        if (store == null) {
+          result.error("StyleNotLoaded", "Geo circles need a loaded style", null);
+          break;
+        }
+        result.success(store.add(
+          Convert.toMap(call.argument("options")), mapCamera.getCameraPosition().zoom));
+        break;
+      }
+      case "geoCircle#update": {
+        final GeoCircleStore store = geoCircles();
+        if (store == null) {
+          result.error("StyleNotLoaded", "Geo circles need a loaded style", null);
+          break;
+        }
+        store.update(
+          call.argument("geoCircle"),
+          Convert.toMap(call.argument("options")),
+          mapCamera.getCameraPosition().zoom);
+        result.success(null);
+        break;
+      }
+      case "geoCircle#remove": {
+        // Without a style no geo circle was added.
+        if (geoCircles != null) {
+          geoCircles.remove(call.argument("geoCircle"));
+        }
         result.success(null);
         break;
       }
@@ -585,14 +1378,134 @@ final class MapboxMapController
         break;
       }
       case "location#getLastLatLng": {
-        final Location location = locationComponent.getLastKnownLocation();
-
+        final Location location =
+          locationComponent != null ? locationComponent.getLastKnownLocation() : null;
+        if (location == null) {
+          result.success(null);
+          break;
+        }
         Map<String, Double> hashMapLatLng = new HashMap<>();
         hashMapLatLng.put("latitude", location.getLatitude());
         hashMapLatLng.put("longitude", location.getLongitude());
         result.success(hashMapLatLng);
         break;
       }
+      case "geofence#load": {
+        if (geofences == null) {
+          geofences = new GeofenceEngine();
+          locationFeed.addListener(geofenceFixListener);
+        }
+        final Object hysteresis = call.argument("hysteresisMeters");
+        if (hysteresis != null) {
+          geofences.setHysteresisMeters(Convert.toDouble(hysteresis));
+        }
+        final Object dwell = call.argument("dwellMillis");
+        if (dwell != null) {
+          geofences.setDwellMillis(Convert.toLong(dwell));
+        }
+        geofences.load(
+          call.argument("circleIds"),
+          call.argument("circles"),
+          call.argument("polygonIds"),
+          call.argument("polygonOffsets"),
+          call.argument("polygonCoordinates"));
+        result.success(null);
+        break;
+      }
+      case "geofence#clear": {
+        if (geofences != null) {
+          locationFeed.removeListener(geofenceFixListener);
+          geofences = null;
+        }
+        result.success(null);
+        break;
+      }
+      case "location#startReplay": {
+        final String path = call.argument("path");
+        final Object speed = call.argument("speed");
+        final boolean loop = Boolean.TRUE.equals(call.argument("loop"));
+        final int generation = ++replayGeneration;
+        ReplayLocationEngine.load(
+          new File(path),
+          speed == null ? 1 : Convert.toDouble(speed),
+          loop,
+          new ReplayLocationEngine.OnLoadedListener() {
+            @Override
+            public void onLoaded(ReplayLocationEngine engine) {
+              if (disposed || generation != replayGeneration) {
+                result.error("ReplayError", "Replay stopped while loading " + path, null);
+                return;
+              }
+              startReplay(engine);
+              result.success(null);
+            }
+
+            @Override
+            public void onLoadFailed(String message) {
+              result.error("ReplayError", message, null);
+            }
+          });
+        break;
+      }
+      case "location#stopReplay": {
+        // Drops a replay whose trace is still loading.
+        replayGeneration++;
+        if (replayLocationEngine == null) {
+          result.success(null);
+          break;
+        }
+        replayLocationEngine.stop();
+        replayLocationEngine = null;
+        if (locationComponent != null) {
+          if (hasLocationPermission()) {
+            locationComponent.setLocationEngine(
+              LocationEngineProvider.getBestLocationEngine(context));
+            locationFeed.attach(locationComponent.getLocationEngine());
+          } else {
+            locationFeed.detach();
+            locationComponent.setLocationComponentEnabled(false);
+            locationComponent = null;
+          }
+        }
+        result.success(null);
+        break;
+      }
+      case "breadcrumb#start": {
+        final String lineId = call.argument("line");
+        final LineController line = line(lineId);
+        if (breadcrumbs != null) {
+          locationFeed.removeListener(breadcrumbs);
+        }
+        // The recorder owns the geometry from now on, stored detail levels would replace it.
+        lineDetails.remove(lineId);
+        breadcrumbs = new BreadcrumbRecorder(
+          lineId,
+          line,
+          Convert.toInt(call.argument("maxPoints")),
+          Convert.toDouble(call.argument("minDistanceMeters")),
+          Convert.toDouble(call.argument("minAngleDegrees")),
+          (trailLineId, trailLine) -> trailLine.update(lineStore(trailLineId)));
+        locationFeed.addListener(breadcrumbs);
+        result.success(null);
+        break;
+      }
+      case "breadcrumb#stop": {
+        if (breadcrumbs != null) {
+          locationFeed.removeListener(breadcrumbs);
+        }
+        result.success(null);
+        break;
+      }
+      case "breadcrumb#export": {
+        if (breadcrumbs == null) {
+          result.success(null);
+          break;
+        }
+        final Object precision = call.argument("precision");
+        result.success(PolylineCodec.encodePolyline(
+          breadcrumbs.getPackedTrail(), precision != null ? Convert.toInt(precision) : 6));
+        break;
+      }
       case "location#chinaShift": {
         final List<Double> listLatLng = call.argument("unshiftedLatLng");
         String shiftedCoordinatesJson = new ShiftForChina().shift(listLatLng.get(1), listLatLng.get(0));
@@ -677,6 +1590,9 @@ final class MapboxMapController
           symbolManager.setTextAllowOverlap(enable);
           symbolManager.setTextIgnorePlacement(enable);
         }
+        for (AnnotationGroup group : groups.values()) {
+          group.setSymbolOverlap(enable);
+        }
         break;
       }
       case "camera#ease": {
@@ -710,6 +1626,162 @@ final class MapboxMapController
         }
         break;
       }
+      case "group#setBelowLayer": {
+        obtainGroup(call.argument("group")).setBelowLayerId(call.argument("belowLayerId"));
+        result.success(null);
+        break;
+      }
+      case "group#setVisible": {
+        final boolean visible = call.argument("visible");
+        obtainGroup(call.argument("group")).setVisible(visible);
+        result.success(null);
+        break;
+      }
+      case "group#remove": {
+        removeGroup(call.argument("group"));
+        result.success(null);
+        break;
+      }
+      case "camera#playTimeline": {
+        if (cameraTimeline != null) {
+          cameraTimeline.cancel();
+        }
+        cameraTimeline = new CameraTimeline(
+          ++cameraTimelineCount,
+          mapCamera,
+          Convert.toCameraKeyframes(call.argument("keyframes"), density),
+          this);
+        result.success(cameraTimeline.getId());
+        cameraTimeline.start();
+        break;
+      }
+      case "camera#followAnnotation": {
+        final String annotationType = call.argument("type");
+        final String annotationId = call.argument("id");
+        if ("symbol".equals(annotationType)) {
+          symbol(annotationId);
+        } else {
+          circle(annotationId);
+        }
+        final Map<?, ?> options = call.argument("options") == null
+          ? Collections.emptyMap() : Convert.toMap(call.argument("options"));
+        final Object smoothingMs = options.get("smoothingMs");
+        final Object lookAheadMeters = options.get("lookAheadMeters");
+        final Object zoom = options.get("zoom");
+        cameraFollower = new CameraFollower(
+          mapCamera,
+          annotationType,
+          annotationId,
+          smoothingMs == null ? 0 : Convert.toInt(smoothingMs),
+          lookAheadMeters == null ? 0 : Convert.toDouble(lookAheadMeters),
+          Boolean.TRUE.equals(options.get("alignBearing")),
+          zoom == null ? null : Convert.toDouble(zoom));
+        cameraFollower.onGeometryChanged("symbol".equals(annotationType)
+          ? symbol(annotationId).getGeometry()
+          : circle(annotationId).getGeometry());
+        result.success(null);
+        break;
+      }
+      case "camera#fitAnnotations": {
+        final GeoBounds bounds = new GeoBounds();
+        final List<String> symbolIds = call.argument("symbols");
+        for (String symbolId : Convert.orEmpty(symbolIds)) {
+          final LatLng latLng = symbol(symbolId).getGeometry();
+          bounds.include(latLng.getLatitude(), latLng.getLongitude());
+        }
+        final List<String> circleIds = call.argument("circles");
+        for (String circleId : Convert.orEmpty(circleIds)) {
+          final LatLng latLng = circle(circleId).getGeometry();
+          bounds.include(latLng.getLatitude(), latLng.getLongitude());
+        }
+        final List<String> lineIds = call.argument("lines");
+        for (String lineId : Convert.orEmpty(lineIds)) {
+          // The rendered geometry of a clipped line only covers the viewport.
+          final GeoBounds lineBounds = lineDetails.getBounds(lineId);
+          bounds.include(lineBounds != null ? lineBounds : line(lineId).getBounds());
+        }
+        if (bounds.isEmpty()) {
+          result.success(false);
+          break;
+        }
+        final List<?> padding = call.argument("padding");
+        final CameraUpdate cameraUpdate;
+        if (bounds.south == bounds.north && bounds.west == bounds.east) {
+          cameraUpdate = CameraUpdateFactory.newLatLng(new LatLng(bounds.south, bounds.west));
+        } else {
+          cameraUpdate = CameraUpdateFactory.newLatLngBounds(
+            bounds.toLatLngBounds(),
+            Convert.toPaddingPixels(padding, 0, density),
+            Convert.toPaddingPixels(padding, 1, density),
+            Convert.toPaddingPixels(padding, 2, density),
+            Convert.toPaddingPixels(padding, 3, density));
+        }
+        final Integer durationMs = call.argument("durationMs");
+        if (durationMs != null && durationMs > 0) {
+          mapCamera.easeCamera(cameraUpdate, durationMs, true, null);
+        } else {
+          moveCamera(cameraUpdate);
+        }
+        result.success(true);
+        break;
+      }
+      case "camera#stopFollowing": {
+        cameraFollower = null;
+        result.success(null);
+        break;
+      }
+      case "camera#cancelTimeline": {
+        if (cameraTimeline != null) {
+          cameraTimeline.cancel();
+        }
+        result.success(null);
+        break;
+      }
+      case "map#startRecording": {
+        final String path = call.argument("path");
+        stopRecording();
+        try {
+          recorder = new MethodCallRecorder(new File(path));
+          result.success(null);
+        } catch (IOException e) {
+          result.error("RecordingError", e.getMessage(), null);
+        }
+        break;
+      }
+      case "map#stopRecording": {
+        result.success(stopRecording());
+        break;
+      }
+      case "map#replayRecording": {
+        final String path = call.argument("path");
+        final boolean realtime = !Boolean.FALSE.equals(call.argument("realtime"));
+        if (replayer != null) {
+          replayer.cancel();
+        }
+        try {
+          replayer = new MethodCallReplayer(new File(path));
+        } catch (IOException e) {
+          result.error("ReplayError", e.getMessage(), null);
+          break;
+        }
+        replayer.replay(this, realtime, new MethodCallReplayer.OnReplayFinishedListener() {
+          @Override
+          public void onReplayFinished(int callCount, int errorCount, long elapsedMillis) {
+            final Map<String, Object> reply = new HashMap<>(4);
+            reply.put("callCount", callCount);
+            reply.put("errorCount", errorCount);
+            reply.put("elapsedMillis", elapsedMillis);
+            result.success(reply);
+          }
+
+          @Override
+          public void onReplayCancelled(int callCount) {
+            result.error("ReplayCancelled",
+              "Replay cancelled after " + callCount + " calls", null);
+          }
+        });
+        break;
+      }
       default:
         result.notImplemented();
     }
@@ -717,10 +1789,12 @@ final class MapboxMapController
 
   @Override
   public void onCameraMoveStarted(int reason) {
-    final Map<String, Object> arguments = new HashMap<>(2);
     boolean isGesture = reason == MapboxMap.OnCameraMoveStartedListener.REASON_API_GESTURE;
-    arguments.put("isGesture", isGesture);
-    methodChannel.invokeMethod("camera#onMoveStarted", arguments);
+    if (isGesture && cameraFollower != null) {
+      dismissCameraFollower();
+    }
+    cameraMoveStartedArguments.put("isGesture", isGesture);
+    invokeMethod("camera#onMoveStarted", cameraMoveStartedArguments);
   }
 
   @Override
@@ -728,14 +1802,37 @@ final class MapboxMapController
     if (!trackCameraPosition) {
       return;
     }
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("position", Convert.toJson(mapboxMap.getCameraPosition()));
-    methodChannel.invokeMethod("camera#onMove", arguments);
+    Convert.toJson(mapCamera.getCameraPosition(), cameraMovePosition, cameraMoveTarget);
+    cameraMoveArguments.put("position", cameraMovePosition);
+    invokeMethod("camera#onMove", cameraMoveArguments);
   }
 
   @Override
   public void onCameraIdle() {
-    methodChannel.invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
+    applyZoomRanges();
+    applyLineDetails();
+    if (geoCircles != null) {
+      geoCircles.onZoomChanged(mapCamera.getCameraPosition().zoom);
+    }
+    invokeMethod("camera#onIdle", Collections.singletonMap("map", id));
+  }
+
+  private void onGeofenceFix(Location location) {
+    geofences.evaluate(
+      location.getLatitude(), location.getLongitude(), location.getTime(), geofenceTransitions);
+    if (geofenceTransitions.isEmpty()) {
+      return;
+    }
+    final List<Object> transitions = new ArrayList<>(geofenceTransitions.size());
+    for (GeofenceEngine.Transition transition : geofenceTransitions) {
+      transitions.add(Arrays.asList(transition.fenceId, transition.type));
+    }
+    geofenceTransitions.clear();
+    final Map<String, Object> arguments = new HashMap<>(4);
+    arguments.put("transitions", transitions);
+    arguments.put("time", location.getTime());
+    arguments.put("latLng", Arrays.asList(location.getLatitude(), location.getLongitude()));
+    invokeMethod("geofence#onTransitions", arguments);
   }
 
   @Override
@@ -744,28 +1841,69 @@ final class MapboxMapController
 
   @Override
   public void onCameraTrackingDismissed() {
-    methodChannel.invokeMethod("map#onCameraTrackingDismissed", new HashMap<>());
+    invokeMethod("map#onCameraTrackingDismissed", new HashMap<>());
+  }
+
+  @Override
+  public void onCameraTimelineProgress(int timelineId, int keyframeIndex, int keyframeCount) {
+    final Map<String, Object> arguments = new HashMap<>(3);
+    arguments.put("timeline", timelineId);
+    arguments.put("keyframe", keyframeIndex);
+    arguments.put("keyframeCount", keyframeCount);
+    invokeMethod("camera#onTimelineProgress", arguments);
+  }
+
+  @Override
+  public void onCameraTimelineFinished(int timelineId, boolean cancelled) {
+    if (cameraTimeline != null && cameraTimeline.getId() == timelineId) {
+      cameraTimeline = null;
+    }
+    final Map<String, Object> arguments = new HashMap<>(2);
+    arguments.put("timeline", timelineId);
+    arguments.put("cancelled", cancelled);
+    invokeMethod("camera#onTimelineFinished", arguments);
   }
 
   @Override
   public void onAnnotationClick(Annotation annotation) {
     if (annotation instanceof Symbol) {
       final SymbolController symbolController = symbols.get(String.valueOf(annotation.getId()));
-      if (symbolController != null) {
+      if (symbolController != null && !symbolController.isZoomHidden()) {
         symbolController.onTap();
       }
     }
 
     if (annotation instanceof Line) {
       final LineController lineController = lines.get(String.valueOf(annotation.getId()));
-      if (lineController != null) {
+      if (lineController != null && !lineController.isZoomHidden()) {
         lineController.onTap();
       }
     }
     
     if (annotation instanceof Circle) {
       final CircleController circleController = circles.get(String.valueOf(annotation.getId()));
-      if (circleController != null) {
+      if (circleController != null && !circleController.isZoomHidden()) {
+        circleController.onTap();
+      }
+    }
+  }
+
+  @Override
+  public void onGroupAnnotationClick(AnnotationGroup group, Annotation annotation) {
+    final String annotationId = group.annotationId(annotation.getId());
+    if (annotation instanceof Symbol) {
+      final SymbolController symbolController = symbols.get(annotationId);
+      if (symbolController != null && !symbolController.isZoomHidden()) {
+        symbolController.onTap();
+      }
+    } else if (annotation instanceof Line) {
+      final LineController lineController = lines.get(annotationId);
+      if (lineController != null && !lineController.isZoomHidden()) {
+        lineController.onTap();
+      }
+    } else if (annotation instanceof Circle) {
+      final CircleController circleController = circles.get(annotationId);
+      if (circleController != null && !circleController.isZoomHidden()) {
         circleController.onTap();
       }
     }
@@ -773,44 +1911,68 @@ final class MapboxMapController
 
   @Override
   public void onSymbolTapped(Symbol symbol) {
+    onSymbolTapped(String.valueOf(symbol.getId()));
+  }
+
+  private void onSymbolTapped(String symbolId) {
     final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("symbol", String.valueOf(symbol.getId()));
-    methodChannel.invokeMethod("symbol#onTap", arguments);
+    arguments.put("symbol", symbolId);
+    invokeMethod("symbol#onTap", arguments);
   }
 
   @Override
   public void onLineTapped(Line line) {
+    onLineTapped(String.valueOf(line.getId()));
+  }
+
+  private void onLineTapped(String lineId) {
     final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("line", String.valueOf(line.getId()));
-    methodChannel.invokeMethod("line#onTap", arguments);
+    arguments.put("line", lineId);
+    invokeMethod("line#onTap", arguments);
   }
 
   @Override
   public void onCircleTapped(Circle circle) {
+    onCircleTapped(String.valueOf(circle.getId()));
+  }
+
+  private void onCircleTapped(String circleId) {
     final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("circle", String.valueOf(circle.getId()));
-    methodChannel.invokeMethod("circle#onTap", arguments);
+    arguments.put("circle", circleId);
+    invokeMethod("circle#onTap", arguments);
   }
 
   @Override
   public void onCircleDragStart(Circle circle) {
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("circle", String.valueOf(circle.getId()));
-    methodChannel.invokeMethod("circle#onDragStart", arguments);
+    circleDragArguments.put("circle", draggedCircleId(circle));
+    invokeMethod("circle#onDragStart", circleDragArguments);
   }
 
   @Override
   public void onCircleDrag(Circle circle) {
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("circle", String.valueOf(circle.getId()));
-    methodChannel.invokeMethod("circle#onDrag", arguments);
+    circleDragArguments.put("circle", draggedCircleId(circle));
+    if (cameraFollower != null && cameraFollower.follows("circle", draggedCircleId)) {
+      cameraFollower.onGeometryChanged(
+        new LatLng(circle.getGeometry().latitude(), circle.getGeometry().longitude()));
+    }
+    invokeMethod("circle#onDrag", circleDragArguments);
   }
 
   @Override
   public void onCircleDragEnd(Circle circle) {
-    final Map<String, Object> arguments = new HashMap<>(2);
-    arguments.put("circle", String.valueOf(circle.getId()));
-    methodChannel.invokeMethod("circle#onDragEnd", arguments);
+    circleDragArguments.put("circle", draggedCircleId(circle));
+    invokeMethod("circle#onDragEnd", circleDragArguments);
+    draggedCircle = null;
+    draggedCircleId = null;
+  }
+
+  /** Returns the channel id of the dragged circle, formatted once per drag gesture. */
+  private String draggedCircleId(Circle circle) {
+    if (circle != draggedCircle) {
+      draggedCircle = circle;
+      draggedCircleId = String.valueOf(circle.getId());
+    }
+    return draggedCircleId;
   }
 
   @Override
@@ -821,7 +1983,7 @@ final class MapboxMapController
     arguments.put("y", pointf.y);
     arguments.put("lng", point.getLongitude());
     arguments.put("lat", point.getLatitude());
-    methodChannel.invokeMethod("map#onMapClick", arguments);
+    invokeMethod("map#onMapClick", arguments);
     return true;
   }
 
@@ -831,6 +1993,22 @@ final class MapboxMapController
       return;
     }
     disposed = true;
+    stopRecording();
+    symbolMotionAnimator.cancelAll();
+    propertyAnimator.stopAll();
+    lineDetails.dispose();
+    if (cameraTimeline != null) {
+      cameraTimeline.cancel();
+    }
+    if (replayer != null) {
+      replayer.cancel();
+    }
+    locationChannel.setStreamHandler(null);
+    locationStream.onCancel(null);
+    locationFeed.detach();
+    if (replayLocationEngine != null) {
+      replayLocationEngine.stop();
+    }
     if (locationComponent != null) {
       locationComponent.setLocationComponentEnabled(false);
     }
@@ -843,6 +2021,14 @@ final class MapboxMapController
     if (circleManager != null) {
       circleManager.onDestroy();
     }
+    for (AnnotationGroup group : groups.values()) {
+      group.onDestroy();
+    }
+    groups.clear();
+    if (geoCircles != null) {
+      geoCircles.onDestroy();
+      fillManager.onDestroy();
+    }
 
     mapView.onDestroy();
     registrar.activity().getApplication().unregisterActivityLifecycleCallbacks(this);
@@ -0,0 +1,106 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMessageCodec;
+
+/**
+ * Writes the incoming method channel traffic of a map to a binary trace file.
+ *
+ * <p>The file starts with {@link #MAGIC} and {@link #VERSION}, followed by records that each begin
+ * with a one byte tag. A {@link #TAG_CALL} record holds the nanoseconds since recording started
+ * and the method name and arguments encoded with {@link StandardMessageCodec}. A
+ * {@link #TAG_RESULT} record holds the index of a previously written call together with its
+ * result, so that a replay can map annotation ids created in the original session to the ones
+ * created during the replay. Ids are returned as strings, lists of strings such as those of
+ * {@code symbol#addFromTemplate}, and maps such as the {@code added} ids of
+ * {@code symbols#sync}.
+ */
+class MethodCallRecorder {
+  static final int MAGIC = 0x4d425854; // "MBXT"
+  static final int VERSION = 2;
+  static final byte TAG_CALL = 'C';
+  static final byte TAG_RESULT = 'R';
+
+  private final DataOutputStream out;
+  private final long startNanos;
+  private int callCount = 0;
+
+  MethodCallRecorder(File file) throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    this.startNanos = System.nanoTime();
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+  }
+
+  /**
+   * Records the given call and returns a result that records the id returned by the handler
+   * before forwarding to the original {@code result}.
+   */
+  MethodChannel.Result record(MethodCall call, MethodChannel.Result result) throws IOException {
+    final int index = callCount++;
+    out.writeByte(TAG_CALL);
+    out.writeLong(System.nanoTime() - startNanos);
+    writeEncoded(Arrays.asList(call.method, call.arguments));
+    return new MethodChannel.Result() {
+      @Override
+      public void success(Object value) {
+        if (value instanceof String || value instanceof List || value instanceof Map) {
+          try {
+            out.writeByte(TAG_RESULT);
+            out.writeInt(index);
+            writeEncoded(value);
+          } catch (IOException e) {
+            // The call itself has been recorded, the replay will only miss the id mapping.
+          }
+        }
+        result.success(value);
+      }
+
+      @Override
+      public void error(String errorCode, String errorMessage, Object errorDetails) {
+        result.error(errorCode, errorMessage, errorDetails);
+      }
+
+      @Override
+      public void notImplemented() {
+        result.notImplemented();
+      }
+    };
+  }
+
+  int getCallCount() {
+    return callCount;
+  }
+
+  void close() throws IOException {
+    out.close();
+  }
+
+  private void writeEncoded(Object value) throws IOException {
+    final ByteBuffer buffer = StandardMessageCodec.INSTANCE.encodeMessage(value);
+    if (buffer == null) {
+      out.writeInt(0);
+      return;
+    }
+    buffer.flip();
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+}
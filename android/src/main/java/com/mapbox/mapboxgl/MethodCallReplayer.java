@@ -0,0 +1,319 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMessageCodec;
+
+/**
+ * Feeds a trace written by {@link MethodCallRecorder} back through a
+ * {@link MethodChannel.MethodCallHandler}, either with the original timing or as fast as possible.
+ *
+ * <p>Annotation ids returned while replaying are mapped onto the ids of the recorded session, so
+ * update and remove calls reach the annotations created by the replay. A call that fails is
+ * counted and the replay goes on with the next one.
+ */
+class MethodCallReplayer {
+  private static final String TAG = "MethodCallReplayer";
+  /** Arguments holding an annotation id or a list of them, at any depth of the arguments. */
+  private static final Set<String> ID_ARGUMENTS = new HashSet<>(Arrays.asList(
+    "symbol", "line", "circle", "geoCircle", "id", "ids", "symbols", "lines", "circles"));
+
+  interface OnReplayFinishedListener {
+    void onReplayFinished(int callCount, int errorCount, long elapsedMillis);
+
+    void onReplayCancelled(int callCount);
+  }
+
+  /** Runs the replay steps, a {@link Handler} of the main looper on a device. */
+  interface Scheduler {
+    long uptimeMillis();
+
+    void post(Runnable runnable);
+
+    void postAtTime(Runnable runnable, long uptimeMillis);
+
+    void removeCallbacks(Runnable runnable);
+  }
+
+  private static class MainLooperScheduler implements Scheduler {
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Override
+    public long uptimeMillis() {
+      return SystemClock.uptimeMillis();
+    }
+
+    @Override
+    public void post(Runnable runnable) {
+      handler.post(runnable);
+    }
+
+    @Override
+    public void postAtTime(Runnable runnable, long uptimeMillis) {
+      handler.postAtTime(runnable, uptimeMillis);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable runnable) {
+      handler.removeCallbacks(runnable);
+    }
+  }
+
+  private static class Record {
+    final long nanos;
+    final String method;
+    final Object arguments;
+    Object recordedResult;
+
+    Record(long nanos, String method, Object arguments) {
+      this.nanos = nanos;
+      this.method = method;
+      this.arguments = arguments;
+    }
+  }
+
+  private final List<Record> records;
+  private final Map<String, String> ids = new HashMap<>();
+  private final Scheduler scheduler;
+  private final Runnable step = this::step;
+  private MethodChannel.MethodCallHandler target = null;
+  private OnReplayFinishedListener listener = null;
+  private boolean realtime;
+  private long start;
+  private int next;
+  private int errors;
+  private int generation = 0;
+  private boolean dispatching = false;
+
+  MethodCallReplayer(File file) throws IOException {
+    this(file, new MainLooperScheduler());
+  }
+
+  MethodCallReplayer(File file, Scheduler scheduler) throws IOException {
+    this.records = read(file);
+    this.scheduler = scheduler;
+  }
+
+  /** Returns whether a recorded call is being handed to the target right now. */
+  boolean isDispatching() {
+    return dispatching;
+  }
+
+  /**
+   * Starts replaying the trace, cancelling a replay still in progress. Calls are dispatched one
+   * per main looper message, so a replay that is not realtime still lets the map render between
+   * calls.
+   */
+  void replay(
+    MethodChannel.MethodCallHandler target,
+    boolean realtime,
+    OnReplayFinishedListener listener) {
+    cancel();
+    generation++;
+    this.target = target;
+    this.listener = listener;
+    this.realtime = realtime;
+    this.start = scheduler.uptimeMillis();
+    this.next = 0;
+    this.errors = 0;
+    ids.clear();
+    schedule();
+  }
+
+  /** Stops the replay in progress, if any, and reports it as cancelled to its listener. */
+  void cancel() {
+    scheduler.removeCallbacks(step);
+    final OnReplayFinishedListener cancelled = listener;
+    target = null;
+    listener = null;
+    if (cancelled != null) {
+      cancelled.onReplayCancelled(next);
+    }
+  }
+
+  private void schedule() {
+    if (next == records.size()) {
+      final OnReplayFinishedListener finished = listener;
+      target = null;
+      listener = null;
+      finished.onReplayFinished(records.size(), errors, scheduler.uptimeMillis() - start);
+    } else if (realtime) {
+      scheduler.postAtTime(step, start + records.get(next).nanos / 1000000);
+    } else {
+      scheduler.post(step);
+    }
+  }
+
+  private void step() {
+    final int current = generation;
+    dispatching = true;
+    final Record record = records.get(next++);
+    try {
+      dispatch(target, record);
+    } catch (RuntimeException e) {
+      onError(record, e.toString());
+    } finally {
+      dispatching = false;
+    }
+    // The dispatched call may have started another replay or cancelled this one.
+    if (generation == current && listener != null) {
+      schedule();
+    }
+  }
+
+  private void dispatch(MethodChannel.MethodCallHandler target, Record record) {
+    final Object arguments = ids.isEmpty() ? record.arguments : remapIds(record.arguments);
+    target.onMethodCall(new MethodCall(record.method, arguments),
+      new MethodChannel.Result() {
+        @Override
+        public void success(Object value) {
+          mapIds(record.recordedResult, value);
+        }
+
+        @Override
+        public void error(String errorCode, String errorMessage, Object errorDetails) {
+          onError(record, errorCode + ": " + errorMessage);
+        }
+
+        @Override
+        public void notImplemented() {
+          onError(record, "not implemented");
+        }
+      });
+  }
+
+  private void onError(Record record, String message) {
+    errors++;
+    Log.w(TAG, "Replayed " + record.method + " failed, " + message);
+  }
+
+  /** Maps the ids in a recorded result onto the ones at the same place in the replayed one. */
+  private void mapIds(Object recorded, Object replayed) {
+    if (recorded instanceof String && replayed instanceof String) {
+      // Results also hold keys chosen by Dart, which are the same in both sessions.
+      if (!recorded.equals(replayed)) {
+        ids.put((String) recorded, (String) replayed);
+      }
+    } else if (recorded instanceof List && replayed instanceof List) {
+      final List<?> recordedItems = (List<?>) recorded;
+      final List<?> replayedItems = (List<?>) replayed;
+      for (int i = 0; i < Math.min(recordedItems.size(), replayedItems.size()); i++) {
+        mapIds(recordedItems.get(i), replayedItems.get(i));
+      }
+    } else if (recorded instanceof Map && replayed instanceof Map) {
+      final Map<?, ?> replayedEntries = (Map<?, ?>) replayed;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) recorded).entrySet()) {
+        mapIds(entry.getValue(), replayedEntries.get(entry.getKey()));
+      }
+    }
+  }
+
+  /** Returns a copy of {@code arguments} whose id arguments are the ids of the replay. */
+  private Object remapIds(Object arguments) {
+    if (arguments instanceof Map) {
+      final Map<Object, Object> remapped = new HashMap<>((Map<?, ?>) arguments);
+      for (Map.Entry<Object, Object> entry : remapped.entrySet()) {
+        entry.setValue(ID_ARGUMENTS.contains(entry.getKey())
+          ? remapId(entry.getValue())
+          : remapIds(entry.getValue()));
+      }
+      return remapped;
+    }
+    if (arguments instanceof List) {
+      final List<?> items = (List<?>) arguments;
+      final List<Object> remapped = new ArrayList<>(items.size());
+      for (Object item : items) {
+        remapped.add(remapIds(item));
+      }
+      return remapped;
+    }
+    return arguments;
+  }
+
+  private Object remapId(Object value) {
+    if (value instanceof String) {
+      final String id = ids.get(value);
+      return id != null ? id : value;
+    }
+    if (value instanceof List) {
+      final List<?> items = (List<?>) value;
+      final List<Object> remapped = new ArrayList<>(items.size());
+      for (Object item : items) {
+        remapped.add(remapId(item));
+      }
+      return remapped;
+    }
+    // Entries of symbols#sync and the like, whose ids are further down.
+    return remapIds(value);
+  }
+
+  private static List<Record> read(File file) throws IOException {
+    final List<Record> records = new ArrayList<>();
+    try (DataInputStream in =
+           new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+      if (in.readInt() != MethodCallRecorder.MAGIC) {
+        throw new IOException("Not a method call trace: " + file);
+      }
+      final int version = in.readInt();
+      if (version < 1 || version > MethodCallRecorder.VERSION) {
+        throw new IOException("Unsupported method call trace version " + version);
+      }
+      while (true) {
+        final byte tag;
+        try {
+          tag = in.readByte();
+        } catch (EOFException e) {
+          break;
+        }
+        if (tag == MethodCallRecorder.TAG_CALL) {
+          final long nanos = in.readLong();
+          final List<?> call = (List<?>) readEncoded(in);
+          records.add(new Record(nanos, (String) call.get(0), call.get(1)));
+        } else if (tag == MethodCallRecorder.TAG_RESULT) {
+          final int index = in.readInt();
+          final Object value = readEncoded(in);
+          if (index < records.size()) {
+            records.get(index).recordedResult = value;
+          }
+        } else {
+          throw new IOException("Corrupt method call trace, unknown record " + tag);
+        }
+      }
+    }
+    return records;
+  }
+
+  private static Object readEncoded(DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length == 0) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return StandardMessageCodec.INSTANCE.decodeMessage(ByteBuffer.wrap(bytes));
+  }
+}
@@ -0,0 +1,14 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Sends method calls to the Dart side of a map. The controller only depends on this interface, so
+ * its calls can be recorded instead of being sent over a method channel.
+ */
+interface MethodInvoker {
+
+  void invokeMethod(String method, Object arguments);
+}
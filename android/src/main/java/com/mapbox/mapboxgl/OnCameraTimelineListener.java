@@ -0,0 +1,7 @@
+package com.mapbox.mapboxgl;
+
+interface OnCameraTimelineListener {
+    void onCameraTimelineProgress(int timelineId, int keyframeIndex, int keyframeCount);
+
+    void onCameraTimelineFinished(int timelineId, boolean cancelled);
+}
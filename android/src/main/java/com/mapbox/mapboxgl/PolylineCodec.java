@@ -0,0 +1,140 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Codecs for compact line geometry formats, working on coordinates packed as {@code lat, lng}
+ * pairs without allocating per vertex.
+ *
+ * <p>Two formats are supported: the encoded polyline algorithm format with precision 5 or 6, as
+ * returned by most routing services, and a binary format of zig-zag encoded unsigned LEB128
+ * varints holding the first coordinate and then the deltas of every following coordinate, all in
+ * degrees times 10^6.
+ */
+final class PolylineCodec {
+  private PolylineCodec() {
+  }
+
+  /**
+   * Decodes an encoded polyline with {@code precision} decimal digits, 5 or 6.
+   *
+   * @throws IllegalArgumentException if the polyline is truncated or holds invalid characters.
+   */
+  static double[] decodePolyline(String encoded, int precision) {
+    final double factor = Math.pow(10, precision);
+    final int length = encoded.length();
+    // Every coordinate value takes at least one character.
+    final double[] coordinates = new double[length];
+    int count = 0;
+    int index = 0;
+    long lat = 0;
+    long lng = 0;
+    while (index < length) {
+      long result = 0;
+      int shift = 0;
+      int b;
+      do {
+        if (index == length) {
+          throw new IllegalArgumentException("Truncated polyline");
+        }
+        b = encoded.charAt(index++) - 63;
+        if (b < 0 || b > 0x3f || shift > 60) {
+          throw new IllegalArgumentException("Invalid polyline at character " + (index - 1));
+        }
+        result |= (long) (b & 0x1f) << shift;
+        shift += 5;
+      } while (b >= 0x20);
+      final long delta = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+      if ((count & 1) == 0) {
+        lat += delta;
+        coordinates[count++] = lat / factor;
+      } else {
+        lng += delta;
+        coordinates[count++] = lng / factor;
+      }
+    }
+    if ((count & 1) != 0) {
+      throw new IllegalArgumentException("Polyline ends with a latitude");
+    }
+    return trim(coordinates, count);
+  }
+
+  /**
+   * Decodes zig-zag varint deltas of coordinates in degrees times 10^6.
+   *
+   * @throws IllegalArgumentException if the bytes are truncated or a varint is too long.
+   */
+  static double[] decodeDeltaE6(byte[] bytes) {
+    // Every coordinate value takes at least one byte.
+    final double[] coordinates = new double[bytes.length];
+    int count = 0;
+    int index = 0;
+    long lat = 0;
+    long lng = 0;
+    while (index < bytes.length) {
+      long result = 0;
+      int shift = 0;
+      byte b;
+      do {
+        if (index == bytes.length) {
+          throw new IllegalArgumentException("Truncated deltaE6 geometry");
+        }
+        if (shift > 63) {
+          throw new IllegalArgumentException("Invalid deltaE6 varint at byte " + index);
+        }
+        b = bytes[index++];
+        result |= (long) (b & 0x7f) << shift;
+        shift += 7;
+      } while (b < 0);
+      final long delta = (result >>> 1) ^ -(result & 1);
+      if ((count & 1) == 0) {
+        lat += delta;
+        coordinates[count++] = lat / 1e6;
+      } else {
+        lng += delta;
+        coordinates[count++] = lng / 1e6;
+      }
+    }
+    if ((count & 1) != 0) {
+      throw new IllegalArgumentException("DeltaE6 geometry ends with a latitude");
+    }
+    return trim(coordinates, count);
+  }
+
+  /** Encodes coordinates as an encoded polyline with {@code precision} decimal digits. */
+  static String encodePolyline(double[] coordinates, int precision) {
+    final double factor = Math.pow(10, precision);
+    final StringBuilder encoded = new StringBuilder(coordinates.length * 3);
+    long lastLat = 0;
+    long lastLng = 0;
+    for (int i = 0; i + 1 < coordinates.length; i += 2) {
+      final long lat = Math.round(coordinates[i] * factor);
+      final long lng = Math.round(coordinates[i + 1] * factor);
+      encodeValue(lat - lastLat, encoded);
+      encodeValue(lng - lastLng, encoded);
+      lastLat = lat;
+      lastLng = lng;
+    }
+    return encoded.toString();
+  }
+
+  private static void encodeValue(long value, StringBuilder encoded) {
+    long remaining = value < 0 ? ~(value << 1) : value << 1;
+    while (remaining >= 0x20) {
+      encoded.append((char) ((0x20 | (remaining & 0x1f)) + 63));
+      remaining >>= 5;
+    }
+    encoded.append((char) (remaining + 63));
+  }
+
+  private static double[] trim(double[] coordinates, int count) {
+    if (count == coordinates.length) {
+      return coordinates;
+    }
+    final double[] trimmed = new double[count];
+    System.arraycopy(coordinates, 0, trimmed, 0, count);
+    return trimmed;
+  }
+}
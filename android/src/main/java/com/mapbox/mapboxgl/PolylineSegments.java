@@ -0,0 +1,116 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.BitSet;
+
+/**
+ * Splits a polyline packed as {@code lat, lng} pairs into runs of consecutive vertices with a
+ * bounding box each, so the part of a very long line that is near the viewport can be found
+ * without visiting every vertex. Longitudes may be unwrapped past +-180 degrees, as densified
+ * lines crossing the antimeridian are.
+ */
+final class PolylineSegments {
+  static final int SEGMENT_VERTICES = 128;
+
+  private final double[] coordinates;
+  private final int segmentCount;
+  /** South, west, north and east of every segment. */
+  private final double[] boxes;
+  /** West and east of the whole line. */
+  private double west = Double.POSITIVE_INFINITY;
+  private double east = Double.NEGATIVE_INFINITY;
+
+  PolylineSegments(double[] coordinates) {
+    this.coordinates = coordinates;
+    final int count = coordinates.length / 2;
+    // Consecutive segments share their boundary vertex.
+    this.segmentCount = Math.max(1, (count - 2) / (SEGMENT_VERTICES - 1) + 1);
+    this.boxes = new double[segmentCount * 4];
+    for (int segment = 0; segment < segmentCount; segment++) {
+      double south = Double.POSITIVE_INFINITY;
+      double west = Double.POSITIVE_INFINITY;
+      double north = Double.NEGATIVE_INFINITY;
+      double east = Double.NEGATIVE_INFINITY;
+      for (int i = start(segment); i <= end(segment); i++) {
+        final double lat = coordinates[2 * i];
+        final double lng = coordinates[2 * i + 1];
+        south = Math.min(south, lat);
+        north = Math.max(north, lat);
+        west = Math.min(west, lng);
+        east = Math.max(east, lng);
+      }
+      boxes[4 * segment] = south;
+      boxes[4 * segment + 1] = west;
+      boxes[4 * segment + 2] = north;
+      boxes[4 * segment + 3] = east;
+      this.west = Math.min(this.west, west);
+      this.east = Math.max(this.east, east);
+    }
+  }
+
+  /**
+   * Sets the bits of the segments whose box intersects {@code viewport}, clearing the others. The
+   * viewport is also tested shifted by every multiple of 360 degrees that overlaps the line, so
+   * unwrapped parts of the line are found at either copy of the world.
+   */
+  void findVisible(GeoBounds viewport, BitSet visible) {
+    visible.clear();
+    final double firstShift = Math.ceil((west - viewport.east) / 360) * 360;
+    final double lastShift = Math.floor((east - viewport.west) / 360) * 360;
+    for (int segment = 0; segment < segmentCount; segment++) {
+      if (boxes[4 * segment] > viewport.north || boxes[4 * segment + 2] < viewport.south) {
+        continue;
+      }
+      for (double shift = firstShift; shift <= lastShift; shift += 360) {
+        if (boxes[4 * segment + 1] <= viewport.east + shift
+          && boxes[4 * segment + 3] >= viewport.west + shift) {
+          visible.set(segment);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the vertices of the visible segments, from the first to the last visible one.
+   * Segments in between that are not visible are reduced to their end points: the chord stays
+   * inside their box, so it cannot cross the viewport.
+   */
+  double[] materialize(BitSet visible) {
+    final int first = visible.nextSetBit(0);
+    if (first < 0) {
+      // A degenerate line at the first vertex, line features need at least two points.
+      return coordinates.length < 2
+        ? coordinates
+        : new double[] {coordinates[0], coordinates[1], coordinates[0], coordinates[1]};
+    }
+    final int last = visible.length() - 1;
+    int vertices = 1;
+    for (int segment = first; segment <= last; segment++) {
+      vertices += visible.get(segment) ? end(segment) - start(segment) : 1;
+    }
+    final double[] clipped = new double[vertices * 2];
+    int j = 0;
+    clipped[j++] = coordinates[2 * start(first)];
+    clipped[j++] = coordinates[2 * start(first) + 1];
+    for (int segment = first; segment <= last; segment++) {
+      final int from = visible.get(segment) ? start(segment) + 1 : end(segment);
+      for (int i = from; i <= end(segment); i++) {
+        clipped[j++] = coordinates[2 * i];
+        clipped[j++] = coordinates[2 * i + 1];
+      }
+    }
+    return clipped;
+  }
+
+  private int start(int segment) {
+    return segment * (SEGMENT_VERTICES - 1);
+  }
+
+  private int end(int segment) {
+    return Math.min(coordinates.length / 2 - 1, start(segment) + SEGMENT_VERTICES - 1);
+  }
+}
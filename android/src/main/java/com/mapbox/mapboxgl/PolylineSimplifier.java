@@ -0,0 +1,111 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Douglas-Peucker simplification of polylines packed as {@code lat, lng} pairs. Iterative and
+ * free of per vertex objects, so tracks with hundreds of thousands of vertices can be simplified
+ * on a background thread without garbage.
+ */
+final class PolylineSimplifier {
+  private PolylineSimplifier() {
+  }
+
+  /**
+   * Returns the vertices of {@code coordinates} that deviate more than {@code tolerance} degrees
+   * from the simplified line, always keeping the first and last vertex. Longitudes are scaled by
+   * the cosine of the mean latitude, so the tolerance is roughly isotropic.
+   */
+  static double[] simplify(double[] coordinates, double tolerance) {
+    final int count = coordinates.length / 2;
+    if (count <= 2 || tolerance <= 0) {
+      return coordinates;
+    }
+    final double lngScale = Math.cos(Math.toRadians(meanLatitude(coordinates)));
+    final double toleranceSquared = tolerance * tolerance;
+    final boolean[] keep = new boolean[count];
+    keep[0] = true;
+    keep[count - 1] = true;
+    // Pending ranges as start, end index pairs.
+    int[] stack = new int[64];
+    int top = 0;
+    stack[top++] = 0;
+    stack[top++] = count - 1;
+    int kept = 2;
+    while (top > 0) {
+      final int end = stack[--top];
+      final int start = stack[--top];
+      if (end - start < 2) {
+        continue;
+      }
+      final double ay = coordinates[2 * start];
+      final double ax = coordinates[2 * start + 1] * lngScale;
+      final double by = coordinates[2 * end];
+      final double bx = coordinates[2 * end + 1] * lngScale;
+      double maxDistance = -1;
+      int farthest = -1;
+      for (int i = start + 1; i < end; i++) {
+        final double distance = segmentDistanceSquared(
+          coordinates[2 * i + 1] * lngScale, coordinates[2 * i], ax, ay, bx, by);
+        if (distance > maxDistance) {
+          maxDistance = distance;
+          farthest = i;
+        }
+      }
+      if (maxDistance > toleranceSquared) {
+        keep[farthest] = true;
+        kept++;
+        if (top + 4 > stack.length) {
+          final int[] grown = new int[stack.length * 2];
+          System.arraycopy(stack, 0, grown, 0, top);
+          stack = grown;
+        }
+        stack[top++] = start;
+        stack[top++] = farthest;
+        stack[top++] = farthest;
+        stack[top++] = end;
+      }
+    }
+    if (kept == count) {
+      return coordinates;
+    }
+    final double[] simplified = new double[kept * 2];
+    int j = 0;
+    for (int i = 0; i < count; i++) {
+      if (keep[i]) {
+        simplified[j++] = coordinates[2 * i];
+        simplified[j++] = coordinates[2 * i + 1];
+      }
+    }
+    return simplified;
+  }
+
+  private static double meanLatitude(double[] coordinates) {
+    double sum = 0;
+    for (int i = 0; i < coordinates.length; i += 2) {
+      sum += coordinates[i];
+    }
+    return sum / (coordinates.length / 2);
+  }
+
+  private static double segmentDistanceSquared(
+    double px, double py, double ax, double ay, double bx, double by) {
+    double dx = bx - ax;
+    double dy = by - ay;
+    if (dx != 0 || dy != 0) {
+      final double t = ((px - ax) * dx + (py - ay) * dy) / (dx * dx + dy * dy);
+      if (t > 1) {
+        ax = bx;
+        ay = by;
+      } else if (t > 0) {
+        ax += dx * t;
+        ay += dy * t;
+      }
+    }
+    dx = px - ax;
+    dy = py - ay;
+    return dx * dx + dy * dy;
+  }
+}
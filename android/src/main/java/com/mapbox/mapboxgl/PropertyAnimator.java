@@ -0,0 +1,214 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.AnnotationProperties;
+import com.mapbox.mapboxsdk.plugins.annotation.Circle;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Line;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Animates numeric annotation properties (pulsing, fading, growing) on the shared frame clock of a
+ * map. Changed annotations are handed to the {@link AnnotationUpdateBatch}, so all animations of a
+ * frame end up in one update per manager.
+ */
+class PropertyAnimator implements FrameClock.FrameCallback {
+
+  static class Spec {
+    Float from;
+    float to;
+    long durationMs;
+    String easing = "linear";
+    /** Number of additional runs after the first one, negative to loop until stopped. */
+    int repeat = 0;
+    /** Whether every other run goes from {@code to} back to {@code from}. */
+    boolean reverse = false;
+    /** Stops the animation after this many milliseconds, zero for no limit. */
+    long stopAfterMs = 0;
+  }
+
+  private static class Track {
+    final Object annotation;
+    final AnnotationStore<?, ?> store;
+    final String property;
+    final float from;
+    final Spec spec;
+    final long startNanos;
+
+    Track(
+      Object annotation,
+      AnnotationStore<?, ?> store,
+      String property,
+      float from,
+      Spec spec,
+      long startNanos) {
+      this.annotation = annotation;
+      this.store = store;
+      this.property = property;
+      this.from = from;
+      this.spec = spec;
+      this.startNanos = startNanos;
+    }
+  }
+
+  private final FrameClock clock;
+  private final AnnotationUpdateBatch batch;
+  private final Map<String, Track> tracks = new HashMap<>();
+
+  PropertyAnimator(FrameClock clock, AnnotationUpdateBatch batch) {
+    this.clock = clock;
+    this.batch = batch;
+  }
+
+  /**
+   * Starts animating {@code property} of the given symbol, circle or line controller, replacing
+   * a running animation of the same property. {@code store} is the annotation store owning the
+   * annotation.
+   *
+   * @throws IllegalArgumentException if the property is unknown or not one of the annotation.
+   */
+  void animate(
+    String annotationId,
+    Object annotation,
+    AnnotationStore<?, ?> store,
+    String property,
+    Spec spec) {
+    // Reading the current value also checks the property before anything is scheduled.
+    final float current = currentValue(annotation, property);
+    final float from = spec.from != null ? spec.from : current;
+    tracks.put(key(annotationId, property),
+      new Track(annotation, store, property, from, spec, clock.nanoTime()));
+    clock.addFrameCallback(this);
+  }
+
+  /** Stops the animations of an annotation, all of them if {@code property} is null. */
+  void stop(String annotationId, String property) {
+    if (property != null) {
+      tracks.remove(key(annotationId, property));
+      return;
+    }
+    final String prefix = annotationId + "#";
+    for (Iterator<String> iterator = tracks.keySet().iterator(); iterator.hasNext(); ) {
+      if (iterator.next().startsWith(prefix)) {
+        iterator.remove();
+      }
+    }
+  }
+
+  void stopAll() {
+    tracks.clear();
+    clock.removeFrameCallback(this);
+  }
+
+  @Override
+  public boolean doFrame(long frameTimeNanos) {
+    for (Iterator<Track> iterator = tracks.values().iterator(); iterator.hasNext(); ) {
+      final Track track = iterator.next();
+      final Spec spec = track.spec;
+      final long elapsedMs = Math.max(0, (frameTimeNanos - track.startNanos) / 1_000_000);
+      final long durationMs = Math.max(1, spec.durationMs);
+      long run = elapsedMs / durationMs;
+      double t = (double) (elapsedMs % durationMs) / durationMs;
+      boolean done = spec.stopAfterMs > 0 && elapsedMs >= spec.stopAfterMs;
+      if (spec.repeat >= 0 && run > spec.repeat) {
+        run = spec.repeat;
+        t = 1;
+        done = true;
+      }
+      if (spec.reverse && run % 2 == 1) {
+        t = 1 - t;
+      }
+      apply(track.annotation, track.store, track.property,
+        (float) (track.from + (spec.to - track.from) * ease(spec.easing, t)));
+      if (done) {
+        iterator.remove();
+      }
+    }
+    return !tracks.isEmpty();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void apply(Object annotation, AnnotationStore<?, ?> store, String property, float value) {
+    switch (property) {
+      case "circleRadius":
+        ((CircleController) annotation).setCircleRadius(value);
+        batch.add((CircleController) annotation, (AnnotationStore<Circle, CircleOptions>) store);
+        break;
+      case "circleOpacity":
+        ((CircleController) annotation).setCircleOpacity(value);
+        batch.add((CircleController) annotation, (AnnotationStore<Circle, CircleOptions>) store);
+        break;
+      case "iconOpacity":
+        ((SymbolController) annotation).setIconOpacity(value);
+        batch.add((SymbolController) annotation, (AnnotationStore<Symbol, SymbolOptions>) store);
+        break;
+      case "iconSize":
+        ((SymbolController) annotation).setIconSize(value);
+        batch.add((SymbolController) annotation, (AnnotationStore<Symbol, SymbolOptions>) store);
+        break;
+      case "lineOpacity":
+        ((LineController) annotation).setLineOpacity(value);
+        batch.add((LineController) annotation, (AnnotationStore<Line, LineOptions>) store);
+        break;
+      default:
+        throw new IllegalArgumentException("Cannot animate " + property);
+    }
+  }
+
+  /** Returns the current value of a property, or its style default if it was never set. */
+  private static float currentValue(Object annotation, String property) {
+    switch (property) {
+      case "circleRadius":
+        return AnnotationProperties.getFloat(
+          as(CircleController.class, annotation, property).getCircle(), "circle-radius", 5);
+      case "circleOpacity":
+        return AnnotationProperties.getFloat(
+          as(CircleController.class, annotation, property).getCircle(), "circle-opacity", 1);
+      case "iconOpacity":
+        return AnnotationProperties.getFloat(
+          as(SymbolController.class, annotation, property).getSymbol(), "icon-opacity", 1);
+      case "iconSize":
+        return AnnotationProperties.getFloat(
+          as(SymbolController.class, annotation, property).getSymbol(), "icon-size", 1);
+      case "lineOpacity":
+        return AnnotationProperties.getFloat(
+          as(LineController.class, annotation, property).getLine(), "line-opacity", 1);
+      default:
+        throw new IllegalArgumentException("Cannot animate " + property);
+    }
+  }
+
+  private static <T> T as(Class<T> type, Object annotation, String property) {
+    if (!type.isInstance(annotation)) {
+      throw new IllegalArgumentException(
+        "Cannot animate " + property + " of " + annotation.getClass().getSimpleName());
+    }
+    return type.cast(annotation);
+  }
+
+  private static double ease(String easing, double t) {
+    switch (easing) {
+      case "easeIn":
+        return t * t;
+      case "easeOut":
+        return t * (2 - t);
+      case "easeInOut":
+        return t < 0.5 ? 2 * t * t : -1 + (4 - 2 * t) * t;
+      default:
+        return t;
+    }
+  }
+
+  private static String key(String annotationId, String property) {
+    return annotationId + "#" + property;
+  }
+}
@@ -0,0 +1,354 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.app.PendingIntent;
+import android.location.Location;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Xml;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mapbox.android.core.location.LocationEngine;
+import com.mapbox.android.core.location.LocationEngineCallback;
+import com.mapbox.android.core.location.LocationEngineRequest;
+import com.mapbox.android.core.location.LocationEngineResult;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link LocationEngine} that plays back a recorded GPS trace instead of using the device
+ * location, so location driven features behave the same on every run.
+ *
+ * <p>Traces are GPX files, recognized by their {@code .gpx} extension, or CSV files with one fix
+ * per line: {@code lat,lng[,timeMillis[,accuracy[,speed[,bearing[,altitude]]]]]}. Lines that do
+ * not start with a number are skipped. Fixes are played with their recorded spacing divided by
+ * the speed multiplier, one second apart if any fix has no time. Missing speeds and bearings
+ * are derived from the neighbouring fixes. Delivered fixes carry the current wall clock time.
+ */
+class ReplayLocationEngine implements LocationEngine {
+  private static final String PROVIDER = "replay";
+  private static final long DEFAULT_SPACING_MILLIS = 1000;
+  private static final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+    final Thread thread = new Thread(runnable, "ReplayLocationEngine loader");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  interface OnLoadedListener {
+    void onLoaded(ReplayLocationEngine engine);
+
+    void onLoadFailed(String message);
+  }
+
+  private static final class Fix {
+    final double lat;
+    final double lng;
+    /** Recorded time in milliseconds, negative if the trace has none for this fix. */
+    long time = -1;
+    float accuracy;
+    float speed = -1;
+    float bearing = -1;
+    double altitude;
+
+    Fix(double lat, double lng) {
+      this.lat = lat;
+      this.lng = lng;
+    }
+  }
+
+  private final List<Fix> fixes;
+  private final double speedMultiplier;
+  private final boolean loop;
+  private final Handler clock = new Handler(Looper.getMainLooper());
+  private final Map<LocationEngineCallback<LocationEngineResult>, Handler> callbacks =
+    new IdentityHashMap<>();
+  private final Runnable tick = this::tick;
+  private int next = 0;
+  private Location last = null;
+
+  ReplayLocationEngine(File file, double speedMultiplier, boolean loop) throws IOException {
+    if (speedMultiplier <= 0) {
+      throw new IllegalArgumentException("Replay speed must be positive: " + speedMultiplier);
+    }
+    this.fixes = file.getName().toLowerCase(Locale.US).endsWith(".gpx")
+      ? readGpx(file) : readCsv(file);
+    if (fixes.isEmpty()) {
+      throw new IOException("No location fixes in " + file);
+    }
+    completeFixes(fixes);
+    this.speedMultiplier = speedMultiplier;
+    this.loop = loop;
+  }
+
+  /**
+   * Reads the trace in {@code file} on a background thread and reports the engine playing it, or
+   * why it could not be read, on the main thread.
+   */
+  static void load(File file, double speedMultiplier, boolean loop, OnLoadedListener listener) {
+    final Handler handler = new Handler(Looper.getMainLooper());
+    loader.execute(() -> {
+      try {
+        final ReplayLocationEngine engine = new ReplayLocationEngine(file, speedMultiplier, loop);
+        handler.post(() -> listener.onLoaded(engine));
+      } catch (IOException | IllegalArgumentException e) {
+        handler.post(() -> listener.onLoadFailed(e.getMessage()));
+      }
+    });
+  }
+
+  @Override
+  public void getLastLocation(@NonNull LocationEngineCallback<LocationEngineResult> callback) {
+    if (last != null) {
+      callback.onSuccess(LocationEngineResult.create(last));
+    } else {
+      callback.onFailure(new IllegalStateException("Replay has not delivered a fix yet"));
+    }
+  }
+
+  @Override
+  public void requestLocationUpdates(
+    @NonNull LocationEngineRequest request,
+    @NonNull LocationEngineCallback<LocationEngineResult> callback,
+    @Nullable Looper looper) {
+    callbacks.put(callback, new Handler(looper != null ? looper : Looper.getMainLooper()));
+    if (callbacks.size() == 1) {
+      clock.post(tick);
+    }
+  }
+
+  /**
+   * Does nothing: replayed fixes are only delivered to callbacks, the location component never
+   * requests them through a pending intent.
+   */
+  @Override
+  public void requestLocationUpdates(
+    @NonNull LocationEngineRequest request, PendingIntent pendingIntent) {
+  }
+
+  @Override
+  public void removeLocationUpdates(
+    @NonNull LocationEngineCallback<LocationEngineResult> callback) {
+    callbacks.remove(callback);
+    if (callbacks.isEmpty()) {
+      clock.removeCallbacks(tick);
+    }
+  }
+
+  @Override
+  public void removeLocationUpdates(PendingIntent pendingIntent) {
+  }
+
+  /** Stops the playback for all callbacks. */
+  void stop() {
+    callbacks.clear();
+    clock.removeCallbacks(tick);
+  }
+
+  private void tick() {
+    if (next == fixes.size()) {
+      if (!loop) {
+        return;
+      }
+      next = 0;
+    }
+    final Fix fix = fixes.get(next++);
+    last = toLocation(fix);
+    final LocationEngineResult result = LocationEngineResult.create(last);
+    for (Map.Entry<LocationEngineCallback<LocationEngineResult>, Handler> entry
+      : callbacks.entrySet()) {
+      final LocationEngineCallback<LocationEngineResult> callback = entry.getKey();
+      entry.getValue().post(() -> callback.onSuccess(result));
+    }
+    if (next < fixes.size()) {
+      final long spacing = fixes.get(next).time - fix.time;
+      clock.postDelayed(tick, (long) (Math.max(0, spacing) / speedMultiplier));
+    } else if (loop) {
+      clock.postDelayed(tick, (long) (DEFAULT_SPACING_MILLIS / speedMultiplier));
+    }
+  }
+
+  private static Location toLocation(Fix fix) {
+    final Location location = new Location(PROVIDER);
+    location.setLatitude(fix.lat);
+    location.setLongitude(fix.lng);
+    location.setTime(System.currentTimeMillis());
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+      location.setElapsedRealtimeNanos(SystemClock.elapsedRealtimeNanos());
+    }
+    location.setAltitude(fix.altitude);
+    if (fix.accuracy > 0) {
+      location.setAccuracy(fix.accuracy);
+    }
+    if (fix.speed >= 0) {
+      location.setSpeed(fix.speed);
+    }
+    if (fix.bearing >= 0) {
+      location.setBearing(fix.bearing);
+    }
+    return location;
+  }
+
+  /** Fills in missing times, speeds and bearings from the neighbouring fixes. */
+  private static void completeFixes(List<Fix> fixes) {
+    boolean timed = true;
+    for (Fix fix : fixes) {
+      timed &= fix.time >= 0;
+    }
+    for (int i = 0; i < fixes.size(); i++) {
+      final Fix fix = fixes.get(i);
+      if (!timed) {
+        fix.time = i * DEFAULT_SPACING_MILLIS;
+      }
+      if (i == 0) {
+        continue;
+      }
+      final Fix previous = fixes.get(i - 1);
+      if (fix.bearing < 0) {
+        fix.bearing = (float) GeoMath.bearing(previous.lat, previous.lng, fix.lat, fix.lng);
+      }
+      if (fix.speed < 0 && fix.time > previous.time) {
+        fix.speed = (float) (GeoMath.distance(previous.lat, previous.lng, fix.lat, fix.lng)
+          * 1000 / (fix.time - previous.time));
+      }
+    }
+  }
+
+  private static List<Fix> readCsv(File file) throws IOException {
+    final List<Fix> fixes = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] fields = line.trim().split("\\s*,\\s*");
+        if (fields.length < 2 || !isNumber(fields[0])) {
+          continue;
+        }
+        try {
+          final Fix fix = new Fix(Double.parseDouble(fields[0]), Double.parseDouble(fields[1]));
+          if (fields.length > 2 && !fields[2].isEmpty()) {
+            fix.time = Long.parseLong(fields[2]);
+          }
+          fix.accuracy = fields.length > 3 ? Float.parseFloat(fields[3]) : 0;
+          fix.speed = fields.length > 4 ? Float.parseFloat(fields[4]) : -1;
+          fix.bearing = fields.length > 5 ? Float.parseFloat(fields[5]) : -1;
+          fix.altitude = fields.length > 6 ? Double.parseDouble(fields[6]) : 0;
+          fixes.add(fix);
+        } catch (NumberFormatException e) {
+          throw new IOException("Malformed location fix in " + file + ": " + line);
+        }
+      }
+    }
+    return fixes;
+  }
+
+  private static boolean isNumber(String field) {
+    return !field.isEmpty()
+      && (Character.isDigit(field.charAt(0)) || field.charAt(0) == '-' || field.charAt(0) == '.');
+  }
+
+  private static List<Fix> readGpx(File file) throws IOException {
+    final List<Fix> fixes = new ArrayList<>();
+    try (InputStream in = new FileInputStream(file)) {
+      final XmlPullParser parser = Xml.newPullParser();
+      parser.setInput(in, null);
+      Fix fix = null;
+      String element = null;
+      for (int event = parser.getEventType();
+           event != XmlPullParser.END_DOCUMENT;
+           event = parser.next()) {
+        if (event == XmlPullParser.START_TAG) {
+          element = parser.getName();
+          if ("trkpt".equals(element) || "rtept".equals(element) || "wpt".equals(element)) {
+            final String lat = parser.getAttributeValue(null, "lat");
+            final String lon = parser.getAttributeValue(null, "lon");
+            if (lat == null || lon == null) {
+              throw new IOException("Malformed GPX trace " + file + ": <" + element
+                + "> without lat and lon at line " + parser.getLineNumber());
+            }
+            fix = new Fix(Double.parseDouble(lat), Double.parseDouble(lon));
+            fixes.add(fix);
+          }
+        } else if (event == XmlPullParser.TEXT && fix != null && element != null) {
+          final String text = parser.getText().trim();
+          if ("ele".equals(element)) {
+            fix.altitude = Double.parseDouble(text);
+          } else if ("time".equals(element)) {
+            fix.time = parseTime(text);
+          }
+        } else if (event == XmlPullParser.END_TAG) {
+          element = null;
+        }
+      }
+    } catch (XmlPullParserException | NumberFormatException e) {
+      throw new IOException("Malformed GPX trace " + file + ": " + e.getMessage());
+    }
+    return fixes;
+  }
+
+  /**
+   * Parses the ISO 8601 times used by GPX, with optional fractional seconds and a {@code Z},
+   * {@code ±hh:mm}, {@code ±hhmm} or {@code ±hh} offset. Times without an offset are taken as UTC.
+   */
+  static long parseTime(String text) throws IOException {
+    String time = text;
+    long offsetMillis = 0;
+    final int offset = Math.max(time.lastIndexOf('+'), time.lastIndexOf('-'));
+    if (time.endsWith("Z")) {
+      time = time.substring(0, time.length() - 1);
+    } else if (offset > 0 && offset > time.indexOf('T')) {
+      offsetMillis = parseOffset(time.substring(offset), text);
+      time = time.substring(0, offset);
+    }
+    final int fraction = time.indexOf('.');
+    final SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    try {
+      long millis = format.parse(fraction < 0 ? time : time.substring(0, fraction)).getTime();
+      if (fraction >= 0) {
+        millis += Math.round(Double.parseDouble("0" + time.substring(fraction)) * 1000);
+      }
+      return millis - offsetMillis;
+    } catch (ParseException | NumberFormatException e) {
+      throw new IOException("Malformed GPX time: " + text);
+    }
+  }
+
+  /** Parses a {@code ±hh:mm}, {@code ±hhmm} or {@code ±hh} UTC offset into milliseconds. */
+  private static long parseOffset(String offset, String text) throws IOException {
+    final String digits = offset.substring(1).replace(":", "");
+    if ((digits.length() != 2 && digits.length() != 4) || !digits.matches("[0-9]+")
+        || offset.indexOf(':') >= 0 && offset.indexOf(':') != 3) {
+      throw new IOException("Malformed GPX time: " + text);
+    }
+    final int hours = Integer.parseInt(digits.substring(0, 2));
+    final int minutes = digits.length() == 4 ? Integer.parseInt(digits.substring(2)) : 0;
+    if (hours > 18 || minutes > 59) {
+      throw new IOException("Malformed GPX time: " + text);
+    }
+    final long millis = (hours * 60L + minutes) * 60_000L;
+    return offset.charAt(0) == '-' ? -millis : millis;
+  }
+}
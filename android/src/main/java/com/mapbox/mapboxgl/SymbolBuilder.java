@@ -7,22 +7,43 @@
 package com.mapbox.mapboxgl;
 
 import com.mapbox.geojson.Point;
-import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
-import com.mapbox.mapboxsdk.plugins.annotation.SymbolManager;
 import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
 
+import java.util.ArrayList;
+import java.util.List;
+
 class SymbolBuilder implements SymbolOptionsSink {
-  private final SymbolManager symbolManager;
+  private final AnnotationStore<Symbol, SymbolOptions> symbolStore;
   private final SymbolOptions symbolOptions;
 
-  SymbolBuilder(SymbolManager symbolManager) {
-    this.symbolManager = symbolManager;
+  SymbolBuilder(AnnotationStore<Symbol, SymbolOptions> symbolStore) {
+    this.symbolStore = symbolStore;
     this.symbolOptions = new SymbolOptions();
   }
 
   Symbol build() {
-    return symbolManager.create(symbolOptions);
+    final Tracer tracer = Tracing.begin("SymbolManager.create");
+    try {
+      return symbolStore.create(symbolOptions);
+    } finally {
+      Tracing.end(tracer);
+    }
+  }
+
+  /** Creates the symbols of all {@code builders} with a single manager call. */
+  static List<Symbol> buildAll(
+    AnnotationStore<Symbol, SymbolOptions> symbolStore, List<SymbolBuilder> builders) {
+    final List<SymbolOptions> options = new ArrayList<>(builders.size());
+    for (SymbolBuilder builder : builders) {
+      options.add(builder.symbolOptions);
+    }
+    final Tracer tracer = Tracing.begin("SymbolManager.create");
+    try {
+      return symbolStore.create(options);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -146,8 +167,8 @@ class SymbolBuilder implements SymbolOptionsSink {
   }
 
   @Override
-  public void setGeometry(LatLng geometry) {
-    symbolOptions.withGeometry(Point.fromLngLat(geometry.getLongitude(), geometry.getLatitude()));
+  public void setGeometry(double latitude, double longitude) {
+    symbolOptions.withGeometry(Point.fromLngLat(longitude, latitude));
   }
 
   @Override
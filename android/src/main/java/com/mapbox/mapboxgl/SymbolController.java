@@ -10,8 +10,9 @@ import android.graphics.Color;
 import android.graphics.PointF;
 import com.mapbox.geojson.Point;
 import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.AnnotationProperties;
 import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
-import com.mapbox.mapboxsdk.plugins.annotation.SymbolManager;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
 
 /**
  * Controller of a single Symbol on the map.
@@ -20,6 +21,9 @@ class SymbolController implements SymbolOptionsSink {
   private final Symbol symbol;
   private final OnSymbolTappedListener onTappedListener;
   private boolean consumeTapEvents;
+  private boolean zoomHidden = false;
+  private float shownIconOpacity = 1f;
+  private float shownTextOpacity = 1f;
 
   SymbolController(Symbol symbol, boolean consumeTapEvents, OnSymbolTappedListener onTappedListener) {
     this.symbol = symbol;
@@ -34,8 +38,17 @@ class SymbolController implements SymbolOptionsSink {
     return consumeTapEvents;
   }
 
-  void remove(SymbolManager symbolManager) {
-    symbolManager.delete(symbol);
+  Symbol getSymbol() {
+    return symbol;
+  }
+
+  void remove(AnnotationStore<Symbol, SymbolOptions> symbolStore) {
+    final Tracer tracer = Tracing.begin("SymbolManager.delete");
+    try {
+      symbolStore.delete(symbol);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 
   @Override
@@ -43,6 +56,10 @@ class SymbolController implements SymbolOptionsSink {
     symbol.setIconSize(iconSize);
   }
 
+  float getIconRotate() {
+    return AnnotationProperties.getFloat(symbol, "icon-rotate", 0);
+  }
+
   @Override
   public void setIconImage(String iconImage) {
     symbol.setIconImage(iconImage);
@@ -110,7 +127,11 @@ class SymbolController implements SymbolOptionsSink {
 
   @Override
   public void setIconOpacity(float iconOpacity) {
-    symbol.setIconOpacity(iconOpacity);
+    if (zoomHidden) {
+      shownIconOpacity = iconOpacity;
+    } else {
+      symbol.setIconOpacity(iconOpacity);
+    }
   }
 
   @Override
@@ -135,7 +156,37 @@ class SymbolController implements SymbolOptionsSink {
 
   @Override
   public void setTextOpacity(float textOpacity) {
-    symbol.setTextOpacity(textOpacity);
+    if (zoomHidden) {
+      shownTextOpacity = textOpacity;
+    } else {
+      symbol.setTextOpacity(textOpacity);
+    }
+  }
+
+  /**
+   * Hides the symbol outside of its zoom range by making it transparent, keeping the configured
+   * opacities for when it is shown again. Returns whether the symbol needs an update.
+   */
+  boolean setZoomHidden(boolean hidden) {
+    if (zoomHidden == hidden) {
+      return false;
+    }
+    zoomHidden = hidden;
+    if (hidden) {
+      shownIconOpacity = AnnotationProperties.getFloat(symbol, "icon-opacity", 1f);
+      shownTextOpacity = AnnotationProperties.getFloat(symbol, "text-opacity", 1f);
+      symbol.setIconOpacity(0f);
+      symbol.setTextOpacity(0f);
+    } else {
+      symbol.setIconOpacity(shownIconOpacity);
+      symbol.setTextOpacity(shownTextOpacity);
+    }
+    return true;
+  }
+
+  /** Returns whether the symbol is hidden because the zoom is outside of its range. */
+  boolean isZoomHidden() {
+    return zoomHidden;
   }
 
   @Override
@@ -164,8 +215,13 @@ class SymbolController implements SymbolOptionsSink {
   }
 
   @Override
-  public void setGeometry(LatLng geometry) {
-    symbol.setGeometry(Point.fromLngLat(geometry.getLongitude(), geometry.getLatitude()));
+  public void setGeometry(double latitude, double longitude) {
+    symbol.setGeometry(Point.fromLngLat(longitude, latitude));
+  }
+
+  public LatLng getGeometry() {
+    Point point = symbol.getGeometry();
+    return new LatLng(point.latitude(), point.longitude());
   }
 
   @Override
@@ -173,7 +229,12 @@ class SymbolController implements SymbolOptionsSink {
     symbol.setDraggable(draggable);
   }
 
-  public void update(SymbolManager symbolManager) {
-    symbolManager.update(symbol);
+  public void update(AnnotationStore<Symbol, SymbolOptions> symbolStore) {
+    final Tracer tracer = Tracing.begin("SymbolManager.update");
+    try {
+      symbolStore.update(symbol);
+    } finally {
+      Tracing.end(tracer);
+    }
   }
 }
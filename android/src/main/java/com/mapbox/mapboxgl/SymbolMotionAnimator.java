@@ -0,0 +1,161 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Moves symbols towards sparse position reports on the frame clock, so a vehicle reporting every
+ * few seconds moves smoothly without per frame channel calls. Moved symbols are handed to the
+ * {@link AnnotationUpdateBatch}, so all symbols that moved in a frame are written with a single
+ * update.
+ */
+class SymbolMotionAnimator implements FrameClock.FrameCallback {
+  /** Position reports further apart than this are not interpolated but jumped to. */
+  private static final long MAX_DURATION_NANOS = 30_000_000_000L;
+
+  interface OnSymbolMovedListener {
+    void onSymbolMoved(String symbolId, double lat, double lng);
+  }
+
+  private static class Motion {
+    final String symbolId;
+    final SymbolController symbol;
+    final AnnotationStore<Symbol, SymbolOptions> symbolStore;
+    double fromLat;
+    double fromLng;
+    double toLat;
+    double toLng;
+    float fromRotate;
+    float toRotate;
+    boolean rotate;
+    long startNanos;
+    long durationNanos;
+    long lastTimestampMillis = -1;
+
+    Motion(
+      String symbolId,
+      SymbolController symbol,
+      AnnotationStore<Symbol, SymbolOptions> symbolStore) {
+      this.symbolId = symbolId;
+      this.symbol = symbol;
+      this.symbolStore = symbolStore;
+    }
+  }
+
+  private final FrameClock clock;
+  private final AnnotationUpdateBatch batch;
+  private final OnSymbolMovedListener listener;
+  private final Map<String, Motion> motions = new HashMap<>();
+
+  SymbolMotionAnimator(
+    FrameClock clock, AnnotationUpdateBatch batch, OnSymbolMovedListener listener) {
+    this.clock = clock;
+    this.batch = batch;
+    this.listener = listener;
+  }
+
+  /**
+   * Starts moving the symbol from its current geometry to the target.
+   *
+   * @param durationMs duration of the move, or a negative value to derive it from the
+   *     difference between {@code timestampMs} and the timestamp of the previous report.
+   * @param iconRotate target rotation, or null to keep the rotation unless {@code alignToPath}.
+   * @return the rotation the symbol turns to, or null if it keeps its rotation.
+   */
+  Float animateTo(
+    String symbolId,
+    SymbolController symbol,
+    AnnotationStore<Symbol, SymbolOptions> symbolStore,
+    LatLng target,
+    long durationMs,
+    long timestampMs,
+    Float iconRotate,
+    boolean alignToPath) {
+    Motion motion = motions.get(symbolId);
+    if (motion == null) {
+      motion = new Motion(symbolId, symbol, symbolStore);
+      motions.put(symbolId, motion);
+    }
+    final long now = clock.nanoTime();
+    final LatLng current = symbol.getGeometry();
+    motion.fromLat = current.getLatitude();
+    motion.fromLng = current.getLongitude();
+    motion.toLat = target.getLatitude();
+    motion.toLng = target.getLongitude();
+    motion.fromRotate = symbol.getIconRotate();
+    motion.rotate = false;
+    if (iconRotate != null) {
+      motion.toRotate = iconRotate;
+      motion.rotate = true;
+    } else if (alignToPath
+      && GeoMath.distance(motion.fromLat, motion.fromLng, motion.toLat, motion.toLng) > 0.5) {
+      motion.toRotate = (float) GeoMath.bearing(
+        motion.fromLat, motion.fromLng, motion.toLat, motion.toLng);
+      motion.rotate = true;
+    }
+    if (durationMs < 0) {
+      durationMs = motion.lastTimestampMillis < 0 ? 0 : timestampMs - motion.lastTimestampMillis;
+    }
+    motion.lastTimestampMillis = timestampMs;
+    motion.startNanos = now;
+    motion.durationNanos = Math.max(0, Math.min(durationMs * 1_000_000L, MAX_DURATION_NANOS));
+    clock.addFrameCallback(this);
+    return motion.rotate ? motion.toRotate : null;
+  }
+
+  void cancel(String symbolId) {
+    motions.remove(symbolId);
+  }
+
+  void cancelAll() {
+    motions.clear();
+    clock.removeFrameCallback(this);
+  }
+
+  @Override
+  public boolean doFrame(long frameTimeNanos) {
+    boolean active = false;
+    for (Iterator<Motion> iterator = motions.values().iterator(); iterator.hasNext(); ) {
+      final Motion motion = iterator.next();
+      if (motion.startNanos < 0) {
+        continue;
+      }
+      final double t = motion.durationNanos == 0
+        ? 1
+        : Math.min(1, (double) (frameTimeNanos - motion.startNanos) / motion.durationNanos);
+      if (t < 0) {
+        active = true;
+        continue;
+      }
+      final double lat = motion.fromLat + (motion.toLat - motion.fromLat) * t;
+      final double lng = motion.fromLng + (motion.toLng - motion.fromLng) * t;
+      motion.symbol.setGeometry(lat, lng);
+      if (motion.rotate) {
+        motion.symbol.setIconRotate(interpolateAngle(motion.fromRotate, motion.toRotate, t));
+      }
+      batch.add(motion.symbol, motion.symbolStore);
+      listener.onSymbolMoved(motion.symbolId, lat, lng);
+      if (t >= 1) {
+        // Keep the entry for the timestamp of the next report, but stop animating it.
+        motion.startNanos = -1;
+      } else {
+        active = true;
+      }
+    }
+    return active;
+  }
+
+  private static float interpolateAngle(float from, float to, double t) {
+    float delta = ((to - from) % 360 + 540) % 360 - 180;
+    return (float) (from + delta * t);
+  }
+}
@@ -6,8 +6,6 @@
 
 package com.mapbox.mapboxgl;
 
-import com.mapbox.mapboxsdk.geometry.LatLng;
-
 /**
  * Receiver of Symbol configuration options.
  */
@@ -61,7 +59,7 @@ interface SymbolOptionsSink {
 
   void setTextHaloBlur(float textHaloBlur);
 
-  void setGeometry(LatLng geometry);
+  void setGeometry(double latitude, double longitude);
 
   void setZIndex(int index);
 
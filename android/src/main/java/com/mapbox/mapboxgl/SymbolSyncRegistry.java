@@ -0,0 +1,51 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which symbol and content hash belong to each caller supplied key of
+ * {@code symbols#sync}, so a sync only touches the symbols that were added, changed or dropped.
+ */
+class SymbolSyncRegistry {
+  private final Map<String, String> symbolIds = new HashMap<>();
+  private final Map<String, Object> hashes = new HashMap<>();
+  private final Map<String, String> keys = new HashMap<>();
+
+  String getSymbolId(String key) {
+    return symbolIds.get(key);
+  }
+
+  boolean hashMatches(String key, Object hash) {
+    final Object current = hashes.get(key);
+    return current != null && current.equals(hash);
+  }
+
+  void put(String key, String symbolId, Object hash) {
+    symbolIds.put(key, symbolId);
+    hashes.put(key, hash);
+    keys.put(symbolId, key);
+  }
+
+  void setHash(String key, Object hash) {
+    hashes.put(key, hash);
+  }
+
+  Set<String> keySet() {
+    return symbolIds.keySet();
+  }
+
+  /** Forgets the key of a symbol removed by other means than a sync. */
+  void forgetSymbol(String symbolId) {
+    final String key = keys.remove(symbolId);
+    if (key != null) {
+      symbolIds.remove(key);
+      hashes.remove(key);
+    }
+  }
+}
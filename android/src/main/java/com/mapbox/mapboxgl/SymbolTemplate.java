@@ -0,0 +1,270 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+
+/**
+ * Symbol options decoded once and applied to any number of symbols, so shared styles do not have
+ * to be sent and interpreted for every symbol.
+ */
+class SymbolTemplate implements SymbolOptionsSink {
+  private Float iconSize;
+  private String iconImage;
+  private Float iconRotate;
+  private float[] iconOffset;
+  private String iconAnchor;
+  private String textField;
+  private Float textSize;
+  private Float textMaxWidth;
+  private Float textLetterSpacing;
+  private String textJustify;
+  private String textAnchor;
+  private Float textRotate;
+  private String textTransform;
+  private float[] textOffset;
+  private Float iconOpacity;
+  private String iconColor;
+  private String iconHaloColor;
+  private Float iconHaloWidth;
+  private Float iconHaloBlur;
+  private Float textOpacity;
+  private String textColor;
+  private String textHaloColor;
+  private Float textHaloWidth;
+  private Float textHaloBlur;
+  private double[] geometry;
+  private Integer zIndex;
+  private Boolean draggable;
+  private ZoomRange zoomRange;
+
+  /** Returns the zoom range of the template, which the controller applies to new symbols. */
+  ZoomRange getZoomRange() {
+    return zoomRange;
+  }
+
+  void setZoomRange(ZoomRange zoomRange) {
+    this.zoomRange = zoomRange;
+  }
+
+  /** Applies every option that was set on this template to {@code sink}. */
+  void applyTo(SymbolOptionsSink sink) {
+    if (iconSize != null) {
+      sink.setIconSize(iconSize);
+    }
+    if (iconImage != null) {
+      sink.setIconImage(iconImage);
+    }
+    if (iconRotate != null) {
+      sink.setIconRotate(iconRotate);
+    }
+    if (iconOffset != null) {
+      sink.setIconOffset(iconOffset);
+    }
+    if (iconAnchor != null) {
+      sink.setIconAnchor(iconAnchor);
+    }
+    if (textField != null) {
+      sink.setTextField(textField);
+    }
+    if (textSize != null) {
+      sink.setTextSize(textSize);
+    }
+    if (textMaxWidth != null) {
+      sink.setTextMaxWidth(textMaxWidth);
+    }
+    if (textLetterSpacing != null) {
+      sink.setTextLetterSpacing(textLetterSpacing);
+    }
+    if (textJustify != null) {
+      sink.setTextJustify(textJustify);
+    }
+    if (textAnchor != null) {
+      sink.setTextAnchor(textAnchor);
+    }
+    if (textRotate != null) {
+      sink.setTextRotate(textRotate);
+    }
+    if (textTransform != null) {
+      sink.setTextTransform(textTransform);
+    }
+    if (textOffset != null) {
+      sink.setTextOffset(textOffset);
+    }
+    if (iconOpacity != null) {
+      sink.setIconOpacity(iconOpacity);
+    }
+    if (iconColor != null) {
+      sink.setIconColor(iconColor);
+    }
+    if (iconHaloColor != null) {
+      sink.setIconHaloColor(iconHaloColor);
+    }
+    if (iconHaloWidth != null) {
+      sink.setIconHaloWidth(iconHaloWidth);
+    }
+    if (iconHaloBlur != null) {
+      sink.setIconHaloBlur(iconHaloBlur);
+    }
+    if (textOpacity != null) {
+      sink.setTextOpacity(textOpacity);
+    }
+    if (textColor != null) {
+      sink.setTextColor(textColor);
+    }
+    if (textHaloColor != null) {
+      sink.setTextHaloColor(textHaloColor);
+    }
+    if (textHaloWidth != null) {
+      sink.setTextHaloWidth(textHaloWidth);
+    }
+    if (textHaloBlur != null) {
+      sink.setTextHaloBlur(textHaloBlur);
+    }
+    if (geometry != null) {
+      sink.setGeometry(geometry[0], geometry[1]);
+    }
+    if (zIndex != null) {
+      sink.setZIndex(zIndex);
+    }
+    if (draggable != null) {
+      sink.setDraggable(draggable);
+    }
+  }
+
+  @Override
+  public void setIconSize(float iconSize) {
+    this.iconSize = iconSize;
+  }
+
+  @Override
+  public void setIconImage(String iconImage) {
+    this.iconImage = iconImage;
+  }
+
+  @Override
+  public void setIconRotate(float iconRotate) {
+    this.iconRotate = iconRotate;
+  }
+
+  @Override
+  public void setIconOffset(float[] iconOffset) {
+    this.iconOffset = iconOffset;
+  }
+
+  @Override
+  public void setIconAnchor(String iconAnchor) {
+    this.iconAnchor = iconAnchor;
+  }
+
+  @Override
+  public void setTextField(String textField) {
+    this.textField = textField;
+  }
+
+  @Override
+  public void setTextSize(float textSize) {
+    this.textSize = textSize;
+  }
+
+  @Override
+  public void setTextMaxWidth(float textMaxWidth) {
+    this.textMaxWidth = textMaxWidth;
+  }
+
+  @Override
+  public void setTextLetterSpacing(float textLetterSpacing) {
+    this.textLetterSpacing = textLetterSpacing;
+  }
+
+  @Override
+  public void setTextJustify(String textJustify) {
+    this.textJustify = textJustify;
+  }
+
+  @Override
+  public void setTextAnchor(String textAnchor) {
+    this.textAnchor = textAnchor;
+  }
+
+  @Override
+  public void setTextRotate(float textRotate) {
+    this.textRotate = textRotate;
+  }
+
+  @Override
+  public void setTextTransform(String textTransform) {
+    this.textTransform = textTransform;
+  }
+
+  @Override
+  public void setTextOffset(float[] textOffset) {
+    this.textOffset = textOffset;
+  }
+
+  @Override
+  public void setIconOpacity(float iconOpacity) {
+    this.iconOpacity = iconOpacity;
+  }
+
+  @Override
+  public void setIconColor(String iconColor) {
+    this.iconColor = iconColor;
+  }
+
+  @Override
+  public void setIconHaloColor(String iconHaloColor) {
+    this.iconHaloColor = iconHaloColor;
+  }
+
+  @Override
+  public void setIconHaloWidth(float iconHaloWidth) {
+    this.iconHaloWidth = iconHaloWidth;
+  }
+
+  @Override
+  public void setIconHaloBlur(float iconHaloBlur) {
+    this.iconHaloBlur = iconHaloBlur;
+  }
+
+  @Override
+  public void setTextOpacity(float textOpacity) {
+    this.textOpacity = textOpacity;
+  }
+
+  @Override
+  public void setTextColor(String textColor) {
+    this.textColor = textColor;
+  }
+
+  @Override
+  public void setTextHaloColor(String textHaloColor) {
+    this.textHaloColor = textHaloColor;
+  }
+
+  @Override
+  public void setTextHaloWidth(float textHaloWidth) {
+    this.textHaloWidth = textHaloWidth;
+  }
+
+  @Override
+  public void setTextHaloBlur(float textHaloBlur) {
+    this.textHaloBlur = textHaloBlur;
+  }
+
+  @Override
+  public void setGeometry(double latitude, double longitude) {
+    this.geometry = new double[] {latitude, longitude};
+  }
+
+  @Override
+  public void setZIndex(int index) {
+    this.zIndex = index;
+  }
+
+  @Override
+  public void setDraggable(boolean draggable) {
+    this.draggable = draggable;
+  }
+}
@@ -0,0 +1,18 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Receiver of the nested spans the plugin opens while dispatching method calls, converting
+ * options, updating annotation managers and emitting events.
+ *
+ * <p>Sections are strictly nested and opened and closed on the same thread. Install an
+ * implementation with {@link Tracing#setTracer(Tracer)}.
+ */
+public interface Tracer {
+  void beginSection(String name);
+
+  void endSection();
+}
@@ -0,0 +1,72 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * Holder of the {@link Tracer} used by the plugin.
+ *
+ * <p>Defaults to {@link #SYSTEM}, which shows the spans in systrace and Android Studio's CPU
+ * profiler. Set {@link #NO_OP} to remove the tracing overhead or a custom tracer to collect the
+ * spans in process.
+ */
+public final class Tracing {
+  public static final Tracer NO_OP = new Tracer() {
+    @Override
+    public void beginSection(String name) {
+    }
+
+    @Override
+    public void endSection() {
+    }
+  };
+
+  public static final Tracer SYSTEM = new Tracer() {
+    @Override
+    public void beginSection(String name) {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+        // Section names longer than 127 characters are rejected by the platform.
+        Trace.beginSection(name.length() > 127 ? name.substring(0, 127) : name);
+      }
+    }
+
+    @Override
+    public void endSection() {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+        Trace.endSection();
+      }
+    }
+  };
+
+  private static volatile Tracer tracer = SYSTEM;
+
+  private Tracing() {
+  }
+
+  public static void setTracer(Tracer tracer) {
+    Tracing.tracer = tracer == null ? NO_OP : tracer;
+  }
+
+  public static Tracer getTracer() {
+    return tracer;
+  }
+
+  /**
+   * Begins a section on the current tracer and returns it. The section must be ended with
+   * {@link #end(Tracer)} on the returned tracer, so swapping the tracer while a section is open
+   * does not leave either tracer unbalanced.
+   */
+  static Tracer begin(String name) {
+    final Tracer current = tracer;
+    current.beginSection(name);
+    return current;
+  }
+
+  static void end(Tracer tracer) {
+    tracer.endSection();
+  }
+}
@@ -0,0 +1,30 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+/**
+ * Zoom levels at which an annotation is shown, from {@link #minZoom} inclusive to
+ * {@link #maxZoom} exclusive.
+ */
+final class ZoomRange {
+  double minZoom = 0;
+  double maxZoom = Double.POSITIVE_INFINITY;
+
+  boolean contains(double zoom) {
+    return zoom >= minZoom && zoom < maxZoom;
+  }
+
+  /** Returns whether the range contains every zoom level, so it does not need to be kept. */
+  boolean isUnbounded() {
+    return minZoom <= 0 && maxZoom == Double.POSITIVE_INFINITY;
+  }
+
+  ZoomRange copy() {
+    final ZoomRange copy = new ZoomRange();
+    copy.minZoom = minZoom;
+    copy.maxZoom = maxZoom;
+    return copy;
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxsdk.plugins.annotation;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Reads annotation properties that may not be set.
+ *
+ * <p>The options of annotation plugin 0.5.0 write every property that was not set as a JSON null,
+ * and the getters of the annotations throw for those. This class lives in the plugin's package
+ * because the properties of an annotation are not reachable from outside of it.
+ */
+public final class AnnotationProperties {
+
+  private AnnotationProperties() {
+  }
+
+  /**
+   * Returns a numeric property such as {@code "icon-rotate"}, or {@code defaultValue} if it is
+   * not set.
+   */
+  public static float getFloat(Annotation<?> annotation, String property, float defaultValue) {
+    final JsonElement value = annotation.jsonObject.get(property);
+    return value == null || value.isJsonNull() ? defaultValue : value.getAsFloat();
+  }
+}
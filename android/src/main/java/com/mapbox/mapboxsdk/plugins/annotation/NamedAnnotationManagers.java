@@ -0,0 +1,116 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxsdk.plugins.annotation;
+
+import com.mapbox.mapboxsdk.maps.MapView;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+import com.mapbox.mapboxsdk.maps.Style;
+import com.mapbox.mapboxsdk.style.layers.CircleLayer;
+import com.mapbox.mapboxsdk.style.layers.LineLayer;
+import com.mapbox.mapboxsdk.style.layers.SymbolLayer;
+import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
+
+/**
+ * Creates annotation managers with their own source and layer ids.
+ *
+ * <p>The managers of annotation plugin 0.5.0 always use the same fixed source and layer ids, so a
+ * style can only hold one manager per annotation type. The managers created here append
+ * {@code -<name>} to those ids. This class lives in the plugin's package because the constructor
+ * that accepts the source and layer is not reachable from outside of it.
+ */
+public final class NamedAnnotationManagers {
+
+  private NamedAnnotationManagers() {
+  }
+
+  /** Returns the id of the layer that renders the annotations of {@code manager}. */
+  public static String layerId(AnnotationManager<?, ?, ?, ?, ?, ?> manager) {
+    return manager.getAnnotationLayerId();
+  }
+
+  public static SymbolManager symbolManager(
+    MapView mapView, MapboxMap mapboxMap, Style style, String name, String belowLayerId) {
+    final String layerId = SymbolManager.ID_GEOJSON_LAYER + "-" + name;
+    final String sourceId = SymbolManager.ID_GEOJSON_SOURCE + "-" + name;
+    return new SymbolManager(
+      mapView,
+      mapboxMap,
+      style,
+      new CoreElementProvider<SymbolLayer>() {
+        @Override
+        public SymbolLayer getLayer() {
+          return new SymbolLayer(layerId, sourceId);
+        }
+
+        @Override
+        public GeoJsonSource getSource() {
+          return new GeoJsonSource(sourceId);
+        }
+      },
+      belowLayerId,
+      new DraggableAnnotationController<>(mapView, mapboxMap)) {
+      @Override
+      String getAnnotationLayerId() {
+        return layerId;
+      }
+    };
+  }
+
+  public static LineManager lineManager(
+    MapView mapView, MapboxMap mapboxMap, Style style, String name, String belowLayerId) {
+    final String layerId = LineManager.ID_GEOJSON_LAYER + "-" + name;
+    final String sourceId = LineManager.ID_GEOJSON_SOURCE + "-" + name;
+    return new LineManager(
+      mapView,
+      mapboxMap,
+      style,
+      new CoreElementProvider<LineLayer>() {
+        @Override
+        public LineLayer getLayer() {
+          return new LineLayer(layerId, sourceId);
+        }
+
+        @Override
+        public GeoJsonSource getSource() {
+          return new GeoJsonSource(sourceId);
+        }
+      },
+      belowLayerId,
+      new DraggableAnnotationController<>(mapView, mapboxMap)) {
+      @Override
+      String getAnnotationLayerId() {
+        return layerId;
+      }
+    };
+  }
+
+  public static CircleManager circleManager(
+    MapView mapView, MapboxMap mapboxMap, Style style, String name, String belowLayerId) {
+    final String layerId = CircleManager.ID_GEOJSON_LAYER + "-" + name;
+    final String sourceId = CircleManager.ID_GEOJSON_SOURCE + "-" + name;
+    return new CircleManager(
+      mapView,
+      mapboxMap,
+      style,
+      new CoreElementProvider<CircleLayer>() {
+        @Override
+        public CircleLayer getLayer() {
+          return new CircleLayer(layerId, sourceId);
+        }
+
+        @Override
+        public GeoJsonSource getSource() {
+          return new GeoJsonSource(sourceId);
+        }
+      },
+      belowLayerId,
+      new DraggableAnnotationController<>(mapView, mapboxMap)) {
+      @Override
+      String getAnnotationLayerId() {
+        return layerId;
+      }
+    };
+  }
+}
@@ -0,0 +1,162 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.Circle;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Holds the hot handlers to a budget of bytes allocated per invocation, so garbage produced
+ * during gestures and animations does not creep back.
+ *
+ * <p>Each handler runs once to warm up before it is measured. The budgets are the object sizes
+ * of a 64-bit HotSpot JVM with compressed references, the default below 32 GB of heap, and were
+ * measured on OpenJDK 8 and 17, where a boxed Double takes 24 bytes.
+ */
+public class AllocationBudgetTest {
+  private static final int ITERATIONS = 10_000;
+
+  private final RecordingAnnotationStore<Symbol, SymbolOptions> symbolStore =
+    new RecordingAnnotationStore<>();
+  private final ControllerHarness harness = new ControllerHarness();
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(Measurements.canMeasureAllocations());
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void cameraMoveOnlyBoxesTheChangedTarget() {
+    harness.call("map#update",
+      Collections.singletonMap("options", Collections.singletonMap("trackCameraPosition", true)));
+    final CameraPosition[] positions = new CameraPosition[ITERATIONS];
+    for (int i = 0; i < ITERATIONS; i++) {
+      positions[i] = new CameraPosition.Builder()
+        .target(new LatLng(52 + i * 1e-6, 4 + i * 1e-6))
+        .zoom(14)
+        .bearing(30)
+        .tilt(0)
+        .build();
+    }
+
+    final long bytes = bytesPerCall(() -> {
+      for (CameraPosition position : positions) {
+        harness.camera.position = position;
+        harness.controller.onCameraMove();
+      }
+    });
+
+    // A pan changes the two target coordinates, 2 boxed doubles of 24 bytes.
+    assertTrue("camera#onMove allocated " + bytes + " bytes", bytes <= 48);
+    assertEquals("camera#onMove", harness.lastInvokedMethod);
+    final Map<?, ?> position =
+      (Map<?, ?>) ((Map<?, ?>) harness.lastInvokedArguments).get("position");
+    assertEquals(positions[ITERATIONS - 1].target.getLatitude(),
+      (Double) ((List<?>) position.get("target")).get(0), 0);
+    assertEquals(14.0, (Double) position.get("zoom"), 0);
+  }
+
+  @Test
+  public void circleDragReusesItsPayload() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("geometry", Arrays.asList(52.0, 4.0));
+    options.put("draggable", true);
+    final Object circleId =
+      harness.call("circle#add", Collections.singletonMap("options", options));
+    final Circle circle = harness.circleStore.lastCreated;
+    harness.controller.onCircleDragStart(circle);
+
+    final long bytes = bytesPerCall(() -> {
+      for (int i = 0; i < ITERATIONS; i++) {
+        harness.controller.onCircleDrag(circle);
+      }
+    });
+
+    // The dragged circle's id is formatted once per gesture, the arguments are reused.
+    assertTrue("circle#onDrag allocated " + bytes + " bytes", bytes <= 8);
+    assertEquals("circle#onDrag", harness.lastInvokedMethod);
+    assertEquals(circleId, ((Map<?, ?>) harness.lastInvokedArguments).get("circle"));
+  }
+
+  @Test
+  public void symbolGeometryUpdate() {
+    final SymbolController symbol = symbol();
+    final List<Map<String, Object>> updates = new ArrayList<>(ITERATIONS);
+    for (int i = 0; i < ITERATIONS; i++) {
+      final Map<String, Object> options = new HashMap<>();
+      options.put("geometry", Arrays.asList(52 + i * 1e-6, 4 + i * 1e-6));
+      updates.add(options);
+    }
+
+    final long bytes = bytesPerCall(() -> {
+      for (Map<String, Object> options : updates) {
+        Convert.interpretSymbolOptions(options, symbol);
+        symbol.update(symbolStore);
+      }
+    });
+
+    // The plugin keeps the geometry as a Point of boxed coordinates, that is all that is left.
+    assertTrue("symbol#update geometry allocated " + bytes + " bytes", bytes <= 128);
+    // Warm up and measured runs.
+    assertEquals(4 * ITERATIONS, symbolStore.updateCalls);
+  }
+
+  @Test
+  public void symbolRotationUpdate() {
+    final SymbolController symbol = symbol();
+    final Map<String, Object> options = new HashMap<>();
+    options.put("iconRotate", 90.0);
+
+    final long bytes = bytesPerCall(() -> {
+      for (int i = 0; i < ITERATIONS; i++) {
+        Convert.interpretSymbolOptions(options, symbol);
+        symbol.update(symbolStore);
+      }
+    });
+
+    // The boxed Float taken by the plugin's setter and its JsonPrimitive.
+    assertTrue("symbol#update iconRotate allocated " + bytes + " bytes", bytes <= 32);
+    assertEquals(90f, symbol.getIconRotate(), 0);
+  }
+
+  private SymbolController symbol() {
+    return new SymbolController(
+      symbolStore.create(new SymbolOptions().withLatLng(new LatLng(52, 4))), false, null);
+  }
+
+  /**
+   * Runs {@code calls} once to warm up and returns the bytes allocated per iteration by the
+   * cheapest of three runs, as the JIT may still allocate while compiling the handler.
+   */
+  private static long bytesPerCall(Runnable calls) {
+    calls.run();
+    final long overhead = Measurements.allocationOverhead();
+    long bytes = Long.MAX_VALUE;
+    for (int run = 0; run < 3; run++) {
+      final long before = Measurements.allocatedBytes();
+      calls.run();
+      bytes = Math.min(bytes, Measurements.allocatedBytes() - before - overhead);
+    }
+    return bytes / ITERATIONS;
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.mapbox.mapboxgl.ControllerHarness.arguments;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sends annotation method calls through {@link MapboxMapController#onMethodCall}, from the
+ * decoded channel arguments to the annotation stores, and measures their latency when benchmarks
+ * run.
+ */
+public class AnnotationDispatchBenchmarkTest {
+  private final ControllerHarness harness = new ControllerHarness();
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void adding50kSymbols() {
+    final Measurements measurements = new Measurements();
+    for (int i = 0; i < 50_000; i++) {
+      final Map<String, Object> arguments = arguments("options", symbolOptions(i));
+      final long start = System.nanoTime();
+      final Object symbolId = harness.call("symbol#add", arguments);
+      measurements.record(System.nanoTime() - start);
+      assertEquals(String.valueOf(i), symbolId);
+    }
+    assertEquals(50_000, harness.symbolStore.createCalls);
+    if (Measurements.BENCHMARKS) {
+      measurements.report("symbol#add");
+      assertTrue(measurements.percentile(50) < 100_000L);
+      assertTrue(measurements.percentile(99) < 2_000_000L);
+    }
+  }
+
+  @Test
+  public void batchedAddWritesTheSourceOnce() {
+    harness.call("symbol#registerTemplate",
+      arguments("name", "marker", "options", symbolOptions(0)));
+    final double[] geometries = new double[2 * 50_000];
+    for (int i = 0; i < 50_000; i++) {
+      geometries[2 * i] = (i % 1000) * 1e-3;
+      geometries[2 * i + 1] = (i / 1000) * 1e-3;
+    }
+    final List<?> symbolIds = (List<?>) harness.call("symbol#addFromTemplate",
+      arguments("name", "marker", "geometries", geometries));
+    assertEquals(50_000, symbolIds.size());
+    assertEquals(1, harness.symbolStore.createCalls);
+    assertEquals(50_000, harness.symbolStore.featuresWritten);
+  }
+
+  @Test
+  public void symbolUpdatesAt60Hz() {
+    final List<Object> symbolIds = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      symbolIds.add(harness.call("symbol#add", arguments("options", symbolOptions(i))));
+    }
+    final Measurements measurements = new Measurements();
+    for (int frame = 0; frame < 600; frame++) {
+      final long start = System.nanoTime();
+      for (int i = 0; i < symbolIds.size(); i++) {
+        final Map<String, Object> options = new HashMap<>();
+        options.put("geometry", Arrays.asList(i * 1e-4, frame * 1e-4));
+        options.put("iconRotate", (double) frame);
+        harness.call("symbol#update", arguments("symbol", symbolIds.get(i), "options", options));
+      }
+      if (frame >= 60) {
+        measurements.record(System.nanoTime() - start);
+      }
+    }
+    assertEquals(500 * 600, harness.symbolStore.updateCalls);
+    if (Measurements.BENCHMARKS) {
+      measurements.report("500 x symbol#update per frame");
+      assertTrue(measurements.percentile(99) < 16_000_000L);
+    }
+  }
+
+  @Test
+  public void circleDragStorm() {
+    final Object circleId = harness.call("circle#add", arguments("options", circleOptions(0, 0)));
+    final Measurements measurements = new Measurements();
+    for (int i = 0; i < 20_000; i++) {
+      final Map<String, Object> arguments =
+        arguments("circle", circleId, "options", circleOptions(i * 1e-5, i * 1e-5));
+      final long start = System.nanoTime();
+      harness.call("circle#update", arguments);
+      measurements.record(System.nanoTime() - start);
+    }
+    assertEquals(20_000, harness.circleStore.updateCalls);
+    if (Measurements.BENCHMARKS) {
+      measurements.report("circle#update");
+      assertTrue(measurements.percentile(99) < 1_000_000L);
+    }
+  }
+
+  static Map<String, Object> symbolOptions(int i) {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("geometry", Arrays.asList((i % 1000) * 1e-3, (i / 1000) * 1e-3));
+    options.put("iconImage", "marker-" + (i % 8));
+    options.put("iconSize", 1.5);
+    options.put("textField", "#" + i);
+    options.put("draggable", false);
+    return options;
+  }
+
+  static Map<String, Object> circleOptions(double lat, double lng) {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("geometry", Arrays.asList(lat, lng));
+    return options;
+  }
+}
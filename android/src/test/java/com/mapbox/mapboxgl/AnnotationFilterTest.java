@@ -0,0 +1,65 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnnotationFilterTest {
+  private static final List<String> ALL_IDS = Arrays.asList("1", "2", "g:3", "g:4");
+
+  @Test
+  public void selectsTheGivenIds() {
+    final AnnotationFilter filter = new AnnotationFilter();
+    filter.ids = new HashSet<>(Arrays.asList("1", "g:3"));
+    assertEquals(Arrays.asList("1", "g:3"), select(filter));
+  }
+
+  @Test
+  public void invertedIdsSelectAllOtherAnnotations() {
+    final AnnotationFilter filter = new AnnotationFilter();
+    filter.ids = new HashSet<>(Arrays.asList("1", "g:3"));
+    filter.invert = true;
+    assertEquals(Arrays.asList("2", "g:4"), select(filter));
+  }
+
+  @Test
+  public void invertedGroupSelectsAnnotationsOutsideOfIt() {
+    final AnnotationFilter filter = new AnnotationFilter();
+    filter.group = "g";
+    filter.invert = true;
+    assertEquals(Arrays.asList("1", "2"), select(filter));
+  }
+
+  @Test
+  public void boundsTestTheGeometry() {
+    final AnnotationFilter filter = new AnnotationFilter();
+    filter.bounds = new GeoBounds();
+    filter.bounds.include(0, 0);
+    filter.bounds.include(10, 10);
+    assertTrue(filter.matches("1", null, 5, 5));
+    assertFalse(filter.matches("1", null, 5, 20));
+  }
+
+  private static List<String> select(AnnotationFilter filter) {
+    final List<String> selected = new ArrayList<>();
+    for (String id : filter.candidates(ALL_IDS)) {
+      if (filter.matches(id, null, 0, 0)) {
+        selected.add(id);
+      }
+    }
+    Collections.sort(selected);
+    return selected;
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Point;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AnnotationUpdateBatchTest {
+  private final RecordingAnnotationStore<Symbol, SymbolOptions> store =
+    new RecordingAnnotationStore<>();
+  private final RecordingAnnotationStore<Symbol, SymbolOptions> groupStore =
+    new RecordingAnnotationStore<>();
+  private final AnnotationUpdateBatch batch = new AnnotationUpdateBatch();
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void writesAnAnnotationOncePerFlush() {
+    final SymbolController symbol = symbol(store);
+    batch.add(symbol, store);
+    batch.add(symbol, store);
+    batch.run();
+    assertEquals(1, store.updateCalls);
+    assertEquals(1, store.annotationsUpdated);
+  }
+
+  @Test
+  public void writesOneUpdatePerStore() {
+    for (int i = 0; i < 10; i++) {
+      batch.add(symbol(store), store);
+      batch.add(symbol(groupStore), groupStore);
+    }
+    batch.run();
+    assertEquals(1, store.updateCalls);
+    assertEquals(10, store.annotationsUpdated);
+    assertEquals(1, groupStore.updateCalls);
+    assertEquals(10, groupStore.annotationsUpdated);
+  }
+
+  @Test
+  public void emptyFlushWritesNothing() {
+    batch.add(symbol(store), store);
+    batch.run();
+    batch.run();
+    assertEquals(1, store.updateCalls);
+  }
+
+  static SymbolController symbol(RecordingAnnotationStore<Symbol, SymbolOptions> store) {
+    return new SymbolController(
+      store.create(new SymbolOptions().withGeometry(Point.fromLngLat(0, 0))), true, null);
+  }
+}
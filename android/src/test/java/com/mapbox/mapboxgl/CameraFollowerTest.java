@@ -0,0 +1,64 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class CameraFollowerTest {
+  private final RecordingMapCamera camera = new RecordingMapCamera();
+
+  @Test
+  public void jumpsToTheAnnotationWithoutSmoothing() {
+    final CameraFollower follower = new CameraFollower(camera, "symbol", "1", 0, 0, false, null);
+    follower.onGeometryChanged(new LatLng(1, 2));
+    assertEquals(Arrays.asList("move"), camera.calls);
+    assertEquals(
+      CameraUpdateFactory.newCameraPosition(
+        new CameraPosition.Builder(camera.position).target(new LatLng(1, 2)).build()),
+      camera.updates.get(0));
+  }
+
+  @Test
+  public void easesLinearlyWithSmoothing() {
+    final CameraFollower follower = new CameraFollower(camera, "symbol", "1", 300, 0, false, 14.0);
+    follower.onGeometryChanged(new LatLng(1, 2));
+    assertEquals(Arrays.asList("linear 300"), camera.calls);
+    assertEquals(
+      CameraUpdateFactory.newCameraPosition(
+        new CameraPosition.Builder(camera.position).target(new LatLng(1, 2)).zoom(14).build()),
+      camera.updates.get(0));
+  }
+
+  @Test
+  public void alignsTheBearingAndLooksAhead() {
+    final CameraFollower follower = new CameraFollower(camera, "circle", "1", 0, 100, true, null);
+    follower.onGeometryChanged(new LatLng(0, 0));
+    follower.onGeometryChanged(new LatLng(0, 0.01));
+    final double[] ahead = new double[2];
+    GeoMath.destination(0, 0.01, 90, 100, ahead);
+    assertEquals(
+      CameraUpdateFactory.newCameraPosition(new CameraPosition.Builder(camera.position)
+        .target(new LatLng(ahead[0], ahead[1]))
+        .bearing(90)
+        .build()),
+      camera.updates.get(1));
+  }
+
+  @Test
+  public void ignoresUnchangedGeometries() {
+    final CameraFollower follower = new CameraFollower(camera, "symbol", "1", 0, 0, false, null);
+    follower.onGeometryChanged(new LatLng(1, 2));
+    follower.onGeometryChanged(new LatLng(1, 2));
+    assertEquals(1, camera.calls.size());
+  }
+}
@@ -0,0 +1,100 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CameraTimelineTest {
+  private final RecordingMapCamera camera = new RecordingMapCamera();
+  private final List<String> events = new ArrayList<>();
+  private final OnCameraTimelineListener listener = new OnCameraTimelineListener() {
+    @Override
+    public void onCameraTimelineProgress(int id, int index, int count) {
+      events.add("progress " + index + "/" + count);
+    }
+
+    @Override
+    public void onCameraTimelineFinished(int id, boolean cancelled) {
+      events.add(cancelled ? "cancelled" : "finished");
+    }
+  };
+
+  @Test
+  public void playsKeyframesOneAfterAnother() {
+    final CameraTimeline timeline = new CameraTimeline(1, camera,
+      Arrays.asList(keyframe(0, "jump"), keyframe(1000, "fly"), keyframe(500, "linear")),
+      listener);
+    timeline.start();
+    assertEquals(Arrays.asList("move", "fly 1000"), camera.calls);
+    camera.finishTransition();
+    assertEquals(Arrays.asList("move", "fly 1000", "linear 500"), camera.calls);
+    camera.finishTransition();
+    assertEquals(Arrays.asList("progress 0/3", "progress 1/3", "progress 2/3", "finished"), events);
+  }
+
+  @Test
+  public void anInterruptingTransitionCancelsTheTimeline() {
+    final CameraTimeline timeline =
+      new CameraTimeline(1, camera, Arrays.asList(keyframe(1000, "ease")), listener);
+    timeline.start();
+    camera.moveCamera(null, null);
+    assertEquals(Arrays.asList("cancelled"), events);
+  }
+
+  @Test
+  public void cancelReportsTheTimelineCancelledOnce() {
+    final CameraTimeline timeline =
+      new CameraTimeline(1, camera, Arrays.asList(keyframe(1000, "ease")), listener);
+    timeline.start();
+    timeline.cancel();
+    assertEquals(Arrays.asList("ease 1000", "cancel"), camera.calls);
+    assertEquals(Arrays.asList("cancelled"), events);
+  }
+
+  @Test
+  public void restoresThePaddingWhenFinished() {
+    camera.setPadding(1, 2, 3, 4);
+    final CameraTimeline.Keyframe padded = keyframe(1000, "ease");
+    padded.padding = new int[] {10, 20, 30, 40};
+    final CameraTimeline timeline =
+      new CameraTimeline(1, camera, Arrays.asList(padded, keyframe(0, "jump")), listener);
+    timeline.start();
+    camera.finishTransition();
+    assertEquals(Arrays.asList(
+      "padding 1,2,3,4", "padding 10,20,30,40", "ease 1000", "move", "padding 1,2,3,4"),
+      camera.calls);
+    assertArrayEquals(new int[] {1, 2, 3, 4}, camera.getPadding());
+  }
+
+  @Test
+  public void restoresThePaddingWhenCancelled() {
+    final CameraTimeline.Keyframe padded = keyframe(1000, "ease");
+    padded.padding = new int[] {10, 20, 30, 40};
+    final CameraTimeline timeline =
+      new CameraTimeline(1, camera, Arrays.asList(padded), listener);
+    timeline.start();
+    timeline.cancel();
+    assertArrayEquals(new int[] {0, 0, 0, 0}, camera.getPadding());
+    assertEquals(Arrays.asList("cancelled"), events);
+  }
+
+  private static CameraTimeline.Keyframe keyframe(int durationMs, String easing) {
+    final CameraTimeline.Keyframe keyframe = new CameraTimeline.Keyframe();
+    keyframe.target = new LatLng(1, 2);
+    keyframe.zoom = 12.0;
+    keyframe.durationMs = durationMs;
+    keyframe.easing = easing;
+    return keyframe;
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.Circle;
+import com.mapbox.mapboxsdk.plugins.annotation.CircleOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Line;
+import com.mapbox.mapboxsdk.plugins.annotation.LineOptions;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * {@link MapboxMapController} on recording annotation stores, camera and frame clock, driven with
+ * method calls the way the Dart side drives it.
+ */
+class ControllerHarness implements MethodInvoker {
+  final RecordingAnnotationStore<Symbol, SymbolOptions> symbolStore =
+    new RecordingAnnotationStore<>();
+  final RecordingAnnotationStore<Line, LineOptions> lineStore = new RecordingAnnotationStore<>();
+  final RecordingAnnotationStore<Circle, CircleOptions> circleStore =
+    new RecordingAnnotationStore<>();
+  final RecordingMapCamera camera = new RecordingMapCamera();
+  final ManualFrameClock frameClock = new ManualFrameClock();
+  final MapboxMapController controller = new MapboxMapController(
+    symbolStore, lineStore, circleStore, camera, frameClock, this);
+  /** Method calls made to the Dart side. */
+  int invocations = 0;
+  String lastInvokedMethod = null;
+  Object lastInvokedArguments = null;
+
+  /** Sends a method call to the controller and returns its result, failing on an error. */
+  Object call(String method, Object arguments) {
+    final CapturingResult result = new CapturingResult();
+    controller.onMethodCall(new MethodCall(method, arguments), result);
+    if (result.errorCode != null) {
+      throw new AssertionError(method + " failed: " + result.errorCode + " " + result.errorMessage);
+    }
+    if (result.notImplemented) {
+      throw new AssertionError(method + " is not implemented");
+    }
+    return result.value;
+  }
+
+  /** Returns the arguments of a method call from alternating keys and values. */
+  static Map<String, Object> arguments(Object... keysAndValues) {
+    final Map<String, Object> arguments = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      arguments.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return arguments;
+  }
+
+  @Override
+  public void invokeMethod(String method, Object arguments) {
+    invocations++;
+    lastInvokedMethod = method;
+    lastInvokedArguments = arguments;
+  }
+
+  /** {@link MethodChannel.Result} that keeps what it was given. */
+  static class CapturingResult implements MethodChannel.Result {
+    Object value = null;
+    String errorCode = null;
+    String errorMessage = null;
+    boolean notImplemented = false;
+
+    @Override
+    public void success(Object result) {
+      value = result;
+    }
+
+    @Override
+    public void error(String errorCode, String errorMessage, Object errorDetails) {
+      this.errorCode = errorCode;
+      this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public void notImplemented() {
+      notImplemented = true;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GeoBoundsTest {
+
+  @Test
+  public void includesPointsTheShortWay() {
+    final GeoBounds bounds = new GeoBounds();
+    bounds.include(52, 4);
+    bounds.include(48, 2);
+    bounds.include(40, -4);
+    assertBounds(40, -4, 52, 4, bounds);
+  }
+
+  @Test
+  public void fitsATransPacificTrackAcrossTheAntimeridian() {
+    // Tokyo, a stop on Midway and San Francisco.
+    final GeoBounds bounds = new GeoBounds();
+    bounds.include(35.68, 139.77);
+    bounds.include(28.21, -177.38);
+    bounds.include(37.77, -122.42);
+    assertBounds(28.21, 139.77, 37.77, 237.58, bounds);
+    assertTrue(bounds.contains(30, 180));
+    assertTrue(bounds.contains(30, -170));
+    assertFalse(bounds.contains(30, 0));
+    assertEquals(237.58, bounds.toLatLngBounds().getLonEast(), 1e-9);
+  }
+
+  @Test
+  public void keepsUnwrappedLongitudes() {
+    // A geodesic line continues past 180 degrees instead of jumping to -180.
+    final GeoBounds bounds = new GeoBounds();
+    bounds.include(35.68, 139.77);
+    bounds.include(37.77, 237.58);
+    assertBounds(35.68, 139.77, 37.77, 237.58, bounds);
+
+    final GeoBounds wrapped = new GeoBounds();
+    wrapped.include(35.68, -220.23);
+    wrapped.include(37.77, -122.42);
+    assertBounds(35.68, 139.77, 37.77, 237.58, wrapped);
+  }
+
+  @Test
+  public void mergesBoxesAcrossTheAntimeridian() {
+    final GeoBounds asia = new GeoBounds();
+    asia.set(20, 120, 45, 150);
+    final GeoBounds america = new GeoBounds();
+    america.set(30, -125, 50, -115);
+    asia.include(america);
+    assertBounds(20, 120, 50, 245, asia);
+  }
+
+  @Test
+  public void setsBoxesCrossingTheAntimeridian() {
+    final GeoBounds bounds = new GeoBounds();
+    bounds.set(-10, 170, 10, -170);
+    assertBounds(-10, 170, 10, 190, bounds);
+    assertTrue(bounds.contains(0, 179));
+    assertTrue(bounds.contains(0, -179));
+    assertFalse(bounds.contains(0, 0));
+  }
+
+  @Test
+  public void coversTheWorldWhenWiderThanIt() {
+    final GeoBounds bounds = new GeoBounds();
+    bounds.set(-10, -300, 10, 300);
+    assertBounds(-10, -180, 10, 180, bounds);
+    assertTrue(bounds.contains(0, 179.9));
+  }
+
+  private static void assertBounds(
+    double south, double west, double north, double east, GeoBounds bounds) {
+    assertEquals(south, bounds.south, 1e-9);
+    assertEquals(west, bounds.west, 1e-9);
+    assertEquals(north, bounds.north, 1e-9);
+    assertEquals(east, bounds.east, 1e-9);
+  }
+}
@@ -0,0 +1,132 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.Fill;
+import com.mapbox.mapboxsdk.plugins.annotation.FillOptions;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GeoCircleStoreTest {
+  private final RecordingAnnotationStore<Fill, FillOptions> fills =
+    new RecordingAnnotationStore<>();
+  private final GeoCircleStore store = new GeoCircleStore(fills);
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void addsAClosedRingAroundTheCenter() {
+    final String circleId = store.add(options(52, 4, 1000), 12);
+    final Fill fill = fills.lastCreated;
+    assertEquals(String.valueOf(fill.getId()), circleId);
+    final List<LatLng> ring = ring(fill);
+    assertTrue(ring.size() > 16);
+    assertEquals(ring.get(0), ring.get(ring.size() - 1));
+    for (LatLng point : ring) {
+      assertEquals(1000, GeoMath.distance(52, 4, point.getLatitude(), point.getLongitude()), 1);
+    }
+  }
+
+  @Test
+  public void addsMoreVerticesWhenTheCircleIsLargerOnScreen() {
+    store.add(options(52, 4, 1000), 8);
+    final int far = ring(fills.lastCreated).size();
+    store.add(options(52, 4, 1000), 16);
+    final int near = ring(fills.lastCreated).size();
+    assertTrue(far + " < " + near, far < near);
+  }
+
+  @Test
+  public void retessellatesChangedCirclesInOneUpdate() {
+    store.add(options(52, 4, 1000), 8);
+    final Fill small = fills.lastCreated;
+    store.add(options(52, 4, 1), 8);
+    final int smallVertices = ring(small).size();
+
+    store.onZoomChanged(16);
+
+    assertEquals(1, fills.updateCalls);
+    assertEquals(Collections.singletonList(small), fills.lastUpdate);
+    assertTrue(ring(small).size() > smallVertices);
+  }
+
+  @Test
+  public void keepsRingsAcrossTheAntimeridianContiguous() {
+    store.add(options(0, 179.99, 10_000), 8);
+    final List<LatLng> ring = ring(fills.lastCreated);
+    for (int i = 1; i < ring.size(); i++) {
+      assertTrue(Math.abs(ring.get(i).getLongitude() - ring.get(i - 1).getLongitude()) < 1);
+    }
+  }
+
+  @Test
+  public void updatesTheCenterAndRadius() {
+    final String circleId = store.add(options(52, 4, 1000), 12);
+    final Fill fill = fills.lastCreated;
+
+    store.update(circleId, options(48, 2, 500), 12);
+
+    assertEquals(1, fills.updateCalls);
+    final LatLng point = ring(fill).get(0);
+    assertEquals(500, GeoMath.distance(48, 2, point.getLatitude(), point.getLongitude()), 1);
+  }
+
+  @Test
+  public void addsAndUpdatesColorsAlike() {
+    final Map<String, Object> colors = new HashMap<>();
+    colors.put("fillColor", "#3bb2d0");
+    colors.put("fillOutlineColor", "#ff0000");
+    final Map<String, Object> added = options(52, 4, 1000);
+    added.putAll(colors);
+    store.add(added, 12);
+    final Fill addedFill = fills.lastCreated;
+    final String updatedId = store.add(options(52, 4, 1000), 12);
+    final Fill updatedFill = fills.lastCreated;
+
+    store.update(updatedId, colors, 12);
+
+    assertEquals(addedFill.getFillColor(), updatedFill.getFillColor());
+    assertEquals(addedFill.getFillOutlineColor(), updatedFill.getFillOutlineColor());
+  }
+
+  @Test
+  public void removesCircles() {
+    final String circleId = store.add(options(52, 4, 1000), 12);
+    store.remove(circleId);
+    assertEquals(0, fills.size());
+    try {
+      store.update(circleId, options(48, 2, 500), 12);
+      fail("Updated a removed circle");
+    } catch (IllegalArgumentException expected) {
+      // Unknown geo circle.
+    }
+  }
+
+  private static Map<String, Object> options(double lat, double lng, double radiusMeters) {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("center", Arrays.asList(lat, lng));
+    options.put("radius", radiusMeters);
+    return options;
+  }
+
+  private static List<LatLng> ring(Fill fill) {
+    return fill.getLatLngs().get(0);
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GeoMathTest {
+
+  @Test
+  public void distanceOfOneDegreeAlongTheEquator() {
+    assertEquals(111195, GeoMath.distance(0, 0, 0, 1), 1);
+    assertEquals(111195, GeoMath.distance(0, 179.5, 0, -179.5), 1);
+  }
+
+  @Test
+  public void bearingsOfTheCardinalDirections() {
+    assertEquals(0, GeoMath.bearing(0, 0, 1, 0), 1e-9);
+    assertEquals(90, GeoMath.bearing(0, 0, 0, 1), 1e-9);
+    assertEquals(180, GeoMath.bearing(0, 0, -1, 0), 1e-9);
+    assertEquals(270, GeoMath.bearing(0, 0, 0, -1), 1e-9);
+  }
+
+  @Test
+  public void destinationIsTheInverseOfDistanceAndBearing() {
+    final double[] out = new double[2];
+    GeoMath.destination(52.5, 13.4, 37, 25_000, out);
+    assertEquals(25_000, GeoMath.distance(52.5, 13.4, out[0], out[1]), 1e-6);
+    assertEquals(37, GeoMath.bearing(52.5, 13.4, out[0], out[1]), 1e-6);
+  }
+
+  @Test
+  public void destinationWrapsAcrossTheAntimeridian() {
+    final double[] out = new double[2];
+    GeoMath.destination(0, 179.9, 90, 50_000, out);
+    assertTrue(out[1] < -179);
+  }
+
+  @Test
+  public void densifyLimitsTheStepLength() {
+    final double[] dense = GeoMath.densify(new double[] {0, 0, 0, 10}, 100_000);
+    assertEquals(0, dense[0], 0);
+    assertEquals(10, dense[dense.length - 1], 1e-9);
+    for (int i = 2; i < dense.length; i += 2) {
+      assertTrue(GeoMath.distance(dense[i - 2], dense[i - 1], dense[i], dense[i + 1]) <= 100_000);
+    }
+  }
+
+  @Test
+  public void densifyUnwrapsLongitudesAcrossTheAntimeridian() {
+    final double[] dense = GeoMath.densify(new double[] {10, 170, 20, -170}, 50_000);
+    assertEquals(170, dense[1], 0);
+    assertEquals(190, dense[dense.length - 1], 1e-9);
+    for (int i = 3; i < dense.length; i += 2) {
+      assertTrue(dense[i] > dense[i - 2]);
+      assertTrue(dense[i] - dense[i - 2] < 1);
+    }
+    for (int i = 2; i < dense.length; i += 2) {
+      assertTrue(GeoMath.distance(dense[i - 2], dense[i - 1], dense[i], dense[i + 1]) <= 50_000);
+    }
+  }
+
+  @Test
+  public void densifyUnwrapsWestwardAcrossTheAntimeridian() {
+    final double[] dense = GeoMath.densify(new double[] {0, -175, 0, 175, 0, 160}, 100_000);
+    assertEquals(-175, dense[1], 0);
+    assertEquals(-200, dense[dense.length - 1], 1e-9);
+    for (int i = 3; i < dense.length; i += 2) {
+      assertTrue(dense[i] < dense[i - 2]);
+    }
+  }
+
+  @Test
+  public void densifyKeepsShortLines() {
+    final double[] coordinates = {0, 0, 0.001, 0.001};
+    assertEquals(4, GeoMath.densify(coordinates, 1000).length);
+  }
+}
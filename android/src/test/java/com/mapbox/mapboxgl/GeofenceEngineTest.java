@@ -0,0 +1,157 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GeofenceEngineTest {
+  /** Degrees of latitude per meter. */
+  private static final double DEGREES_PER_METER =
+    1 / (Math.toRadians(1) * GeoMath.EARTH_RADIUS_METERS);
+
+  private final GeofenceEngine engine = new GeofenceEngine();
+  private final List<GeofenceEngine.Transition> out = new ArrayList<>();
+
+  @Test
+  public void entersAndExitsACircle() {
+    engine.setHysteresisMeters(0);
+    loadCircle("home", 52, 4, 100);
+    assertTransitions(fix(52 - 200 * DEGREES_PER_METER, 4, 0));
+    assertTransitions(fix(52, 4, 1000), "home", GeofenceEngine.ENTER);
+    assertTransitions(fix(52 + 50 * DEGREES_PER_METER, 4, 2000));
+    assertTransitions(fix(52 + 150 * DEGREES_PER_METER, 4, 3000), "home", GeofenceEngine.EXIT);
+  }
+
+  @Test
+  public void hysteresisIgnoresJitterAlongTheBoundary() {
+    engine.setHysteresisMeters(20);
+    loadCircle("home", 52, 4, 100);
+    assertTransitions(fix(52 + 95 * DEGREES_PER_METER, 4, 0), "home", GeofenceEngine.ENTER);
+    for (int i = 1; i < 10; i++) {
+      final double meters = i % 2 == 0 ? 95 : 110;
+      assertTransitions(fix(52 + meters * DEGREES_PER_METER, 4, i * 1000));
+    }
+    assertTransitions(fix(52 + 125 * DEGREES_PER_METER, 4, 10_000), "home", GeofenceEngine.EXIT);
+  }
+
+  @Test
+  public void reportsDwellOncePerVisit() {
+    engine.setDwellMillis(5000);
+    loadCircle("home", 52, 4, 100);
+    assertTransitions(fix(52, 4, 0), "home", GeofenceEngine.ENTER);
+    assertTransitions(fix(52, 4, 4999));
+    assertTransitions(fix(52, 4, 5000), "home", GeofenceEngine.DWELL);
+    assertTransitions(fix(52, 4, 10_000));
+    assertTransitions(fix(53, 4, 11_000), "home", GeofenceEngine.EXIT);
+    assertTransitions(fix(52, 4, 12_000), "home", GeofenceEngine.ENTER);
+    assertTransitions(fix(52, 4, 17_000), "home", GeofenceEngine.DWELL);
+  }
+
+  @Test
+  public void testsPolygonsByTheirOutline() {
+    engine.setHysteresisMeters(0);
+    // An L shape, whose box contains the notch at its north east.
+    engine.load(null, null, Collections.singletonList("yard"), new int[] {0}, new double[] {
+      0, 0, 0, 0.02, 0.01, 0.02, 0.01, 0.01, 0.02, 0.01, 0.02, 0});
+    assertTransitions(fix(0.015, 0.015, 0));
+    assertTransitions(fix(0.015, 0.005, 1000), "yard", GeofenceEngine.ENTER);
+    assertTransitions(fix(0.005, 0.015, 2000));
+    assertTransitions(fix(0.015, 0.015, 3000), "yard", GeofenceEngine.EXIT);
+  }
+
+  @Test
+  public void findsFencesTooLargeForTheGrid() {
+    engine.load(
+      Arrays.asList("small", "country"),
+      new double[] {52, 4, 10, 52, 4, 500_000},
+      null,
+      null,
+      null);
+    assertTransitions(fix(54, 6, 0), "country", GeofenceEngine.ENTER);
+  }
+
+  @Test
+  public void rejectsMalformedFences() {
+    try {
+      engine.load(Collections.singletonList("home"), new double[] {52, 4}, null, null, null);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("Expected 3 values per circle geofence", expected.getMessage());
+    }
+    try {
+      engine.load(null, null, Collections.singletonList("yard"), new int[] {0},
+        new double[] {0, 0, 0, 1});
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("Polygon geofence yard needs at least 3 vertices", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void evaluatesFixesAgainst10kFences() {
+    final int fenceCount = 10_000;
+    final Random random = new Random(42);
+    final List<String> ids = new ArrayList<>(fenceCount);
+    final double[] circles = new double[fenceCount * 3];
+    // Fences of 50 to 250 meters scattered over a city of about 50 by 50 kilometers.
+    for (int i = 0; i < fenceCount; i++) {
+      ids.add("fence-" + i);
+      circles[i * 3] = 52.1 + random.nextDouble() * 0.45;
+      circles[i * 3 + 1] = 4.6 + random.nextDouble() * 0.75;
+      circles[i * 3 + 2] = 50 + random.nextDouble() * 200;
+    }
+    engine.load(ids, circles, null, null, null);
+    final double[] track = PolylineSimplifierTest.track(100_000);
+    int transitions = 0;
+    final Measurements measurements = new Measurements();
+    for (int run = 0; run < 5; run++) {
+      final long start = System.nanoTime();
+      for (int i = 0; i < track.length; i += 2) {
+        engine.evaluate(track[i], track[i + 1], i * 500L, out);
+        transitions += out.size();
+        out.clear();
+      }
+      if (run > 0) {
+        measurements.record(System.nanoTime() - start);
+      }
+    }
+    assertTrue(transitions > 0);
+    if (Measurements.BENCHMARKS) {
+      final long pointsPerSecond = 100_000L * 1_000_000_000L / measurements.percentile(50);
+      Measurements.report("geofence 10k fences", pointsPerSecond + " points/s");
+      assertTrue(pointsPerSecond > 100_000);
+    }
+  }
+
+  private void loadCircle(String id, double lat, double lng, double radiusMeters) {
+    engine.load(Collections.singletonList(id), new double[] {lat, lng, radiusMeters}, null, null,
+      null);
+  }
+
+  private List<GeofenceEngine.Transition> fix(double lat, double lng, long timeMillis) {
+    out.clear();
+    engine.evaluate(lat, lng, timeMillis, out);
+    return out;
+  }
+
+  private static void assertTransitions(
+    List<GeofenceEngine.Transition> transitions, Object... expected) {
+    assertEquals(expected.length / 2, transitions.size());
+    for (int i = 0; i < transitions.size(); i++) {
+      assertEquals(expected[2 * i], transitions.get(i).fenceId);
+      assertEquals(expected[2 * i + 1], transitions.get(i).type);
+    }
+  }
+}
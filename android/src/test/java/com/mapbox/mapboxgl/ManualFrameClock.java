@@ -0,0 +1,63 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** {@link FrameClock} whose frames are run by the test. */
+class ManualFrameClock implements FrameClock {
+  static final long FRAME_NANOS = 16_666_667L;
+
+  private final List<FrameCallback> callbacks = new ArrayList<>();
+  private final List<FrameCallback> running = new ArrayList<>();
+  private Runnable onFrameEndListener;
+  private long nanoTime = 1_000_000_000L;
+
+  @Override
+  public void addFrameCallback(FrameCallback callback) {
+    if (!callbacks.contains(callback)) {
+      callbacks.add(callback);
+    }
+  }
+
+  @Override
+  public void removeFrameCallback(FrameCallback callback) {
+    callbacks.remove(callback);
+  }
+
+  @Override
+  public void setOnFrameEndListener(Runnable listener) {
+    this.onFrameEndListener = listener;
+  }
+
+  @Override
+  public long nanoTime() {
+    return nanoTime;
+  }
+
+  boolean hasCallbacks() {
+    return !callbacks.isEmpty();
+  }
+
+  /** Advances the clock by one 60 Hz frame and runs the frame. */
+  void frame() {
+    frame(FRAME_NANOS);
+  }
+
+  void frame(long intervalNanos) {
+    nanoTime += intervalNanos;
+    running.addAll(callbacks);
+    for (FrameCallback callback : running) {
+      if (!callback.doFrame(nanoTime)) {
+        callbacks.remove(callback);
+      }
+    }
+    running.clear();
+    if (onFrameEndListener != null) {
+      onFrameEndListener.run();
+    }
+  }
+}
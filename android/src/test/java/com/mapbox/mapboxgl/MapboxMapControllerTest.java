@@ -0,0 +1,69 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.flutter.plugin.common.MethodCall;
+
+import static com.mapbox.mapboxgl.AnnotationDispatchBenchmarkTest.circleOptions;
+import static com.mapbox.mapboxgl.ControllerHarness.arguments;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/** Method calls handled by {@link MapboxMapController}, sent through {@link ControllerHarness}. */
+public class MapboxMapControllerTest {
+  private final ControllerHarness harness = new ControllerHarness();
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void fitsAnnotationsWithoutOptionalArguments() {
+    final Object first = harness.call("circle#add", arguments("options", circleOptions(52, 4)));
+    final Object second = harness.call("circle#add", arguments("options", circleOptions(53, 5)));
+
+    assertEquals(true,
+      harness.call("camera#fitAnnotations", arguments("circles", Arrays.asList(first, second))));
+    assertEquals(Collections.singletonList("move"), harness.camera.calls);
+  }
+
+  @Test
+  public void fitsNothingWithoutAnnotations() {
+    assertEquals(false, harness.call("camera#fitAnnotations", arguments()));
+    assertEquals(Collections.emptyList(), harness.camera.calls);
+  }
+
+  @Test
+  public void reportsGeoCirclesWithoutAStyle() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("center", Arrays.asList(52.0, 4.0));
+    options.put("radius", 1000.0);
+    final ControllerHarness.CapturingResult result = new ControllerHarness.CapturingResult();
+
+    harness.controller.onMethodCall(
+      new MethodCall("geoCircle#add", arguments("options", options)), result);
+
+    assertEquals("StyleNotLoaded", result.errorCode);
+    assertNull(harness.call("geoCircle#remove", arguments("geoCircle", "0")));
+  }
+
+  @Test
+  public void easesToFittedAnnotations() {
+    final Object circleId = harness.call("circle#add", arguments("options", circleOptions(52, 4)));
+
+    harness.call("camera#fitAnnotations",
+      arguments("circles", Collections.singletonList(circleId), "durationMs", 500));
+    assertEquals(Collections.singletonList("ease 500"), harness.camera.calls);
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Latency samples with percentiles, the bytes allocated by the calling thread and the peak heap
+ * usage of the JVM.
+ */
+final class Measurements {
+  /**
+   * Whether timing benchmarks run and report, they are opt-in with
+   * {@code ./gradlew test -Pbenchmarks} as wall clock times depend on the machine.
+   */
+  static final boolean BENCHMARKS = Boolean.getBoolean("mapboxgl.benchmarks");
+
+  private long[] samples = new long[1024];
+  private int count = 0;
+
+  void record(long nanos) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, count * 2);
+    }
+    samples[count++] = nanos;
+  }
+
+  int count() {
+    return count;
+  }
+
+  /** Returns the sample below which {@code percent} of the samples are, in nanoseconds. */
+  long percentile(double percent) {
+    if (count == 0) {
+      throw new IllegalStateException("No samples");
+    }
+    final long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percent / 100 * count) - 1;
+    return sorted[Math.max(0, Math.min(count - 1, index))];
+  }
+
+  static String millis(long nanos) {
+    return String.format("%.3f ms", nanos / 1e6);
+  }
+
+  /** Prints the median and 99th percentile under {@code name} when benchmarks run. */
+  void report(String name) {
+    report(name, "p50 " + millis(percentile(50)) + ", p99 " + millis(percentile(99)));
+  }
+
+  /** Prints {@code value} under {@code name} when benchmarks run. */
+  static void report(String name, String value) {
+    if (BENCHMARKS) {
+      System.out.println(name + ": " + value);
+    }
+  }
+
+  /** Whether {@link #allocatedBytes()} is supported by the running JVM. */
+  static boolean canMeasureAllocations() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    return bean instanceof com.sun.management.ThreadMXBean
+      && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+      && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+  }
+
+  /**
+   * Returns the bytes allocated by the calling thread so far. The difference of two calls
+   * includes a few bytes allocated by the measurement itself, see {@link #allocationOverhead()}.
+   */
+  static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+      .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** Collects garbage and starts tracking the peak heap usage from here. */
+  static void resetPeakHeap() {
+    System.gc();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /**
+   * Returns the sum of the peak usages of the heap pools since {@link #resetPeakHeap()}. The pools
+   * may peak at different times, so this is an upper bound of the peak heap usage.
+   */
+  static long peakHeapBytes() {
+    long bytes = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+        bytes += pool.getPeakUsage().getUsed();
+      }
+    }
+    return bytes;
+  }
+
+  /** Returns the bytes attributed to a measurement of no work at all. */
+  static long allocationOverhead() {
+    long overhead = Long.MAX_VALUE;
+    for (int i = 0; i < 16; i++) {
+      final long before = allocatedBytes();
+      overhead = Math.min(overhead, allocatedBytes() - before);
+    }
+    return overhead;
+  }
+}
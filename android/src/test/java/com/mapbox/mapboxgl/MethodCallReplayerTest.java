@@ -0,0 +1,184 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import io.flutter.plugin.common.MethodCall;
+
+import static com.mapbox.mapboxgl.ControllerHarness.arguments;
+import static com.mapbox.mapboxgl.AnnotationDispatchBenchmarkTest.symbolOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Records method calls of a controller and replays the trace against another one. */
+public class MethodCallReplayerTest {
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final ControllerHarness recording = new ControllerHarness();
+  private final ControllerHarness replay = new ControllerHarness();
+  private final ManualScheduler scheduler = new ManualScheduler();
+  private int callCount = -1;
+  private int errorCount = -1;
+  private File trace;
+
+  @Before
+  public void setUp() throws IOException {
+    Tracing.setTracer(Tracing.NO_OP);
+    trace = folder.newFile("trace.bin");
+    recording.call("map#startRecording", arguments("path", trace.getPath()));
+  }
+
+  @Test
+  public void remapsTheIdsOfAllAnnotationCalls() throws IOException {
+    final Object symbolId = recording.call("symbol#add", arguments("options", symbolOptions(1)));
+    recording.call("symbol#update",
+      arguments("symbol", symbolId, "options", Collections.singletonMap("iconRotate", 45.0)));
+    recording.call("symbol#registerTemplate",
+      arguments("name", "marker", "options", symbolOptions(2)));
+    final List<?> templated = (List<?>) recording.call("symbol#addFromTemplate",
+      arguments("name", "marker", "geometries", new double[] {52, 4, 53, 5}));
+    final Map<?, ?> synced = (Map<?, ?>) recording.call("symbols#sync",
+      arguments("symbols", Arrays.asList(syncEntry("a", 3), syncEntry("b", 4))));
+    recording.call("symbol#remove",
+      arguments("symbol", ((Map<?, ?>) synced.get("added")).get("a")));
+    recording.call("annotation#animateProperty", arguments("type", "symbol",
+      "id", templated.get(1), "property", "iconOpacity", "animation", fade()));
+    recording.call("annotation#stopAnimation",
+      arguments("type", "symbol", "id", templated.get(1), "property", null));
+    recording.call("camera#fitAnnotations", arguments(
+      "symbols", Arrays.asList(symbolId, templated.get(0)),
+      "circles", Collections.emptyList(),
+      "lines", Collections.emptyList(),
+      "padding", Arrays.asList(0.0, 0.0, 0.0, 0.0),
+      "durationMs", 0));
+    assertEquals(9, recording.call("map#stopRecording", null));
+
+    // Annotations of the replayed map get other ids than the recorded ones, the recorded ids
+    // are unknown to it.
+    for (int i = 0; i < 10; i++) {
+      final Object replacedId = replay.call("symbol#add", arguments("options", symbolOptions(i)));
+      replay.call("symbol#remove", arguments("symbol", replacedId));
+    }
+    replay(false);
+
+    assertEquals(9, callCount);
+    assertEquals(0, errorCount);
+    assertEquals(recording.symbolStore.size(), replay.symbolStore.size());
+    assertEquals(Collections.singletonList("move"), replay.camera.calls);
+  }
+
+  @Test
+  public void countsFailedCalls() throws IOException {
+    recording.call("symbol#add", arguments("options", symbolOptions(1)));
+    try {
+      recording.call("symbol#update", arguments("symbol", "unknown", "options", symbolOptions(2)));
+    } catch (IllegalArgumentException expected) {
+      // Recorded before it failed.
+    }
+    final ControllerHarness.CapturingResult result = new ControllerHarness.CapturingResult();
+    recording.controller.onMethodCall(new MethodCall("map#unknown", null), result);
+    assertTrue(result.notImplemented);
+    recording.call("symbol#add", arguments("options", symbolOptions(3)));
+    recording.call("map#stopRecording", null);
+
+    replay(false);
+
+    assertEquals(4, callCount);
+    assertEquals(2, errorCount);
+    assertEquals(2, replay.symbolStore.size());
+  }
+
+  @Test
+  public void keepsTheRecordedSpacingInRealtime() throws IOException {
+    recording.call("symbol#add", arguments("options", symbolOptions(1)));
+    recording.call("map#stopRecording", null);
+
+    replay(true);
+
+    assertEquals(1, callCount);
+    assertNotEquals(0, scheduler.timedPosts);
+  }
+
+  private void replay(boolean realtime) throws IOException {
+    new MethodCallReplayer(trace, scheduler).replay(replay.controller, realtime,
+      new MethodCallReplayer.OnReplayFinishedListener() {
+        @Override
+        public void onReplayFinished(int callCount, int errorCount, long elapsedMillis) {
+          MethodCallReplayerTest.this.callCount = callCount;
+          MethodCallReplayerTest.this.errorCount = errorCount;
+        }
+
+        @Override
+        public void onReplayCancelled(int callCount) {
+          throw new AssertionError("Cancelled after " + callCount + " calls");
+        }
+      });
+    scheduler.runAll();
+  }
+
+  private static Map<String, Object> syncEntry(String key, int i) {
+    final Map<String, Object> entry = new HashMap<>();
+    entry.put("key", key);
+    entry.put("hash", i);
+    entry.put("options", symbolOptions(i));
+    return entry;
+  }
+
+  private static Map<String, Object> fade() {
+    final Map<String, Object> animation = new HashMap<>();
+    animation.put("to", 0.0);
+    animation.put("durationMs", 300);
+    return animation;
+  }
+
+  /** {@link MethodCallReplayer.Scheduler} whose posts are run by the test, without waiting. */
+  private static class ManualScheduler implements MethodCallReplayer.Scheduler {
+    private final Queue<Runnable> posted = new ArrayDeque<>();
+    int timedPosts = 0;
+
+    @Override
+    public long uptimeMillis() {
+      return 0;
+    }
+
+    @Override
+    public void post(Runnable runnable) {
+      posted.add(runnable);
+    }
+
+    @Override
+    public void postAtTime(Runnable runnable, long uptimeMillis) {
+      timedPosts++;
+      posted.add(runnable);
+    }
+
+    @Override
+    public void removeCallbacks(Runnable runnable) {
+      posted.remove(runnable);
+    }
+
+    void runAll() {
+      while (!posted.isEmpty()) {
+        posted.remove().run();
+      }
+    }
+  }
+}
@@ -0,0 +1,168 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PolylineCodecTest {
+  private static final int TRACK_VERTICES = 100_000;
+  /**
+   * Bytes per vertex of a {@code [[lat, lng], ...]} list in the standard message codec: the type
+   * and size of the inner list and two tagged, aligned doubles.
+   */
+  private static final int LIST_BYTES_PER_VERTEX = 2 + 2 * 8 + 2;
+
+  @Test
+  public void decodesTheReferencePolyline() {
+    assertArrayEquals(
+      new double[] {38.5, -120.2, 40.7, -120.95, 43.252, -126.453},
+      PolylineCodec.decodePolyline("_p~iF~ps|U_ulLnnqC_mqNvxq`@", 5),
+      1e-9);
+  }
+
+  @Test
+  public void roundTripsPolylinesAtTheirPrecision() {
+    final double[] coordinates = PolylineSimplifierTest.track(1000);
+    assertArrayEquals(coordinates,
+      PolylineCodec.decodePolyline(PolylineCodec.encodePolyline(coordinates, 5), 5), 0.5e-5);
+    assertArrayEquals(coordinates,
+      PolylineCodec.decodePolyline(PolylineCodec.encodePolyline(coordinates, 6), 6), 0.5e-6);
+  }
+
+  @Test
+  public void roundTripsDeltaE6() {
+    final double[] coordinates = PolylineSimplifierTest.track(1000);
+    assertArrayEquals(coordinates, PolylineCodec.decodeDeltaE6(encodeDeltaE6(coordinates)), 0.5e-6);
+  }
+
+  @Test
+  public void decodesAnEmptyGeometry() {
+    assertEquals(0, PolylineCodec.decodePolyline("", 6).length);
+    assertEquals(0, PolylineCodec.decodeDeltaE6(new byte[0]).length);
+  }
+
+  @Test
+  public void rejectsTruncatedPolylines() {
+    final String polyline = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+    // Cut in the middle of a value, and after a latitude.
+    assertRejected(polyline.substring(0, polyline.length() - 1), 5);
+    assertRejected(polyline.substring(0, 5), 5);
+    assertRejected("_p~iF~ps|U_ulL", 5);
+  }
+
+  @Test
+  public void rejectsInvalidPolylineCharacters() {
+    assertRejected("_p~iF~ps|U\n", 5);
+    assertRejected("_p~iF\u0080ps|U", 5);
+    // More continuation characters than a 64 bit value holds.
+    assertRejected("~~~~~~~~~~~~~~?", 5);
+  }
+
+  @Test
+  public void rejectsTruncatedDeltaE6() {
+    final byte[] delta = encodeDeltaE6(new double[] {52.1, 4.6, 52.2, 4.7});
+    assertRejected(Arrays.copyOf(delta, delta.length - 1));
+    // A lone latitude.
+    assertRejected(new byte[] {2});
+    // A continuation bit on the last byte.
+    assertRejected(new byte[] {2, (byte) 0x82});
+    // More continuation bytes than a 64 bit varint holds.
+    final byte[] tooLong = new byte[12];
+    Arrays.fill(tooLong, (byte) 0x80);
+    assertRejected(tooLong);
+  }
+
+  @Test
+  public void compactFormatsShrinkTheLinePayload() {
+    final double[] coordinates = PolylineSimplifierTest.track(TRACK_VERTICES);
+    final int listBytes = TRACK_VERTICES * LIST_BYTES_PER_VERTEX;
+    // Polylines are ASCII, one byte per character in UTF-8.
+    final int polylineBytes = PolylineCodec.encodePolyline(coordinates, 6).length();
+    final int deltaBytes = encodeDeltaE6(coordinates).length;
+    Measurements.report(TRACK_VERTICES + " vertices", "list " + listBytes + " bytes, polyline6 "
+      + polylineBytes + " bytes, deltaE6 " + deltaBytes + " bytes");
+    assertTrue(polylineBytes * 3 < listBytes);
+    assertTrue(deltaBytes < polylineBytes);
+  }
+
+  @Test
+  public void decodeThroughput() {
+    final double[] coordinates = PolylineSimplifierTest.track(TRACK_VERTICES);
+    final String polyline = PolylineCodec.encodePolyline(coordinates, 6);
+    final byte[] delta = encodeDeltaE6(coordinates);
+    final Measurements polylineMeasurements = new Measurements();
+    final Measurements deltaMeasurements = new Measurements();
+    for (int run = 0; run < 30; run++) {
+      long start = System.nanoTime();
+      assertEquals(coordinates.length, PolylineCodec.decodePolyline(polyline, 6).length);
+      final long polylineNanos = System.nanoTime() - start;
+      start = System.nanoTime();
+      assertEquals(coordinates.length, PolylineCodec.decodeDeltaE6(delta).length);
+      final long deltaNanos = System.nanoTime() - start;
+      if (run >= 5) {
+        polylineMeasurements.record(polylineNanos);
+        deltaMeasurements.record(deltaNanos);
+      }
+    }
+    if (Measurements.BENCHMARKS) {
+      polylineMeasurements.report("decodePolyline " + TRACK_VERTICES + " vertices");
+      deltaMeasurements.report("decodeDeltaE6 " + TRACK_VERTICES + " vertices");
+      // At least a million vertices per second.
+      assertTrue(polylineMeasurements.percentile(50) < TRACK_VERTICES * 1000L);
+      assertTrue(deltaMeasurements.percentile(50) < TRACK_VERTICES * 1000L);
+    }
+  }
+
+  private static void assertRejected(String polyline, int precision) {
+    try {
+      PolylineCodec.decodePolyline(polyline, precision);
+      fail("Decoded " + polyline);
+    } catch (IllegalArgumentException expected) {
+      // Rejected.
+    }
+  }
+
+  private static void assertRejected(byte[] delta) {
+    try {
+      PolylineCodec.decodeDeltaE6(delta);
+      fail("Decoded " + Arrays.toString(delta));
+    } catch (IllegalArgumentException expected) {
+      // Rejected.
+    }
+  }
+
+  /** The encoder of the binary format that servers use, see {@link PolylineCodec}. */
+  static byte[] encodeDeltaE6(double[] coordinates) {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(coordinates.length * 2);
+    long lastLat = 0;
+    long lastLng = 0;
+    for (int i = 0; i + 1 < coordinates.length; i += 2) {
+      final long lat = Math.round(coordinates[i] * 1e6);
+      final long lng = Math.round(coordinates[i + 1] * 1e6);
+      writeVarint(lat - lastLat, out);
+      writeVarint(lng - lastLng, out);
+      lastLat = lat;
+      lastLng = lng;
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeVarint(long value, ByteArrayOutputStream out) {
+    long remaining = (value << 1) ^ (value >> 63);
+    while ((remaining & ~0x7fL) != 0) {
+      out.write((int) ((remaining & 0x7f) | 0x80));
+      remaining >>>= 7;
+    }
+    out.write((int) remaining);
+  }
+}
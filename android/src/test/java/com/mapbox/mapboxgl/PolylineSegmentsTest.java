@@ -0,0 +1,96 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PolylineSegmentsTest {
+
+  @Test
+  public void keepsOnlyTheSegmentsNearTheViewport() {
+    // 10000 vertices along the equator, 0.01 degrees apart.
+    final double[] coordinates = line(10_000);
+    final PolylineSegments segments = new PolylineSegments(coordinates);
+    final BitSet visible = new BitSet();
+    segments.findVisible(bounds(-1, 50, 1, 51), visible);
+    final double[] clipped = segments.materialize(visible);
+    assertTrue(clipped.length < coordinates.length / 10);
+    // The clipped line covers the whole viewport.
+    boolean sawWest = false;
+    boolean sawEast = false;
+    for (int i = 1; i < clipped.length; i += 2) {
+      sawWest |= clipped[i] <= 50;
+      sawEast |= clipped[i] >= 51;
+    }
+    assertTrue(sawWest && sawEast);
+  }
+
+  @Test
+  public void keepsEveryVertexWhenAllSegmentsAreVisible() {
+    final double[] coordinates = line(1000);
+    final PolylineSegments segments = new PolylineSegments(coordinates);
+    final BitSet visible = new BitSet();
+    segments.findVisible(bounds(-90, -180, 90, 180), visible);
+    assertArrayEquals(coordinates, segments.materialize(visible), 0);
+  }
+
+  @Test
+  public void collapsesAnInvisibleLineToItsFirstVertex() {
+    final PolylineSegments segments = new PolylineSegments(line(1000));
+    final BitSet visible = new BitSet();
+    segments.findVisible(bounds(40, 40, 41, 41), visible);
+    assertArrayEquals(new double[] {0, 0, 0, 0}, segments.materialize(visible), 0);
+  }
+
+  @Test
+  public void findsUnwrappedSegmentsInAViewportAcrossTheAntimeridian() {
+    // 2000 vertices along the equator from 170 to 190 degrees, as densify unwraps them.
+    final double[] coordinates = new double[4000];
+    for (int i = 0; i < 2000; i++) {
+      coordinates[2 * i + 1] = 170 + i * 0.01;
+    }
+    final PolylineSegments segments = new PolylineSegments(coordinates);
+    final BitSet visible = new BitSet();
+    segments.findVisible(bounds(-1, -175, 1, -174), visible);
+    final double[] clipped = segments.materialize(visible);
+    assertTrue(clipped.length < coordinates.length / 4);
+    boolean sawViewport = false;
+    for (int i = 1; i < clipped.length; i += 2) {
+      sawViewport |= clipped[i] >= 185 && clipped[i] <= 186;
+    }
+    assertTrue(sawViewport);
+
+    // The same viewport given with an east longitude past 180 degrees.
+    final BitSet unwrapped = new BitSet();
+    segments.findVisible(bounds(-1, 185, 1, 186), unwrapped);
+    assertEquals(visible, unwrapped);
+    // And west of the antimeridian, where vertex 550 is at 175.5 degrees.
+    segments.findVisible(bounds(-1, 175, 1, 176), visible);
+    assertTrue(visible.get(550 / (PolylineSegments.SEGMENT_VERTICES - 1)));
+    assertFalse(visible.get(0));
+    assertFalse(visible.intersects(unwrapped));
+  }
+
+  static double[] line(int vertices) {
+    final double[] coordinates = new double[vertices * 2];
+    for (int i = 0; i < vertices; i++) {
+      coordinates[2 * i + 1] = i * 0.01;
+    }
+    return coordinates;
+  }
+
+  static GeoBounds bounds(double south, double west, double north, double east) {
+    final GeoBounds bounds = new GeoBounds();
+    bounds.set(south, west, north, east);
+    return bounds;
+  }
+}
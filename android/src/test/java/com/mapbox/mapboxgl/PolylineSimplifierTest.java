@@ -0,0 +1,114 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PolylineSimplifierTest {
+  private static final int TRACK_VERTICES = 100_000;
+  /** One pixel at zoom 9 in degrees, the tolerance of a middle detail level. */
+  private static final double TOLERANCE = 360.0 / (512 << 9);
+
+  @Test
+  public void collapsesAStraightLineToItsEnds() {
+    final double[] simplified = PolylineSimplifier.simplify(PolylineSegmentsTest.line(1000), 1e-6);
+    assertArrayEquals(new double[] {0, 0, 0, 9.99}, simplified, 0);
+  }
+
+  @Test
+  public void keepsTheLineWithoutTolerance() {
+    final double[] coordinates = track(1000);
+    assertSame(coordinates, PolylineSimplifier.simplify(coordinates, 0));
+  }
+
+  @Test
+  public void reducesA100kVertexTrack() {
+    final double[] coordinates = track(TRACK_VERTICES);
+    final double[] simplified = PolylineSimplifier.simplify(coordinates, TOLERANCE);
+    assertTrue(simplified.length / 2 < TRACK_VERTICES / 10);
+    assertEquals(coordinates[0], simplified[0], 0);
+    assertEquals(coordinates[1], simplified[1], 0);
+    assertEquals(coordinates[coordinates.length - 2], simplified[simplified.length - 2], 0);
+    assertEquals(coordinates[coordinates.length - 1], simplified[simplified.length - 1], 0);
+    assertWithinTolerance(coordinates, simplified, TOLERANCE);
+  }
+
+  @Test
+  public void simplifies100kVertexTracks() {
+    final double[] coordinates = track(TRACK_VERTICES);
+    final Measurements measurements = new Measurements();
+    for (int run = 0; run < 30; run++) {
+      final long start = System.nanoTime();
+      PolylineSimplifier.simplify(coordinates, TOLERANCE);
+      if (run >= 5) {
+        measurements.record(System.nanoTime() - start);
+      }
+    }
+    if (Measurements.BENCHMARKS) {
+      measurements.report("simplify " + TRACK_VERTICES + " vertices");
+      assertTrue(measurements.percentile(50) < 100_000_000L);
+    }
+  }
+
+  /** A GPS track of a walk with a meandering heading and a few meters of noise per fix. */
+  static double[] track(int vertices) {
+    final Random random = new Random(42);
+    final double[] coordinates = new double[vertices * 2];
+    double lat = 52.37;
+    double lng = 4.89;
+    double heading = 0;
+    for (int i = 0; i < vertices; i++) {
+      heading += random.nextGaussian() * 0.1;
+      lat += Math.cos(heading) * 1e-5;
+      lng += Math.sin(heading) * 1.6e-5;
+      coordinates[2 * i] = lat + random.nextGaussian() * 2e-5;
+      coordinates[2 * i + 1] = lng + random.nextGaussian() * 3e-5;
+    }
+    return coordinates;
+  }
+
+  /**
+   * Asserts that every vertex of {@code coordinates} is within {@code tolerance} of the segment of
+   * {@code simplified} that replaced it, with the longitude scaling of the simplifier.
+   */
+  private static void assertWithinTolerance(
+    double[] coordinates, double[] simplified, double tolerance) {
+    double latSum = 0;
+    for (int i = 0; i < coordinates.length; i += 2) {
+      latSum += coordinates[i];
+    }
+    final double lngScale = Math.cos(Math.toRadians(latSum / (coordinates.length / 2)));
+    int segment = 0;
+    for (int i = 0; i < coordinates.length; i += 2) {
+      final double lat = coordinates[i];
+      final double lng = coordinates[i + 1];
+      if (lat == simplified[2 * segment + 2] && lng == simplified[2 * segment + 3]
+        && 2 * segment + 4 < simplified.length) {
+        segment++;
+      }
+      final double distance = distance(lng * lngScale, lat,
+        simplified[2 * segment + 1] * lngScale, simplified[2 * segment],
+        simplified[2 * segment + 3] * lngScale, simplified[2 * segment + 2]);
+      assertTrue("vertex " + i / 2 + " is " + distance + " off", distance <= tolerance * 1.0001);
+    }
+    assertEquals(simplified.length - 4, 2 * segment);
+  }
+
+  private static double distance(
+    double px, double py, double ax, double ay, double bx, double by) {
+    final double dx = bx - ax;
+    final double dy = by - ay;
+    final double t = Math.max(0, Math.min(1,
+      ((px - ax) * dx + (py - ay) * dy) / (dx * dx + dy * dy)));
+    return Math.hypot(px - ax - dx * t, py - ay - dy * t);
+  }
+}
@@ -0,0 +1,75 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Point;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class PropertyAnimatorTest {
+  private final ManualFrameClock clock = new ManualFrameClock();
+  private final AnnotationUpdateBatch batch = new AnnotationUpdateBatch();
+  private final RecordingAnnotationStore<Symbol, SymbolOptions> store =
+    new RecordingAnnotationStore<>();
+  private final PropertyAnimator animator = new PropertyAnimator(clock, batch);
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+    clock.setOnFrameEndListener(batch);
+  }
+
+  @Test
+  public void startsAnUnsetPropertyFromItsDefault() {
+    final SymbolController symbol = symbol();
+    animator.animate("symbol:1", symbol, store, "iconSize", spec(3, 1000));
+    clock.frame(500_000_000L);
+    assertEquals(2, symbol.getSymbol().getIconSize(), 1e-6);
+    clock.frame(500_000_000L);
+    assertEquals(3, symbol.getSymbol().getIconSize(), 1e-6);
+    assertFalse(clock.hasCallbacks());
+  }
+
+  @Test
+  public void rejectsAPropertyOfAnotherAnnotationType() {
+    try {
+      animator.animate("symbol:1", symbol(), store, "circleRadius", spec(3, 1000));
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("Cannot animate circleRadius of SymbolController", expected.getMessage());
+    }
+    assertFalse(clock.hasCallbacks());
+  }
+
+  @Test
+  public void rejectsAnUnknownProperty() {
+    try {
+      animator.animate("symbol:1", symbol(), store, "iconColor", spec(3, 1000));
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertEquals("Cannot animate iconColor", expected.getMessage());
+    }
+    assertFalse(clock.hasCallbacks());
+  }
+
+  private SymbolController symbol() {
+    return new SymbolController(
+      store.create(new SymbolOptions().withGeometry(Point.fromLngLat(0, 0))), true, null);
+  }
+
+  private static PropertyAnimator.Spec spec(float to, long durationMs) {
+    final PropertyAnimator.Spec spec = new PropertyAnimator.Spec();
+    spec.to = to;
+    spec.durationMs = durationMs;
+    return spec;
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.plugins.annotation.Annotation;
+import com.mapbox.mapboxsdk.plugins.annotation.Options;
+import com.mapbox.mapboxsdk.plugins.annotation.TestAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link AnnotationStore} that counts the calls made to it and what they would cost a real
+ * manager, which serializes its whole source on every create, update and delete.
+ */
+class RecordingAnnotationStore<T extends Annotation, S extends Options<T>>
+  implements AnnotationStore<T, S> {
+  int createCalls = 0;
+  int updateCalls = 0;
+  int deleteCalls = 0;
+  /** Annotations passed to update calls. */
+  long annotationsUpdated = 0;
+  /** Features a real manager would have serialized, the store size after every call. */
+  long featuresWritten = 0;
+  /** The annotations of the last update call. */
+  List<T> lastUpdate = null;
+  /** The annotation created last. */
+  T lastCreated = null;
+  private int size = 0;
+  private long nextId = 0;
+
+  int size() {
+    return size;
+  }
+
+  int writeCalls() {
+    return createCalls + updateCalls + deleteCalls;
+  }
+
+  @Override
+  public T create(S options) {
+    createCalls++;
+    size++;
+    featuresWritten += size;
+    lastCreated = TestAnnotations.build(options, nextId++);
+    return lastCreated;
+  }
+
+  @Override
+  public List<T> create(List<S> options) {
+    createCalls++;
+    final List<T> created = new ArrayList<>(options.size());
+    for (S option : options) {
+      created.add(TestAnnotations.build(option, nextId++));
+    }
+    size += created.size();
+    featuresWritten += size;
+    if (!created.isEmpty()) {
+      lastCreated = created.get(created.size() - 1);
+    }
+    return created;
+  }
+
+  @Override
+  public void update(T annotation) {
+    updateCalls++;
+    annotationsUpdated++;
+    featuresWritten += size;
+  }
+
+  @Override
+  public void update(List<T> annotations) {
+    updateCalls++;
+    annotationsUpdated += annotations.size();
+    featuresWritten += size;
+    lastUpdate = annotations;
+  }
+
+  @Override
+  public void delete(T annotation) {
+    deleteCalls++;
+    size--;
+    featuresWritten += size;
+  }
+
+  @Override
+  public void delete(List<T> annotations) {
+    deleteCalls++;
+    size -= annotations.size();
+    featuresWritten += size;
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.camera.CameraUpdate;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.maps.MapboxMap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link MapCamera} that records its calls. Jumps finish right away like on a map, eased and
+ * animated transitions stay pending until {@link #finishTransition()}, and starting a transition
+ * cancels the pending one.
+ */
+class RecordingMapCamera implements MapCamera {
+  final List<String> calls = new ArrayList<>();
+  final List<CameraUpdate> updates = new ArrayList<>();
+  CameraPosition position = new CameraPosition.Builder()
+    .target(new LatLng(0, 0))
+    .zoom(10)
+    .build();
+  private int[] padding = {0, 0, 0, 0};
+  private MapboxMap.CancelableCallback pending = null;
+
+  @Override
+  public CameraPosition getCameraPosition() {
+    return position;
+  }
+
+  @Override
+  public void moveCamera(CameraUpdate update, MapboxMap.CancelableCallback callback) {
+    cancelPending();
+    calls.add("move");
+    updates.add(update);
+    if (callback != null) {
+      callback.onFinish();
+    }
+  }
+
+  @Override
+  public void easeCamera(
+    CameraUpdate update,
+    int durationMs,
+    boolean easingInterpolator,
+    MapboxMap.CancelableCallback callback) {
+    cancelPending();
+    calls.add((easingInterpolator ? "ease " : "linear ") + durationMs);
+    updates.add(update);
+    pending = callback;
+  }
+
+  @Override
+  public void animateCamera(
+    CameraUpdate update, int durationMs, MapboxMap.CancelableCallback callback) {
+    cancelPending();
+    calls.add("fly " + durationMs);
+    updates.add(update);
+    pending = callback;
+  }
+
+  @Override
+  public void cancelTransitions() {
+    calls.add("cancel");
+    cancelPending();
+  }
+
+  @Override
+  public int[] getPadding() {
+    return padding.clone();
+  }
+
+  @Override
+  public void setPadding(int left, int top, int right, int bottom) {
+    calls.add("padding " + left + "," + top + "," + right + "," + bottom);
+    padding = new int[] {left, top, right, bottom};
+  }
+
+  /** Finishes the running eased or animated transition. */
+  void finishTransition() {
+    final MapboxMap.CancelableCallback callback = pending;
+    pending = null;
+    if (callback != null) {
+      callback.onFinish();
+    }
+  }
+
+  private void cancelPending() {
+    final MapboxMap.CancelableCallback callback = pending;
+    pending = null;
+    if (callback != null) {
+      callback.onCancel();
+    }
+  }
+}
@@ -0,0 +1,46 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ReplayLocationEngineTest {
+  private static final long NOON_UTC = 1546344000000L;
+
+  @Test
+  public void parsesUtcTimes() throws IOException {
+    assertEquals(NOON_UTC, ReplayLocationEngine.parseTime("2019-01-01T12:00:00Z"));
+    assertEquals(NOON_UTC, ReplayLocationEngine.parseTime("2019-01-01T12:00:00"));
+    assertEquals(NOON_UTC + 250, ReplayLocationEngine.parseTime("2019-01-01T12:00:00.25Z"));
+  }
+
+  @Test
+  public void appliesUtcOffsets() throws IOException {
+    assertEquals(NOON_UTC, ReplayLocationEngine.parseTime("2019-01-01T14:00:00+02:00"));
+    assertEquals(NOON_UTC, ReplayLocationEngine.parseTime("2019-01-01T14:30:00+0230"));
+    assertEquals(NOON_UTC, ReplayLocationEngine.parseTime("2019-01-01T07:00:00-05"));
+    assertEquals(NOON_UTC + 500,
+      ReplayLocationEngine.parseTime("2019-01-01T07:00:00.5-05:00"));
+  }
+
+  @Test
+  public void rejectsMalformedOffsets() {
+    for (String time : new String[] {
+      "2019-01-01T12:00:00+2", "2019-01-01T12:00:00+02:0", "2019-01-01T12:00:00+0:200",
+      "2019-01-01T12:00:00+25:00", "2019-01-01T12:00:00+ab:cd"}) {
+      try {
+        ReplayLocationEngine.parseTime(time);
+        fail("Parsed " + time);
+      } catch (IOException expected) {
+        // Malformed GPX time.
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Drives a {@link ControllerHarness} with the synthetic annotation workload of the example app's
+ * stress page, see {@code example/lib/stress.dart}, and collects per operation latencies and the
+ * peak heap usage.
+ *
+ * <p>Unlike the page, updates are sent back to back, there is no update rate to keep on the JVM.
+ */
+class StressRunner {
+
+  /**
+   * Sizes of a synthetic annotation workload. The same {@link #seed} always produces the same
+   * fleet and the same update sequence.
+   */
+  static class Workload {
+    int seed = 42;
+    int symbolCount = 500;
+    int lineCount = 20;
+    int circleCount = 200;
+    int lineVertexCount = 200;
+    /** Number of rounds in which every symbol and circle is moved once. */
+    int updateRounds = 10;
+    /** Fraction of the symbols removed and added again after every round. */
+    double churn = 0.1;
+  }
+
+  private static final double CENTER_LAT = -33.86711;
+  private static final double CENTER_LNG = 151.1947171;
+
+  private final ControllerHarness harness;
+  private final Workload workload;
+  private final Random random;
+  private final Map<String, Measurements> measurements = new LinkedHashMap<>();
+  private long elapsedNanos = 0;
+  private long peakHeapBytes = 0;
+
+  StressRunner(ControllerHarness harness, Workload workload) {
+    this.harness = harness;
+    this.workload = workload;
+    this.random = new Random(workload.seed);
+  }
+
+  void run() {
+    Measurements.resetPeakHeap();
+    final long start = System.nanoTime();
+    final List<Object> symbolIds = new ArrayList<>();
+    final List<Object> circleIds = new ArrayList<>();
+    final List<Object> lineIds = new ArrayList<>();
+    for (int i = 0; i < workload.symbolCount; i++) {
+      symbolIds.add(addSymbol());
+    }
+    for (int i = 0; i < workload.circleCount; i++) {
+      final Map<String, Object> options = new HashMap<>();
+      options.put("geometry", randomLatLng());
+      options.put("circleRadius", 4.0);
+      options.put("circleColor", "#FF0000");
+      circleIds.add(measure("circle#add", "options", options));
+    }
+    for (int i = 0; i < workload.lineCount; i++) {
+      final Map<String, Object> options = new HashMap<>();
+      options.put("geometry", randomTrack());
+      options.put("lineColor", "#3BB2D0");
+      options.put("lineWidth", 2.0);
+      lineIds.add(measure("line#add", "options", options));
+    }
+    for (int round = 0; round < workload.updateRounds; round++) {
+      for (Object symbolId : symbolIds) {
+        measure("symbol#update", "symbol", symbolId, "options", geometryOptions());
+      }
+      for (Object circleId : circleIds) {
+        measure("circle#update", "circle", circleId, "options", geometryOptions());
+      }
+      final int churned = (int) Math.floor(symbolIds.size() * workload.churn);
+      for (int i = 0; i < churned; i++) {
+        final Object removed = symbolIds.remove(random.nextInt(symbolIds.size()));
+        measure("symbol#remove", "symbol", removed);
+        symbolIds.add(addSymbol());
+      }
+    }
+    elapsedNanos = System.nanoTime() - start;
+    peakHeapBytes = Measurements.peakHeapBytes();
+    for (Object symbolId : symbolIds) {
+      harness.call("symbol#remove", ControllerHarness.arguments("symbol", symbolId));
+    }
+    for (Object circleId : circleIds) {
+      harness.call("circle#remove", ControllerHarness.arguments("circle", circleId));
+    }
+    for (Object lineId : lineIds) {
+      harness.call("line#remove", ControllerHarness.arguments("line", lineId));
+    }
+  }
+
+  /** Returns the latencies of every operation of the run, by method name. */
+  Map<String, Measurements> getMeasurements() {
+    return measurements;
+  }
+
+  /** Returns the number of measured calls. */
+  int getCallCount() {
+    int calls = 0;
+    for (Measurements operation : measurements.values()) {
+      calls += operation.count();
+    }
+    return calls;
+  }
+
+  /** Reports the latencies of every operation and the peak heap when benchmarks run. */
+  void report() {
+    for (Map.Entry<String, Measurements> operation : measurements.entrySet()) {
+      operation.getValue().report(operation.getKey());
+    }
+    final double seconds = elapsedNanos / 1e9;
+    Measurements.report("stress", String.format("%d calls in %.1f s, %.0f calls/s",
+      getCallCount(), seconds, getCallCount() / seconds));
+    Measurements.report("stress peak heap",
+      String.format("%.1f MB", peakHeapBytes / (1024.0 * 1024.0)));
+  }
+
+  private Object addSymbol() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("geometry", randomLatLng());
+    options.put("iconImage", "airport-15");
+    return measure("symbol#add", "options", options);
+  }
+
+  private Object measure(String method, Object... arguments) {
+    final Map<String, Object> call = ControllerHarness.arguments(arguments);
+    final long start = System.nanoTime();
+    final Object result = harness.call(method, call);
+    final long elapsed = System.nanoTime() - start;
+    Measurements operation = measurements.get(method);
+    if (operation == null) {
+      operation = new Measurements();
+      measurements.put(method, operation);
+    }
+    operation.record(elapsed);
+    return result;
+  }
+
+  private Map<String, Object> geometryOptions() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("geometry", randomLatLng());
+    return options;
+  }
+
+  private List<Double> randomLatLng() {
+    return Arrays.asList(
+      CENTER_LAT + (random.nextDouble() - 0.5) / 5.0,
+      CENTER_LNG + (random.nextDouble() - 0.5) / 5.0);
+  }
+
+  private List<List<Double>> randomTrack() {
+    List<Double> current = randomLatLng();
+    final List<List<Double>> track = new ArrayList<>(workload.lineVertexCount);
+    track.add(current);
+    for (int i = 1; i < workload.lineVertexCount; i++) {
+      current = Arrays.asList(
+        current.get(0) + (random.nextDouble() - 0.5) / 500.0,
+        current.get(1) + (random.nextDouble() - 0.5) / 500.0);
+      track.add(current);
+    }
+    return track;
+  }
+}
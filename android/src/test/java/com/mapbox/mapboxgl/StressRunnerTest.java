@@ -0,0 +1,43 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/** Runs the stress page's workload through the controller, see {@link StressRunner}. */
+public class StressRunnerTest {
+  private final ControllerHarness harness = new ControllerHarness();
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+  }
+
+  @Test
+  public void runsTheStressWorkload() {
+    final StressRunner.Workload workload = new StressRunner.Workload();
+    final StressRunner runner = new StressRunner(harness, workload);
+    runner.run();
+    runner.report();
+
+    final int churned = (int) (workload.symbolCount * workload.churn) * workload.updateRounds;
+    assertEquals(workload.symbolCount + churned,
+      runner.getMeasurements().get("symbol#add").count());
+    assertEquals(workload.symbolCount * workload.updateRounds,
+      runner.getMeasurements().get("symbol#update").count());
+    assertEquals(workload.circleCount * workload.updateRounds,
+      runner.getMeasurements().get("circle#update").count());
+    assertEquals(workload.symbolCount + churned + workload.circleCount + workload.lineCount
+      + (workload.symbolCount + workload.circleCount) * workload.updateRounds + churned,
+      runner.getCallCount());
+    // Everything added was removed again.
+    assertEquals(0, harness.symbolStore.size());
+    assertEquals(0, harness.circleStore.size());
+    assertEquals(0, harness.lineStore.size());
+  }
+}
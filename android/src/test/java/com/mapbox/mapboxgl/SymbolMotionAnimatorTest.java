@@ -0,0 +1,166 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Point;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SymbolMotionAnimatorTest {
+  private final ManualFrameClock clock = new ManualFrameClock();
+  private final AnnotationUpdateBatch batch = new AnnotationUpdateBatch();
+  private final RecordingAnnotationStore<Symbol, SymbolOptions> store =
+    new RecordingAnnotationStore<>();
+  private int moveCount = 0;
+  private String movedId = null;
+  private double movedLat;
+  private double movedLng;
+  private final SymbolMotionAnimator animator =
+    new SymbolMotionAnimator(clock, batch, (symbolId, lat, lng) -> {
+      moveCount++;
+      movedId = symbolId;
+      movedLat = lat;
+      movedLng = lng;
+    });
+
+  @Before
+  public void setUp() {
+    Tracing.setTracer(Tracing.NO_OP);
+    clock.setOnFrameEndListener(batch);
+  }
+
+  @Test
+  public void interpolatesTowardsTheTarget() {
+    final SymbolController symbol = symbol(0, 0);
+    animator.animateTo("1", symbol, store, new LatLng(10, 20), 1000, 0, null, false);
+    clock.frame(500_000_000L);
+    assertEquals(5, symbol.getGeometry().getLatitude(), 1e-9);
+    assertEquals(10, symbol.getGeometry().getLongitude(), 1e-9);
+    clock.frame(500_000_000L);
+    assertEquals(10, symbol.getGeometry().getLatitude(), 1e-9);
+    assertEquals(20, symbol.getGeometry().getLongitude(), 1e-9);
+    assertFalse(clock.hasCallbacks());
+  }
+
+  @Test
+  public void derivesTheDurationFromReportTimestamps() {
+    final SymbolController symbol = symbol(0, 0);
+    animator.animateTo("1", symbol, store, new LatLng(1, 1), -1, 1000, null, false);
+    clock.frame();
+    assertEquals(1, symbol.getGeometry().getLatitude(), 1e-9);
+    animator.animateTo("1", symbol, store, new LatLng(3, 3), -1, 3000, null, false);
+    clock.frame(1_000_000_000L);
+    assertEquals(2, symbol.getGeometry().getLatitude(), 1e-9);
+  }
+
+  @Test
+  public void alignsTheIconToThePath() {
+    final SymbolController symbol = symbol(0, 0);
+    assertEquals(0, symbol.getIconRotate(), 0);
+    final Float rotation =
+      animator.animateTo("1", symbol, store, new LatLng(0, 1), 1000, 0, null, true);
+    assertEquals(90, rotation, 1e-3);
+    clock.frame(1_000_000_000L);
+    assertEquals(90, symbol.getIconRotate(), 1e-3);
+  }
+
+  @Test
+  public void keepsTheRotationWithoutATarget() {
+    final SymbolController symbol = symbol(0, 0);
+    assertNull(animator.animateTo("1", symbol, store, new LatLng(0, 1), 1000, 0, null, false));
+  }
+
+  @Test
+  public void reportsEveryMove() {
+    animator.animateTo("1", symbol(0, 0), store, new LatLng(2, 4), 1000, 0, null, false);
+    clock.frame(500_000_000L);
+    assertEquals(1, moveCount);
+    assertEquals(1, movedLat, 1e-9);
+    clock.frame(500_000_000L);
+    clock.frame(500_000_000L);
+    assertEquals(2, moveCount);
+    assertEquals("1", movedId);
+    assertEquals(2, movedLat, 1e-9);
+    assertEquals(4, movedLng, 1e-9);
+  }
+
+  @Test
+  public void writesAllMovedSymbolsWithOneUpdatePerFrame() {
+    for (int i = 0; i < 100; i++) {
+      animator.animateTo(
+        String.valueOf(i), symbol(0, 0), store, new LatLng(1, 1), 1000, 0, null, false);
+    }
+    final int updatesBefore = store.updateCalls;
+    for (int frame = 0; frame < 10; frame++) {
+      clock.frame();
+    }
+    assertEquals(updatesBefore + 10, store.updateCalls);
+    assertEquals(100, store.lastUpdate.size());
+  }
+
+  @Test
+  public void framesOfAThousandMovingSymbolsStayWithinBudget() {
+    final int symbols = 1000;
+    final SymbolController[] controllers = new SymbolController[symbols];
+    for (int i = 0; i < symbols; i++) {
+      controllers[i] = symbol(i * 1e-3, 0);
+    }
+    final Measurements measurements = new Measurements();
+    long allocated = 0;
+    final long overhead = Measurements.canMeasureAllocations()
+      ? Measurements.allocationOverhead() : 0;
+    for (int report = 0; report < 20; report++) {
+      for (int i = 0; i < symbols; i++) {
+        animator.animateTo(String.valueOf(i), controllers[i], store,
+          new LatLng(i * 1e-3, (report + 1) * 1e-3), 500, 0, null, true);
+      }
+      // 30 frames of 60 Hz per report, the first reports warm up the JIT.
+      for (int frame = 0; frame < 30; frame++) {
+        final long allocatedBefore =
+          Measurements.canMeasureAllocations() ? Measurements.allocatedBytes() : 0;
+        final long start = System.nanoTime();
+        clock.frame();
+        final long elapsed = System.nanoTime() - start;
+        if (report >= 5) {
+          measurements.record(elapsed);
+          if (Measurements.canMeasureAllocations()) {
+            allocated += Measurements.allocatedBytes() - allocatedBefore - overhead;
+          }
+        }
+      }
+    }
+    if (Measurements.BENCHMARKS) {
+      final long p50 = measurements.percentile(50);
+      final long p99 = measurements.percentile(99);
+      measurements.report("SymbolMotionAnimator, " + symbols + " symbols");
+      assertTrue("p50 " + Measurements.millis(p50), p50 < 4_000_000L);
+      assertTrue("p99 " + Measurements.millis(p99), p99 < 16_000_000L);
+    }
+    Assume.assumeTrue(Measurements.canMeasureAllocations());
+    final long perSymbolFrame = allocated / ((long) measurements.count() * symbols);
+    Measurements.report("SymbolMotionAnimator", perSymbolFrame + " bytes per symbol and frame");
+    // A moved symbol needs a new Point, whose coordinate list boxes two doubles, and a rotated
+    // one a new JSON number.
+    assertTrue(perSymbolFrame + " bytes per symbol and frame", perSymbolFrame <= 256);
+  }
+
+  private SymbolController symbol(double lat, double lng) {
+    return new SymbolController(
+      store.create(new SymbolOptions()
+        .withGeometry(Point.fromLngLat(lng, lat))),
+      true,
+      null);
+  }
+}
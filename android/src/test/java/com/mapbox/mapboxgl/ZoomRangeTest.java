@@ -0,0 +1,79 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxgl;
+
+import com.mapbox.geojson.Point;
+import com.mapbox.mapboxsdk.plugins.annotation.Symbol;
+import com.mapbox.mapboxsdk.plugins.annotation.SymbolOptions;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ZoomRangeTest {
+
+  @Test
+  public void leavesTheRangeWithoutZoomOptions() {
+    assertNull(Convert.interpretZoomRange(new HashMap<>(), null));
+    final ZoomRange range = range(4, 10);
+    assertSame(range, Convert.interpretZoomRange(new HashMap<>(), range));
+    assertEquals(4, range.minZoom, 0);
+    assertEquals(10, range.maxZoom, 0);
+  }
+
+  @Test
+  public void keepsTheBoundThatIsLeftOut() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("maxZoom", 12.0);
+    final ZoomRange range = Convert.interpretZoomRange(options, range(4, 10));
+    assertEquals(4, range.minZoom, 0);
+    assertEquals(12, range.maxZoom, 0);
+  }
+
+  @Test
+  public void clearsTheBoundsGivenAsNull() {
+    final Map<String, Object> options = new HashMap<>();
+    options.put("minZoom", null);
+    options.put("maxZoom", null);
+    final ZoomRange range = Convert.interpretZoomRange(options, range(4, 10));
+    assertTrue(range.isUnbounded());
+    assertTrue(range.contains(0));
+    assertTrue(range.contains(22));
+  }
+
+  @Test
+  public void hidesASymbolWithoutOpacities() {
+    final RecordingAnnotationStore<Symbol, SymbolOptions> store =
+      new RecordingAnnotationStore<>();
+    final SymbolController symbol = new SymbolController(
+      store.create(new SymbolOptions().withGeometry(Point.fromLngLat(0, 0))), true, null);
+
+    assertTrue(symbol.setZoomHidden(true));
+    assertTrue(symbol.isZoomHidden());
+    assertEquals(0f, symbol.getSymbol().getIconOpacity(), 0);
+    symbol.setIconOpacity(0.5f);
+    assertEquals(0f, symbol.getSymbol().getIconOpacity(), 0);
+
+    assertTrue(symbol.setZoomHidden(false));
+    assertFalse(symbol.isZoomHidden());
+    assertEquals(0.5f, symbol.getSymbol().getIconOpacity(), 0);
+    assertEquals(1f, symbol.getSymbol().getTextOpacity(), 0);
+    assertFalse(symbol.setZoomHidden(false));
+  }
+
+  private static ZoomRange range(double minZoom, double maxZoom) {
+    final ZoomRange range = new ZoomRange();
+    range.minZoom = minZoom;
+    range.maxZoom = maxZoom;
+    return range;
+  }
+}
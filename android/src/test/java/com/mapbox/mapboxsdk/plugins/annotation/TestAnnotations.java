@@ -0,0 +1,19 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.mapbox.mapboxsdk.plugins.annotation;
+
+/**
+ * Builds annotations without an annotation manager, which needs a map view and a style. Lives in
+ * the plugin's package because the annotation constructors are package-private.
+ */
+public final class TestAnnotations {
+
+  private TestAnnotations() {
+  }
+
+  public static <T extends Annotation> T build(Options<T> options, long id) {
+    return options.build(id, null);
+  }
+}
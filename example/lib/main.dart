@@ -11,6 +11,7 @@ import 'page.dart';
 import 'place_symbol.dart';
 import 'place_circle.dart';
 import 'scrolling_map.dart';
+import 'stress.dart';
 
 final List<Page> _allPages = <Page>[
   MapUiPage(),
@@ -20,6 +21,7 @@ final List<Page> _allPages = <Page>[
   LinePage(),
   PlaceCirclePage(),
   ScrollingMapPage(),
+  StressPage(),
 ];
 
 class MapsDemo extends StatelessWidget {
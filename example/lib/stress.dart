@@ -0,0 +1,351 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:io';
+import 'dart:math';
+
+import 'package:flutter/material.dart';
+import 'package:mapbox_gl/mapbox_gl.dart';
+
+import 'page.dart';
+
+class StressPage extends Page {
+  StressPage() : super(const Icon(Icons.timer), 'Annotation stress test');
+
+  @override
+  Widget build(BuildContext context) {
+    return const StressBody();
+  }
+}
+
+/// Sizes of a synthetic annotation workload.
+///
+/// The same [seed] always produces the same fleet and the same update
+/// sequence, so runs on different devices can be compared.
+class StressWorkload {
+  const StressWorkload({
+    this.seed = 42,
+    this.symbolCount = 500,
+    this.lineCount = 20,
+    this.circleCount = 200,
+    this.lineVertexCount = 200,
+    this.updateRounds = 10,
+    this.churn = 0.1,
+    this.updatesPerSecond,
+  });
+
+  final int seed;
+  final int symbolCount;
+  final int lineCount;
+  final int circleCount;
+  final int lineVertexCount;
+
+  /// Number of rounds in which every symbol and circle is moved once.
+  final int updateRounds;
+
+  /// Fraction of the symbols removed and added again after every round.
+  final double churn;
+
+  /// Rate at which symbol and circle updates are sent, or null to send each
+  /// update as soon as the previous one completed.
+  final int updatesPerSecond;
+
+  StressWorkload withUpdatesPerSecond(int updatesPerSecond) {
+    return StressWorkload(
+      seed: seed,
+      symbolCount: symbolCount,
+      lineCount: lineCount,
+      circleCount: circleCount,
+      lineVertexCount: lineVertexCount,
+      updateRounds: updateRounds,
+      churn: churn,
+      updatesPerSecond: updatesPerSecond,
+    );
+  }
+}
+
+/// Latency samples of a single channel operation, in microseconds.
+class _Samples {
+  final List<int> _micros = <int>[];
+
+  void add(Duration duration) => _micros.add(duration.inMicroseconds);
+
+  int get count => _micros.length;
+
+  int percentile(double p) {
+    if (_micros.isEmpty) {
+      return 0;
+    }
+    final List<int> sorted = List<int>.from(_micros)..sort();
+    return sorted[min(sorted.length - 1, (p * sorted.length).floor())];
+  }
+
+  int get total => _micros.fold(0, (int sum, int micros) => sum + micros);
+}
+
+/// Drives the controller's channel surface with a [StressWorkload] and
+/// collects per operation latencies.
+class StressRunner {
+  StressRunner(this.controller, this.workload, this.center)
+      : _random = Random(workload.seed);
+
+  final MapboxMapController controller;
+  final StressWorkload workload;
+  final LatLng center;
+  final Random _random;
+  final Map<String, _Samples> _samples = <String, _Samples>{};
+  final Stopwatch _updateClock = Stopwatch();
+  int _updateCount = 0;
+
+  Future<T> _measure<T>(String operation, Future<T> call()) async {
+    final Stopwatch stopwatch = Stopwatch()..start();
+    final T result = await call();
+    _samples.putIfAbsent(operation, () => _Samples()).add(stopwatch.elapsed);
+    return result;
+  }
+
+  /// Waits until the next update is due at the workload's update rate.
+  Future<void> _pace() async {
+    if (workload.updatesPerSecond == null) {
+      return;
+    }
+    final Duration due = Duration(
+        microseconds: _updateCount++ *
+            Duration.microsecondsPerSecond ~/
+            workload.updatesPerSecond);
+    final Duration wait = due - _updateClock.elapsed;
+    if (wait > Duration.zero) {
+      await Future<void>.delayed(wait);
+    }
+  }
+
+  LatLng _randomLatLng() {
+    return LatLng(
+      center.latitude + (_random.nextDouble() - 0.5) / 5.0,
+      center.longitude + (_random.nextDouble() - 0.5) / 5.0,
+    );
+  }
+
+  List<LatLng> _randomTrack() {
+    LatLng current = _randomLatLng();
+    final List<LatLng> track = <LatLng>[current];
+    for (int i = 1; i < workload.lineVertexCount; i++) {
+      current = LatLng(
+        current.latitude + (_random.nextDouble() - 0.5) / 500.0,
+        current.longitude + (_random.nextDouble() - 0.5) / 500.0,
+      );
+      track.add(current);
+    }
+    return track;
+  }
+
+  Future<Symbol> _addSymbol() {
+    return _measure('symbol#add', () {
+      return controller.addSymbol(SymbolOptions(
+        geometry: _randomLatLng(),
+        iconImage: 'airport-15',
+      ));
+    });
+  }
+
+  Future<String> run() async {
+    final int startRss = ProcessInfo.currentRss;
+    final Stopwatch total = Stopwatch()..start();
+    final List<Symbol> symbols = <Symbol>[];
+    final List<Circle> circles = <Circle>[];
+    for (int i = 0; i < workload.symbolCount; i++) {
+      symbols.add(await _addSymbol());
+    }
+    for (int i = 0; i < workload.circleCount; i++) {
+      circles.add(await _measure('circle#add', () {
+        return controller.addCircle(CircleOptions(
+          geometry: _randomLatLng(),
+          circleRadius: 4.0,
+          circleColor: '#FF0000',
+        ));
+      }));
+    }
+    for (int i = 0; i < workload.lineCount; i++) {
+      await _measure('line#add', () {
+        return controller.addLine(LineOptions(
+          geometry: _randomTrack(),
+          lineColor: '#3BB2D0',
+          lineWidth: 2.0,
+        ));
+      });
+    }
+    _updateClock.start();
+    for (int round = 0; round < workload.updateRounds; round++) {
+      for (Symbol symbol in symbols) {
+        await _pace();
+        await _measure('symbol#update', () {
+          return controller.updateSymbol(
+              symbol, SymbolOptions(geometry: _randomLatLng()));
+        });
+      }
+      for (Circle circle in circles) {
+        await _pace();
+        await _measure('circle#update', () {
+          return controller.updateCircle(
+              circle, CircleOptions(geometry: _randomLatLng()));
+        });
+      }
+      final int churned = (symbols.length * workload.churn).floor();
+      for (int i = 0; i < churned; i++) {
+        final Symbol removed =
+            symbols.removeAt(_random.nextInt(symbols.length));
+        await _measure('symbol#remove', () => controller.removeSymbol(removed));
+        symbols.add(await _addSymbol());
+      }
+    }
+    total.stop();
+    await controller.clearSymbols();
+    await controller.clearCircles();
+    await controller.clearLines();
+    return _report(total.elapsed, startRss);
+  }
+
+  String _report(Duration elapsed, int startRss) {
+    final StringBuffer report = StringBuffer();
+    int calls = 0;
+    _samples.forEach((String operation, _Samples samples) {
+      calls += samples.count;
+      report.writeln('$operation: ${samples.count} calls, '
+          'p50 ${samples.percentile(0.5)} us, '
+          'p99 ${samples.percentile(0.99)} us');
+    });
+    final double seconds = elapsed.inMicroseconds / Duration.microsecondsPerSecond;
+    report.writeln('$calls calls in ${seconds.toStringAsFixed(1)} s, '
+        '${(calls / seconds).toStringAsFixed(0)} calls/s');
+    // The Dart heap, the Java heap and the native map share the process, so
+    // its peak resident set size is the heap peak that matters on a device.
+    report.writeln('peak RSS ${_megabytes(ProcessInfo.maxRss)} MB, '
+        '${_megabytes(startRss)} MB before the run');
+    return report.toString();
+  }
+
+  static String _megabytes(int bytes) {
+    return (bytes / (1024 * 1024)).toStringAsFixed(1);
+  }
+}
+
+class StressBody extends StatefulWidget {
+  const StressBody();
+
+  @override
+  State<StatefulWidget> createState() => StressBodyState();
+}
+
+class StressBodyState extends State<StressBody> {
+  StressBodyState();
+
+  static final LatLng center = const LatLng(-33.86711, 151.1947171);
+
+  static const List<int> _updateRates = <int>[null, 10, 30, 60, 120];
+
+  MapboxMapController controller;
+  bool _running = false;
+  int _updatesPerSecond;
+  String _report = '';
+
+  void _onMapCreated(MapboxMapController controller) {
+    setState(() {
+      this.controller = controller;
+    });
+  }
+
+  Future<void> _run(StressWorkload workload) async {
+    if (controller == null) {
+      return;
+    }
+    setState(() {
+      _running = true;
+      _report = 'Running...';
+    });
+    final StressRunner runner = StressRunner(
+        controller, workload.withUpdatesPerSecond(_updatesPerSecond), center);
+    final String report = await runner.run();
+    debugPrint(report);
+    if (!mounted) {
+      return;
+    }
+    setState(() {
+      _running = false;
+      _report = report;
+    });
+  }
+
+  @override
+  Widget build(BuildContext context) {
+    return Column(
+      mainAxisAlignment: MainAxisAlignment.spaceEvenly,
+      crossAxisAlignment: CrossAxisAlignment.stretch,
+      children: <Widget>[
+        Center(
+          child: SizedBox(
+            width: 300.0,
+            height: 200.0,
+            child: MapboxMap(
+              onMapCreated: _onMapCreated,
+              initialCameraPosition: const CameraPosition(
+                target: LatLng(-33.852, 151.211),
+                zoom: 10.0,
+              ),
+            ),
+          ),
+        ),
+        Row(
+          mainAxisAlignment: MainAxisAlignment.center,
+          children: <Widget>[
+            const Text('updates per second: '),
+            DropdownButton<int>(
+              value: _updatesPerSecond,
+              items: _updateRates.map((int rate) {
+                return DropdownMenuItem<int>(
+                  value: rate,
+                  child: Text(rate == null ? 'unlimited' : '$rate'),
+                );
+              }).toList(),
+              onChanged: _running
+                  ? null
+                  : (int rate) {
+                      setState(() {
+                        _updatesPerSecond = rate;
+                      });
+                    },
+            ),
+          ],
+        ),
+        Row(
+          mainAxisAlignment: MainAxisAlignment.spaceEvenly,
+          children: <Widget>[
+            FlatButton(
+              child: const Text('small fleet'),
+              onPressed: _running || controller == null
+                  ? null
+                  : () => _run(const StressWorkload()),
+            ),
+            FlatButton(
+              child: const Text('large fleet'),
+              onPressed: _running || controller == null
+                  ? null
+                  : () => _run(const StressWorkload(
+                        symbolCount: 10000,
+                        circleCount: 1000,
+                        lineCount: 50,
+                        lineVertexCount: 2000,
+                        updateRounds: 3,
+                      )),
+            ),
+          ],
+        ),
+        Expanded(
+          child: SingleChildScrollView(
+            child: Text(_report),
+          ),
+        ),
+      ],
+    );
+  }
+}
@@ -6,6 +6,7 @@ library mapbox_gl;
 
 import 'dart:async';
 import 'dart:math';
+import 'dart:typed_data';
 import 'dart:ui';
 
 import 'package:flutter/foundation.dart';
@@ -13,6 +14,7 @@ import 'package:flutter/gestures.dart';
 import 'package:flutter/material.dart';
 import 'package:flutter/services.dart';
 
+part 'src/animation.dart';
 part 'src/bitmap.dart';
 part 'src/callbacks.dart';
 part 'src/camera.dart';
@@ -0,0 +1,73 @@
+// Copyright 2018 The Chromium Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+part of mapbox_gl;
+
+/// Easing curves of a [PropertyAnimation].
+enum AnimationEasing { linear, easeIn, easeOut, easeInOut }
+
+/// A numeric property animation run natively by
+/// [MapboxMapController.animateProperty].
+///
+/// Supported properties are `circleRadius` and `circleOpacity` for circles,
+/// `iconOpacity` and `iconSize` for symbols and `lineOpacity` for lines.
+class PropertyAnimation {
+  const PropertyAnimation({
+    this.from,
+    @required this.to,
+    @required this.duration,
+    this.easing = AnimationEasing.linear,
+    this.repeat = 0,
+    this.reverse = false,
+    this.stopAfter,
+  })  : assert(to != null),
+        assert(duration != null),
+        assert(easing != null),
+        assert(repeat != null),
+        assert(reverse != null);
+
+  /// A pulse that grows and shrinks between [from] and [to] until stopped.
+  const PropertyAnimation.pulse({
+    @required double from,
+    @required double to,
+    Duration duration = const Duration(milliseconds: 800),
+    Duration stopAfter,
+  }) : this(
+            from: from,
+            to: to,
+            duration: duration,
+            easing: AnimationEasing.easeInOut,
+            repeat: -1,
+            reverse: true,
+            stopAfter: stopAfter);
+
+  /// Start value, the current value of the property if null.
+  final double from;
+  final double to;
+
+  /// Duration of a single run from [from] to [to].
+  final Duration duration;
+  final AnimationEasing easing;
+
+  /// Number of runs after the first one, negative values loop until stopped.
+  final int repeat;
+
+  /// Whether every other run goes back from [to] to [from].
+  final bool reverse;
+
+  /// Stops the animation after this duration, even if it loops.
+  final Duration stopAfter;
+
+  dynamic _toJson() {
+    return <String, dynamic>{
+      'from': from,
+      'to': to,
+      'durationMs': duration.inMilliseconds,
+      'easing': easing.toString().split('.').last,
+      'repeat': repeat,
+      'reverse': reverse,
+      'stopAfterMs': stopAfter?.inMilliseconds ?? 0,
+    };
+  }
+}
@@ -190,3 +190,95 @@ class CameraUpdate {
 
   dynamic _toJson() => _json;
 }
+
+/// A single step of a camera timeline played by
+/// [MapboxMapController.playCameraTimeline].
+///
+/// Null fields keep the value the camera has when the keyframe starts.
+class CameraKeyframe {
+  const CameraKeyframe({
+    this.target,
+    this.zoom,
+    this.bearing,
+    this.tilt,
+    this.padding,
+    this.duration = const Duration(seconds: 1),
+    this.easing = CameraEasing.ease,
+  }) : assert(duration != null),
+       assert(easing != null);
+
+  final LatLng target;
+  final double zoom;
+  final double bearing;
+  final double tilt;
+
+  /// Insets of the map viewport applied from this keyframe on, in logical
+  /// pixels.
+  final EdgeInsets padding;
+
+  /// Duration of the transition to this keyframe, [Duration.zero] jumps.
+  final Duration duration;
+  final CameraEasing easing;
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('target', target?._toJson());
+    addIfPresent('zoom', zoom);
+    addIfPresent('bearing', bearing);
+    addIfPresent('tilt', tilt);
+    addIfPresent('padding', padding == null
+        ? null
+        : <double>[padding.left, padding.top, padding.right, padding.bottom]);
+    json['duration'] = duration.inMilliseconds;
+    json['easing'] = _easingNames[easing];
+    return json;
+  }
+
+  static const Map<CameraEasing, String> _easingNames = <CameraEasing, String>{
+    CameraEasing.ease: 'ease',
+    CameraEasing.linear: 'linear',
+    CameraEasing.fly: 'fly',
+    CameraEasing.jump: 'jump',
+  };
+}
+
+/// How the camera moves to a [CameraKeyframe].
+enum CameraEasing {
+  /// Eases in and out of the transition.
+  ease,
+
+  /// Moves at a constant speed.
+  linear,
+
+  /// Zooms out and back in along a flight path, for long distances.
+  fly,
+
+  /// Moves immediately, ignoring the duration.
+  jump,
+}
+
+/// Progress of a camera timeline, reported to
+/// [MapboxMapController.onCameraTimeline].
+class CameraTimelineEvent {
+  const CameraTimelineEvent._(this.timeline, this.keyframe, this.keyframeCount,
+      this.finished, this.cancelled);
+
+  /// Id returned by [MapboxMapController.playCameraTimeline].
+  final int timeline;
+
+  /// Index of the keyframe that was reached, null for finish events.
+  final int keyframe;
+  final int keyframeCount;
+  final bool finished;
+
+  /// Whether the timeline was cancelled, by a gesture, a new timeline or
+  /// [MapboxMapController.cancelCameraTimeline].
+  final bool cancelled;
+}
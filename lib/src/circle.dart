@@ -45,6 +45,8 @@ class CircleOptions {
      this.circleStrokeOpacity,
      this.geometry,
      this.draggable,
+     this.minZoom,
+     this.maxZoom,
   });
 
   final double circleRadius;
@@ -57,6 +59,13 @@ class CircleOptions {
   final LatLng geometry;
   final bool draggable;
 
+  /// The annotation is only shown at camera zoom levels of at least
+  /// [minZoom] and below [maxZoom]. Evaluated on the platform side when the
+  /// camera becomes idle. Use [MapboxMapController.setZoomRange] to clear
+  /// a bound. Android only.
+  final double minZoom;
+  final double maxZoom;
+
   static const CircleOptions defaultOptions = CircleOptions(
 
   );
@@ -75,6 +84,8 @@ class CircleOptions {
       circleStrokeOpacity: changes.circleStrokeOpacity ?? circleStrokeOpacity,
       geometry: changes.geometry ?? geometry,
       draggable: changes.draggable ?? draggable,
+      minZoom: changes.minZoom ?? minZoom,
+      maxZoom: changes.maxZoom ?? maxZoom,
     );
   }
 
@@ -96,6 +107,77 @@ class CircleOptions {
     addIfPresent('circleStrokeOpacity', circleStrokeOpacity);
     addIfPresent('geometry', geometry?._toJson());
     addIfPresent('draggable', draggable);
+    addIfPresent('minZoom', minZoom);
+    addIfPresent('maxZoom', maxZoom);
     return json;
   }
-}
\ No newline at end of file
+}
+/// A circle with a radius in meters, drawn as a filled polygon that keeps its
+/// geographic size at every zoom level. Android only.
+class GeoCircle {
+  @visibleForTesting
+  GeoCircle(this._id, this._options);
+
+  final String _id;
+
+  String get id => _id;
+
+  GeoCircleOptions _options;
+
+  /// The options most recently applied via the map controller.
+  GeoCircleOptions get options => _options;
+}
+
+/// Configuration options for [GeoCircle] instances.
+///
+/// When used to change configuration, null values will be interpreted as
+/// "do not change this configuration option".
+class GeoCircleOptions {
+  const GeoCircleOptions({
+    this.center,
+    this.radius,
+    this.fillColor,
+    this.fillOpacity,
+    this.fillOutlineColor,
+  });
+
+  final LatLng center;
+
+  /// Radius in meters.
+  final double radius;
+  final String fillColor;
+  final double fillOpacity;
+  final String fillOutlineColor;
+
+  static const GeoCircleOptions defaultOptions = GeoCircleOptions();
+
+  GeoCircleOptions copyWith(GeoCircleOptions changes) {
+    if (changes == null) {
+      return this;
+    }
+    return GeoCircleOptions(
+      center: changes.center ?? center,
+      radius: changes.radius ?? radius,
+      fillColor: changes.fillColor ?? fillColor,
+      fillOpacity: changes.fillOpacity ?? fillOpacity,
+      fillOutlineColor: changes.fillOutlineColor ?? fillOutlineColor,
+    );
+  }
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('center', center?._toJson());
+    addIfPresent('radius', radius);
+    addIfPresent('fillColor', fillColor);
+    addIfPresent('fillOpacity', fillOpacity);
+    addIfPresent('fillOutlineColor', fillOutlineColor);
+    return json;
+  }
+}
@@ -68,15 +68,28 @@ class MapboxMapController extends ChangeNotifier {
   /// Callbacks to receive dragEnd events for symbols placed on this map.
   final ArgumentCallbacks<Circle> onCircleDragEnd = ArgumentCallbacks<Circle>();
 
+  /// Callbacks to receive progress of timelines started with
+  /// [playCameraTimeline].
+  final ArgumentCallbacks<CameraTimelineEvent> onCameraTimeline =
+      ArgumentCallbacks<CameraTimelineEvent>();
+
   /// Callbacks to receive tap events for info windows on symbols
   final ArgumentCallbacks<Symbol> onInfoWindowTapped =
       ArgumentCallbacks<Symbol>();
 
+  /// Callbacks to receive transitions of the geofences loaded with
+  /// [loadGeofences].
+  final ArgumentCallbacks<GeofenceEvent> onGeofenceTransition =
+      ArgumentCallbacks<GeofenceEvent>();
+
   /// The current set of symbols on this map.
   ///
   /// The returned set will be a detached snapshot of the symbols collection.
   Set<Symbol> get symbols => Set<Symbol>.from(_symbols.values);
   final Map<String, Symbol> _symbols = <String, Symbol>{};
+  final Map<String, SymbolOptions> _symbolTemplates = <String, SymbolOptions>{};
+  final Map<String, Symbol> _syncedSymbols = <String, Symbol>{};
+  final Map<String, int> _syncedHashes = <String, int>{};
 
   /// Callbacks to receive tap events for lines placed on this map.
   final ArgumentCallbacks<Line> onLineTapped = ArgumentCallbacks<Line>();
@@ -93,10 +106,20 @@ class MapboxMapController extends ChangeNotifier {
   Set<Circle> get circles => Set<Circle>.from(_circles.values);
   final Map<String, Circle> _circles = <String, Circle>{};
 
+  /// The current set of metric circles on this map.
+  ///
+  /// The returned set will be a detached snapshot of the circles collection.
+  Set<GeoCircle> get geoCircles => Set<GeoCircle>.from(_geoCircles.values);
+  final Map<String, GeoCircle> _geoCircles = <String, GeoCircle>{};
+
   /// True if the map camera is currently moving.
   bool get isCameraMoving => _isCameraMoving;
   bool _isCameraMoving = false;
 
+  /// True while the camera follows an annotation, see [followSymbol].
+  bool get isFollowingAnnotation => _isFollowingAnnotation;
+  bool _isFollowingAnnotation = false;
+
   /// Returns the most recent camera position reported by the platform side.
   /// Will be null, if [MapboxMap.trackCameraPosition] is false.
   CameraPosition get cameraPosition => _cameraPosition;
@@ -167,6 +190,22 @@ class MapboxMapController extends ChangeNotifier {
         _isCameraMoving = false;
         notifyListeners();
         break;
+      case 'camera#onFollowDismissed':
+        _isFollowingAnnotation = false;
+        notifyListeners();
+        break;
+      case 'camera#onTimelineProgress':
+        onCameraTimeline(CameraTimelineEvent._(
+            call.arguments['timeline'],
+            call.arguments['keyframe'],
+            call.arguments['keyframeCount'],
+            false,
+            false));
+        break;
+      case 'camera#onTimelineFinished':
+        onCameraTimeline(CameraTimelineEvent._(
+            call.arguments['timeline'], null, null, true, call.arguments['cancelled']));
+        break;
       case 'map#onMapClick':
         final double x = call.arguments['x'];
         final double y = call.arguments['y'];
@@ -176,6 +215,15 @@ class MapboxMapController extends ChangeNotifier {
           onMapClick(Point<double>(x, y), LatLng(lat, lng));
         }
         break;
+      case 'geofence#onTransitions':
+        final DateTime time =
+            DateTime.fromMillisecondsSinceEpoch(call.arguments['time']);
+        final LatLng position = LatLng._fromJson(call.arguments['latLng']);
+        for (dynamic transition in call.arguments['transitions']) {
+          onGeofenceTransition(GeofenceEvent._(transition[0],
+              GeofenceTransition.values[transition[1]], time, position));
+        }
+        break;
       case 'map#onCameraTrackingDismissed':
         if (onCameraTrackingDismissed != null) {
           onCameraTrackingDismissed();
@@ -224,6 +272,101 @@ class MapboxMapController extends ChangeNotifier {
     });
   }
 
+  /// Plays the given [keyframes] one after another on the platform side.
+  ///
+  /// Starting a timeline cancels the one that is running. Progress is reported
+  /// to [onCameraTimeline]. The returned [Future] completes with the id of the
+  /// timeline once it has been started. Android only.
+  Future<int> playCameraTimeline(List<CameraKeyframe> keyframes) async {
+    assert(keyframes != null);
+    return await _channel.invokeMethod('camera#playTimeline', <String, dynamic>{
+      'keyframes': keyframes.map((CameraKeyframe keyframe) => keyframe._toJson()).toList(),
+    });
+  }
+
+  /// Moves the camera so that the given annotations are visible, with the
+  /// bounds computed on the platform side from their current geometry.
+  ///
+  /// [padding] insets the bounds from the map edges in logical pixels. A
+  /// non-zero [duration] eases the camera instead of moving it. The returned
+  /// [Future] completes with false if no annotation was given. Android only.
+  Future<bool> fitAnnotations({
+    Iterable<Symbol> symbols = const <Symbol>[],
+    Iterable<Line> lines = const <Line>[],
+    Iterable<Circle> circles = const <Circle>[],
+    EdgeInsets padding = EdgeInsets.zero,
+    Duration duration = Duration.zero,
+  }) async {
+    return await _channel.invokeMethod('camera#fitAnnotations', <String, dynamic>{
+      'symbols': symbols.map((Symbol symbol) => symbol._id).toList(),
+      'lines': lines.map((Line line) => line._id).toList(),
+      'circles': circles.map((Circle circle) => circle._id).toList(),
+      'padding': <double>[padding.left, padding.top, padding.right, padding.bottom],
+      'durationMs': duration.inMilliseconds,
+    });
+  }
+
+  /// Keeps the camera on [symbol] whenever its geometry changes on the
+  /// platform side, without further camera calls.
+  ///
+  /// A non-zero [smoothing] eases the camera to each new position. With
+  /// [lookAheadMeters] the camera targets a point ahead of the symbol in its
+  /// direction of travel, [alignBearing] rotates the map to that direction.
+  /// Following stops on user gestures, when the symbol is removed or on
+  /// [stopFollowing]; listeners are notified through
+  /// [isFollowingAnnotation]. Android only.
+  Future<void> followSymbol(Symbol symbol,
+      {Duration smoothing = Duration.zero,
+      double lookAheadMeters = 0.0,
+      bool alignBearing = false,
+      double zoom}) async {
+    assert(symbol != null);
+    assert(_symbols[symbol._id] == symbol);
+    await _followAnnotation('symbol', symbol._id, smoothing, lookAheadMeters,
+        alignBearing, zoom);
+  }
+
+  /// Like [followSymbol], for a [circle]. Android only.
+  Future<void> followCircle(Circle circle,
+      {Duration smoothing = Duration.zero,
+      double lookAheadMeters = 0.0,
+      bool alignBearing = false,
+      double zoom}) async {
+    assert(circle != null);
+    assert(_circles[circle._id] == circle);
+    await _followAnnotation('circle', circle._id, smoothing, lookAheadMeters,
+        alignBearing, zoom);
+  }
+
+  Future<void> _followAnnotation(String type, String id, Duration smoothing,
+      double lookAheadMeters, bool alignBearing, double zoom) async {
+    await _channel.invokeMethod('camera#followAnnotation', <String, dynamic>{
+      'type': type,
+      'id': id,
+      'options': <String, dynamic>{
+        'smoothingMs': smoothing.inMilliseconds,
+        'lookAheadMeters': lookAheadMeters,
+        'alignBearing': alignBearing,
+        'zoom': zoom,
+      },
+    });
+    _isFollowingAnnotation = true;
+    notifyListeners();
+  }
+
+  /// Stops following the annotation passed to [followSymbol] or
+  /// [followCircle].
+  Future<void> stopFollowing() async {
+    await _channel.invokeMethod('camera#stopFollowing');
+    _isFollowingAnnotation = false;
+    notifyListeners();
+  }
+
+  /// Cancels the timeline started by [playCameraTimeline], if any.
+  Future<void> cancelCameraTimeline() async {
+    await _channel.invokeMethod('camera#cancelTimeline');
+  }
+
   Future<void> addImages(Map<String, String> imagesMap) async {
     await _channel.invokeMethod(
       'style#addImages',
@@ -240,13 +383,20 @@ class MapboxMapController extends ChangeNotifier {
   ///
   /// The returned [Future] completes with the added symbol once listeners have
   /// been notified.
-  Future<Symbol> addSymbol(SymbolOptions options) async {
+  ///
+  /// With a [group] the symbol is added to that annotation group, which is
+  /// created on first use. The [tags] can be matched by an [AnnotationFilter].
+  /// Android only.
+  Future<Symbol> addSymbol(SymbolOptions options,
+      {String group, List<String> tags}) async {
     final SymbolOptions effectiveOptions =
         SymbolOptions.defaultOptions.copyWith(options);
     final String symbolId = await _channel.invokeMethod(
       'symbol#add',
       <String, dynamic>{
         'options': effectiveOptions._toJson(),
+        'group': group,
+        'tags': tags,
       },
     );
     final Symbol symbol = Symbol(symbolId, effectiveOptions);
@@ -255,6 +405,188 @@ class MapboxMapController extends ChangeNotifier {
     return symbol;
   }
 
+  /// Replaces the tags of [symbol] that an [AnnotationFilter] can match, null
+  /// removes all tags. Android only.
+  Future<void> setSymbolTags(Symbol symbol, List<String> tags) async {
+    assert(symbol != null);
+    assert(_symbols[symbol._id] == symbol);
+    await _channel.invokeMethod('symbol#setTags', <String, dynamic>{
+      'symbol': symbol._id,
+      'tags': tags,
+    });
+  }
+
+  /// Applies [changes] to every symbol matched by [filter].
+  ///
+  /// The filter is evaluated and the changes are decoded once on the platform
+  /// side, followed by a single update per annotation group, instead of one
+  /// [updateSymbol] call per symbol. Symbols added by [syncSymbols] are
+  /// matched as well.
+  ///
+  /// The returned [Future] completes with the updated symbols once listeners
+  /// have been notified. Android only.
+  Future<List<Symbol>> updateSymbolsWhere(
+      AnnotationFilter filter, SymbolOptions changes) async {
+    assert(filter != null);
+    assert(changes != null);
+    final List<dynamic> symbolIds = await _channel.invokeMethod(
+      'annotations#updateWhere',
+      <String, dynamic>{
+        'filter': filter._toJson(),
+        'options': changes._toJson(),
+      },
+    );
+    final List<Symbol> updated = <Symbol>[];
+    for (String symbolId in symbolIds.cast<String>()) {
+      final Symbol symbol = _symbols[symbolId];
+      if (symbol != null) {
+        symbol._options = symbol._options.copyWith(changes);
+        updated.add(symbol);
+      }
+    }
+    notifyListeners();
+    return updated;
+  }
+
+  /// Registers [options] under [name] for [addSymbolsFromTemplate].
+  ///
+  /// The options are sent and decoded once on the platform side, registering
+  /// the same name again replaces the template. Android only.
+  Future<void> registerSymbolTemplate(String name, SymbolOptions options) async {
+    assert(name != null);
+    final SymbolOptions effectiveOptions =
+        SymbolOptions.defaultOptions.copyWith(options);
+    await _channel.invokeMethod('symbol#registerTemplate', <String, dynamic>{
+      'name': name,
+      'options': effectiveOptions._toJson(),
+    });
+    _symbolTemplates[name] = effectiveOptions;
+  }
+
+  /// Removes the template registered under [name]. Symbols added from it are
+  /// not affected.
+  Future<void> unregisterSymbolTemplate(String name) async {
+    await _channel.invokeMethod('symbol#unregisterTemplate', <String, dynamic>{
+      'name': name,
+    });
+    _symbolTemplates.remove(name);
+  }
+
+  /// Adds one symbol per entry of [geometries], styled by the template
+  /// registered under [name].
+  ///
+  /// Only the coordinates cross the channel, packed in a single
+  /// [Float64List]. The optional [overrides] must have the same length as
+  /// [geometries] and may contain null for symbols that use the template as
+  /// is.
+  ///
+  /// Change listeners are notified once the symbols have been added on the
+  /// platform side. With a [group] the symbols are added to that annotation
+  /// group.
+  Future<List<Symbol>> addSymbolsFromTemplate(
+      String name, List<LatLng> geometries,
+      {List<SymbolOptions> overrides, String group}) async {
+    final SymbolOptions template = _symbolTemplates[name];
+    assert(template != null);
+    assert(geometries != null);
+    assert(overrides == null || overrides.length == geometries.length);
+    final Float64List packed = Float64List(geometries.length * 2);
+    for (int i = 0; i < geometries.length; i++) {
+      packed[2 * i] = geometries[i].latitude;
+      packed[2 * i + 1] = geometries[i].longitude;
+    }
+    final List<dynamic> symbolIds = await _channel.invokeMethod(
+      'symbol#addFromTemplate',
+      <String, dynamic>{
+        'name': name,
+        'geometries': packed,
+        'overrides': overrides
+            ?.map((SymbolOptions override) => override?._toJson())
+            ?.toList(),
+        'group': group,
+      },
+    );
+    final List<Symbol> added = <Symbol>[];
+    for (int i = 0; i < symbolIds.length; i++) {
+      final SymbolOptions options = template
+          .copyWith(overrides == null ? null : overrides[i])
+          .copyWith(SymbolOptions(geometry: geometries[i]));
+      final Symbol symbol = Symbol(symbolIds[i], options);
+      _symbols[symbol._id] = symbol;
+      added.add(symbol);
+    }
+    notifyListeners();
+    return added;
+  }
+
+  /// Makes the symbols managed by [syncSymbols] match [desired], keyed by
+  /// caller supplied ids.
+  ///
+  /// The platform side compares the [SymbolSyncEntry.hash] of every key with
+  /// the one of the previous sync and applies only the minimal set of adds,
+  /// updates and removes in one batch. Options of keys whose hash did not
+  /// change since the last acknowledged sync are neither sent nor decoded.
+  /// Symbols added with [addSymbol] are not affected.
+  ///
+  /// The returned [Future] completes with the synced symbols by key once
+  /// listeners have been notified. Android only.
+  Future<Map<String, Symbol>> syncSymbols(
+      Map<String, SymbolSyncEntry> desired) async {
+    assert(desired != null);
+    final List<dynamic> entries = <dynamic>[];
+    final Map<String, SymbolOptions> effectiveOptions = <String, SymbolOptions>{};
+    desired.forEach((String key, SymbolSyncEntry entry) {
+      final Map<String, dynamic> json = <String, dynamic>{
+        'key': key,
+        'hash': entry.hash,
+      };
+      final Symbol current = _syncedSymbols[key];
+      if (current == null || _syncedHashes[key] != entry.hash) {
+        final SymbolOptions options = current != null
+            ? entry.options
+            : SymbolOptions.defaultOptions.copyWith(entry.options);
+        effectiveOptions[key] = options;
+        json['options'] = options._toJson();
+        json['tags'] = entry.tags;
+      }
+      entries.add(json);
+    });
+    final Map<dynamic, dynamic> reply = await _channel.invokeMethod(
+      'symbols#sync',
+      <String, dynamic>{'symbols': entries},
+    );
+    for (String key in reply['removed']) {
+      final Symbol symbol = _syncedSymbols.remove(key);
+      _syncedHashes.remove(key);
+      _symbols.remove(symbol?._id);
+    }
+    for (String key in reply['updated']) {
+      final Symbol symbol = _syncedSymbols[key];
+      symbol._options = symbol._options.copyWith(effectiveOptions[key]);
+      _syncedHashes[key] = desired[key].hash;
+    }
+    final Map<dynamic, dynamic> added = reply['added'];
+    added.forEach((dynamic key, dynamic symbolId) {
+      final Symbol symbol = Symbol(symbolId, effectiveOptions[key]);
+      _symbols[symbolId] = symbol;
+      _syncedSymbols[key] = symbol;
+      _syncedHashes[key] = desired[key].hash;
+    });
+    // Symbols removed on the platform side since the last sync, for example
+    // by a group clear, are sent again with their options.
+    final List<dynamic> missing = reply['missing'];
+    if (missing.isNotEmpty) {
+      for (String key in missing) {
+        final Symbol symbol = _syncedSymbols.remove(key);
+        _syncedHashes.remove(key);
+        _symbols.remove(symbol?._id);
+      }
+      return syncSymbols(desired);
+    }
+    notifyListeners();
+    return Map<String, Symbol>.from(_syncedSymbols);
+  }
+
   /// Updates the specified [symbol] with the given [changes]. The symbol must
   /// be a current member of the [symbols] set.
   ///
@@ -274,6 +606,94 @@ class MapboxMapController extends ChangeNotifier {
     notifyListeners();
   }
 
+  /// Moves [symbol] smoothly to [geometry] on the platform side, interpolating
+  /// its position on every frame.
+  ///
+  /// The move takes [duration]. Without a duration it lasts from the
+  /// [timestamp] of the previous call for this symbol to the given one, so
+  /// forwarding the timestamps of sparse position reports keeps the symbol
+  /// moving at the reported pace. The icon turns to [iconRotate], or to the
+  /// direction of travel with [alignToPath]. Android only.
+  Future<void> animateSymbol(Symbol symbol, LatLng geometry,
+      {Duration duration,
+      DateTime timestamp,
+      double iconRotate,
+      bool alignToPath = false}) async {
+    assert(symbol != null);
+    assert(_symbols[symbol._id] == symbol);
+    assert(geometry != null);
+    assert(duration != null || timestamp != null);
+    // The platform replies with the rotation the icon turns to, which it
+    // computes itself with alignToPath.
+    final double rotation =
+        await _channel.invokeMethod('symbol#animateTo', <String, dynamic>{
+      'symbol': symbol._id,
+      'geometry': geometry._toJson(),
+      'durationMs': duration?.inMilliseconds,
+      'timestampMs': timestamp?.millisecondsSinceEpoch,
+      'iconRotate': iconRotate,
+      'alignToPath': alignToPath,
+    });
+    symbol._options = symbol._options.copyWith(
+        SymbolOptions(geometry: geometry, iconRotate: rotation));
+  }
+
+  /// Animates a numeric [property] of a [Symbol], [Circle] or [Line] on the
+  /// platform side.
+  ///
+  /// All running animations of a map share one frame clock and are written
+  /// to the map with one update per frame. Starting an animation replaces the
+  /// running animation of the same property. The options of [annotation] are
+  /// not updated. Android only.
+  Future<void> animateProperty(
+      dynamic annotation, String property, PropertyAnimation animation) async {
+    assert(property != null);
+    assert(animation != null);
+    final Map<String, dynamic> arguments = _annotationArguments(annotation);
+    arguments['property'] = property;
+    arguments['animation'] = animation._toJson();
+    await _channel.invokeMethod('annotation#animateProperty', arguments);
+  }
+
+  /// Stops the animation of [property] started by [animateProperty], or all
+  /// animations of [annotation] if [property] is null. The property keeps its
+  /// current value.
+  Future<void> stopPropertyAnimation(dynamic annotation, [String property]) async {
+    final Map<String, dynamic> arguments = _annotationArguments(annotation);
+    arguments['property'] = property;
+    await _channel.invokeMethod('annotation#stopAnimation', arguments);
+  }
+
+  /// Shows [annotation] only at camera zoom levels of at least [minZoom] and
+  /// below [maxZoom], replacing both bounds of its range. A null bound leaves
+  /// that side unbounded, so calling this without bounds clears the range that
+  /// was set through the `minZoom` and `maxZoom` options. The options of
+  /// [annotation] are not updated. Android only.
+  Future<void> setZoomRange(dynamic annotation,
+      {double minZoom, double maxZoom}) async {
+    assert(minZoom == null || maxZoom == null || minZoom <= maxZoom);
+    final Map<String, dynamic> arguments = _annotationArguments(annotation);
+    final String type = arguments['type'];
+    await _channel.invokeMethod('$type#update', <String, dynamic>{
+      type: arguments['id'],
+      'options': <String, dynamic>{'minZoom': minZoom, 'maxZoom': maxZoom},
+    });
+  }
+
+  Map<String, dynamic> _annotationArguments(dynamic annotation) {
+    if (annotation is Symbol) {
+      assert(_symbols[annotation._id] == annotation);
+      return <String, dynamic>{'type': 'symbol', 'id': annotation._id};
+    } else if (annotation is Circle) {
+      assert(_circles[annotation._id] == annotation);
+      return <String, dynamic>{'type': 'circle', 'id': annotation._id};
+    } else if (annotation is Line) {
+      assert(_lines[annotation._id] == annotation);
+      return <String, dynamic>{'type': 'line', 'id': annotation._id};
+    }
+    throw ArgumentError.value(annotation, 'annotation', 'Not a Symbol, Circle or Line');
+  }
+
   /// Removes the specified [symbol] from the map. The symbol must be a current
   /// member of the [symbols] set.
   ///
@@ -313,6 +733,9 @@ class MapboxMapController extends ChangeNotifier {
       'symbol': id,
     });
     _symbols.remove(id);
+    _syncedSymbols.removeWhere((String key, Symbol symbol) => symbol._id == id);
+    _syncedHashes
+        .removeWhere((String key, int hash) => !_syncedSymbols.containsKey(key));
   }
 
   /// Adds a line to the map, configured using the specified custom [options].
@@ -322,13 +745,17 @@ class MapboxMapController extends ChangeNotifier {
   ///
   /// The returned [Future] completes with the added line once listeners have
   /// been notified.
-  Future<Line> addLine(LineOptions options) async {
+  ///
+  /// With a [group] the line is added to that annotation group, which is
+  /// created on first use. Android only.
+  Future<Line> addLine(LineOptions options, {String group}) async {
     final LineOptions effectiveOptions =
         LineOptions.defaultOptions.copyWith(options);
     final String lineId = await _channel.invokeMethod(
       'line#add',
       <String, dynamic>{
         'options': effectiveOptions._toJson(),
+        'group': group,
       },
     );
     final Line line = Line(lineId, effectiveOptions);
@@ -397,6 +824,45 @@ class MapboxMapController extends ChangeNotifier {
     _lines.remove(id);
   }
 
+  /// Starts appending the location fixes of the user to the geometry of
+  /// [line] on the platform side, continuing from its current geometry.
+  ///
+  /// Fixes closer than [minDistanceMeters] to the last point are dropped and
+  /// fixes turning less than [minAngleDegrees] from the last segment replace
+  /// its end point. Beyond [maxPoints] the oldest points are dropped. Only one
+  /// line records at a time; starting another one stops the previous one.
+  ///
+  /// The recorded points are not reflected in `line.options`, use
+  /// [exportBreadcrumbs] to read the trail. Android only.
+  Future<void> startBreadcrumbs(Line line,
+      {int maxPoints = 10000,
+      double minDistanceMeters = 5.0,
+      double minAngleDegrees = 10.0}) async {
+    assert(_lines[line._id] == line);
+    assert(maxPoints >= 2);
+    await _channel.invokeMethod('breadcrumb#start', <String, dynamic>{
+      'line': line._id,
+      'maxPoints': maxPoints,
+      'minDistanceMeters': minDistanceMeters,
+      'minAngleDegrees': minAngleDegrees,
+    });
+  }
+
+  /// Stops recording started with [startBreadcrumbs], keeping the trail for
+  /// [exportBreadcrumbs].
+  Future<void> stopBreadcrumbs() async {
+    await _channel.invokeMethod('breadcrumb#stop');
+  }
+
+  /// Returns the recorded trail as an encoded polyline with [precision]
+  /// decimal digits, or null if nothing has been recorded or the line has
+  /// been removed. Android only.
+  Future<String> exportBreadcrumbs({int precision = 6}) async {
+    return await _channel.invokeMethod('breadcrumb#export', <String, dynamic>{
+      'precision': precision,
+    });
+  }
+
   /// Adds a circle to the map, configured using the specified custom [options].
   ///
   /// Change listeners are notified once the circle has been added on the
@@ -404,13 +870,17 @@ class MapboxMapController extends ChangeNotifier {
   ///
   /// The returned [Future] completes with the added circle once listeners have
   /// been notified.
-  Future<Circle> addCircle(CircleOptions options) async {
+  ///
+  /// With a [group] the circle is added to that annotation group, which is
+  /// created on first use. Circles of a group cannot be dragged. Android only.
+  Future<Circle> addCircle(CircleOptions options, {String group}) async {
     final CircleOptions effectiveOptions =
     CircleOptions.defaultOptions.copyWith(options);
     final String circleId = await _channel.invokeMethod(
       'circle#add',
       <String, dynamic>{
         'options': effectiveOptions._toJson(),
+        'group': group,
       },
     );
     final Circle circle = Circle(circleId, effectiveOptions);
@@ -493,9 +963,170 @@ class MapboxMapController extends ChangeNotifier {
     _circles.remove(id);
   }
 
+  /// Adds a circle with a radius in meters to the map.
+  ///
+  /// The circle is drawn as a geodesic polygon below lines and symbols. Its
+  /// vertex count follows its size on screen and is adjusted on the platform
+  /// side when the camera becomes idle, so zooming needs no updates from
+  /// Dart. Android only.
+  Future<GeoCircle> addGeoCircle(GeoCircleOptions options) async {
+    assert(options?.center != null);
+    assert(options.radius != null);
+    final GeoCircleOptions effectiveOptions =
+        GeoCircleOptions.defaultOptions.copyWith(options);
+    final String geoCircleId = await _channel.invokeMethod(
+      'geoCircle#add',
+      <String, dynamic>{
+        'options': effectiveOptions._toJson(),
+      },
+    );
+    final GeoCircle geoCircle = GeoCircle(geoCircleId, effectiveOptions);
+    _geoCircles[geoCircleId] = geoCircle;
+    notifyListeners();
+    return geoCircle;
+  }
+
+  /// Updates the specified [geoCircle] with the given [changes].
+  Future<void> updateGeoCircle(
+      GeoCircle geoCircle, GeoCircleOptions changes) async {
+    assert(geoCircle != null);
+    assert(_geoCircles[geoCircle._id] == geoCircle);
+    assert(changes != null);
+    await _channel.invokeMethod('geoCircle#update', <String, dynamic>{
+      'geoCircle': geoCircle._id,
+      'options': changes._toJson(),
+    });
+    geoCircle._options = geoCircle._options.copyWith(changes);
+    notifyListeners();
+  }
+
+  /// Removes the specified [geoCircle] from the map.
+  Future<void> removeGeoCircle(GeoCircle geoCircle) async {
+    assert(geoCircle != null);
+    assert(_geoCircles[geoCircle._id] == geoCircle);
+    await _channel.invokeMethod('geoCircle#remove', <String, dynamic>{
+      'geoCircle': geoCircle._id,
+    });
+    _geoCircles.remove(geoCircle._id);
+    notifyListeners();
+  }
+
+  /// Replaces the device location with a GPS trace recorded in the file at
+  /// [path], for reproducible tests of location tracking.
+  ///
+  /// The file is GPX, recognized by its `.gpx` extension, or CSV with one fix
+  /// per line as `lat,lng[,timeMillis[,accuracy[,speed[,bearing[,altitude]]]]]`.
+  /// Fixes are played [speed] times faster than recorded, and the trace
+  /// restarts at its end with [loop]. The location component, its tracking
+  /// modes and all location driven features use the replayed fixes; no
+  /// location permission is needed.
+  ///
+  /// The trace is read in the background. The returned [Future] completes
+  /// once the replay starts, or fails with a `ReplayError` if the trace cannot
+  /// be read or [stopLocationReplay] is called first. Android only.
+  Future<void> startLocationReplay(String path,
+      {double speed = 1.0, bool loop = false}) async {
+    assert(speed > 0.0);
+    await _channel.invokeMethod('location#startReplay', <String, dynamic>{
+      'path': path,
+      'speed': speed,
+      'loop': loop,
+    });
+  }
+
+  /// Stops a replay started with [startLocationReplay] and returns to the
+  /// device location.
+  Future<void> stopLocationReplay() async {
+    await _channel.invokeMethod('location#stopReplay');
+  }
+
+  /// Returns a stream of the location fixes of the user.
+  ///
+  /// Fixes less accurate than [maxAccuracyMeters], or closer than
+  /// [minInterval] or [minDistanceMeters] to the previous fix, are dropped on
+  /// the platform side. The remaining fixes are sent at most once per
+  /// [batchInterval]; fixes arriving in between are delivered together.
+  ///
+  /// The platform side feeds a single stream per map, so calls with the same
+  /// options return the same broadcast stream. A call with other options
+  /// restarts it with those options once listened to, and listeners of the
+  /// previous stream stop receiving fixes. Requires the location permission.
+  /// Android only.
+  Stream<UserLocation> locationUpdates({
+    Duration minInterval = Duration.zero,
+    double minDistanceMeters = 0.0,
+    double maxAccuracyMeters,
+    Duration batchInterval = Duration.zero,
+  }) {
+    final Map<String, dynamic> options = <String, dynamic>{
+      'minIntervalMillis': minInterval.inMilliseconds,
+      'minDistanceMeters': minDistanceMeters,
+      'maxAccuracyMeters': maxAccuracyMeters,
+      'batchMillis': batchInterval.inMilliseconds,
+    };
+    if (_locationUpdates == null ||
+        !mapEquals(options, _locationUpdateOptions)) {
+      _locationUpdateOptions = options;
+      _locationUpdates =
+          EventChannel('plugins.flutter.io/mapbox_maps_location_$_id')
+              .receiveBroadcastStream(options)
+              .expand((dynamic packed) => UserLocation._fromPacked(packed));
+    }
+    return _locationUpdates;
+  }
+
+  Stream<UserLocation> _locationUpdates;
+  Map<String, dynamic> _locationUpdateOptions;
+
+  /// Replaces the geofences evaluated on the platform side against the fixes
+  /// of the location component.
+  ///
+  /// [circles] holds latitude, longitude and radius in meters for every id in
+  /// [circleIds]. [polygonCoordinates] holds latitude and longitude pairs and
+  /// [polygonOffsets] the index of the first vertex of every polygon in
+  /// [polygonIds]. Polygons are single rings without holes.
+  ///
+  /// Only transitions cross the channel, they are delivered to
+  /// [onGeofenceTransition]. A geofence is exited once a fix is more than
+  /// [hysteresisMeters] outside of it. With a [dwell] time a
+  /// [GeofenceTransition.dwell] is reported once per visit.
+  ///
+  /// Requires the location permission. Android only.
+  Future<void> loadGeofences({
+    List<String> circleIds = const <String>[],
+    Float64List circles,
+    List<String> polygonIds = const <String>[],
+    Int32List polygonOffsets,
+    Float64List polygonCoordinates,
+    double hysteresisMeters = 20.0,
+    Duration dwell,
+  }) async {
+    assert(circles == null || circles.length == circleIds.length * 3);
+    assert(polygonOffsets == null || polygonOffsets.length == polygonIds.length);
+    await _channel.invokeMethod('geofence#load', <String, dynamic>{
+      'circleIds': circleIds,
+      'circles': circles ?? Float64List(0),
+      'polygonIds': polygonIds,
+      'polygonOffsets': polygonOffsets ?? Int32List(0),
+      'polygonCoordinates': polygonCoordinates ?? Float64List(0),
+      'hysteresisMeters': hysteresisMeters,
+      'dwellMillis': dwell?.inMilliseconds ?? 0,
+    });
+  }
+
+  /// Removes all geofences loaded with [loadGeofences].
+  Future<void> clearGeofences() async {
+    await _channel.invokeMethod('geofence#clear');
+  }
+
   /// 获取设备当前的位置
+  ///
+  /// Returns null while the location of the device is not known yet.
   Future<LatLng> getUserLatLng() async {
     Map rawLatLng = await _channel.invokeMethod('location#getLastLatLng');
+    if (rawLatLng == null) {
+      return null;
+    }
     LatLng userLatLng = new LatLng(rawLatLng['latitude'], rawLatLng['longitude']);
     notifyListeners();
     return userLatLng;
@@ -598,6 +1229,54 @@ class MapboxMapController extends ChangeNotifier {
     );
   }
 
+  /// Places the layers of the annotation group [group] below the style layer
+  /// [belowLayerId], or on top of the style if it is null.
+  ///
+  /// Every group has its own source and layers, so updating an annotation only
+  /// re-encodes the annotations of its group. Group names must not contain
+  /// `:`. Android only.
+  Future<void> setAnnotationGroupBelowLayer(
+      String group, String belowLayerId) async {
+    assert(group != null);
+    await _channel.invokeMethod('group#setBelowLayer', <String, dynamic>{
+      'group': group,
+      'belowLayerId': belowLayerId,
+    });
+  }
+
+  /// Shows or hides all symbols, lines and circles of the annotation group
+  /// [group].
+  ///
+  /// Only the visibility of the group's layers is switched, the annotations
+  /// stay in place, so this takes the same time for any group size. Groups
+  /// hidden before their first annotation is added start out hidden. Android
+  /// only.
+  Future<void> setAnnotationGroupVisible(String group, bool visible) async {
+    assert(group != null);
+    assert(visible != null);
+    await _channel.invokeMethod('group#setVisible', <String, dynamic>{
+      'group': group,
+      'visible': visible,
+    });
+  }
+
+  /// Removes the annotation group [group] together with all of its symbols,
+  /// lines and circles.
+  ///
+  /// Change listeners are notified once the group has been removed on the
+  /// platform side.
+  Future<void> removeAnnotationGroup(String group) async {
+    assert(group != null);
+    await _channel.invokeMethod('group#remove', <String, dynamic>{
+      'group': group,
+    });
+    final String prefix = '$group:';
+    _symbols.removeWhere((String id, Symbol symbol) => id.startsWith(prefix));
+    _lines.removeWhere((String id, Line line) => id.startsWith(prefix));
+    _circles.removeWhere((String id, Circle circle) => id.startsWith(prefix));
+    notifyListeners();
+  }
+
   /// SymbolManager是否能重叠，默认不能
   /// [allowOverlap].
   Future<void> allowSymbolOverlap(bool allowOverlap) async {
@@ -610,6 +1289,40 @@ class MapboxMapController extends ChangeNotifier {
     );
   }
 
+  /// Starts writing every method call sent to the platform side of this map
+  /// to a binary trace file at [path] on the device.
+  ///
+  /// Only one recording is active per map, starting a new one ends the
+  /// previous recording. The trace can be played back with
+  /// [replayChannelRecording]. Android only.
+  Future<void> startChannelRecording(String path) async {
+    assert(path != null);
+    await _channel.invokeMethod('map#startRecording', <String, dynamic>{
+      'path': path,
+    });
+  }
+
+  /// Stops the active recording and returns the number of recorded calls.
+  Future<int> stopChannelRecording() async {
+    return await _channel.invokeMethod('map#stopRecording');
+  }
+
+  /// Replays a trace written by [startChannelRecording] against this map.
+  ///
+  /// With [realtime] the calls keep their original spacing, otherwise they are
+  /// dispatched back to back. The returned map holds the `callCount`, the
+  /// `errorCount` of calls that failed and the `elapsedMillis` of the replay.
+  /// Starting another replay cancels this one, its future then completes with
+  /// a `ReplayCancelled` error. Android only.
+  Future<Map<dynamic, dynamic>> replayChannelRecording(String path,
+      {bool realtime = true}) async {
+    assert(path != null);
+    return await _channel.invokeMethod('map#replayRecording', <String, dynamic>{
+      'path': path,
+      'realtime': realtime,
+    });
+  }
+
   /// 切换轨迹点动画，会把相机限制在坐标内，并让相机在地图区域内居中
   /// [lat1].[lng1].当前轨迹点坐标
   /// [lat2].[lng2].目标轨迹点坐标
@@ -47,6 +47,14 @@ class LineOptions {
     this.linePattern,
     this.geometry,
     this.draggable,
+    this.minZoom,
+    this.maxZoom,
+    this.simplify,
+    this.clip,
+    this.geodesic,
+    this.geometryEncoding,
+    this.encodedGeometry,
+    this.encodedGeometryPrecision,
   });
 
   final String lineJoin;
@@ -60,6 +68,44 @@ class LineOptions {
   final List<LatLng> geometry;
   final bool draggable;
 
+  /// The annotation is only shown at camera zoom levels of at least
+  /// [minZoom] and below [maxZoom]. Evaluated on the platform side when the
+  /// camera becomes idle. Use [MapboxMapController.setZoomRange] to clear
+  /// a bound. Android only.
+  final double minZoom;
+  final double maxZoom;
+
+  /// Renders the line with fewer vertices when zoomed out. The geometry is
+  /// simplified once per detail level on the platform side and the level
+  /// matching the zoom is swapped in when the camera becomes idle. Android
+  /// only.
+  final bool simplify;
+
+  /// Only renders the parts of the line near the visible region. The full
+  /// geometry is kept on the platform side in segments with bounding boxes,
+  /// and the segments near the viewport are swapped in when the camera
+  /// becomes idle. Meant for lines with hundreds of thousands of vertices.
+  /// Android only.
+  final bool clip;
+
+  /// Connects the vertices of [geometry] along great circles, as flight paths
+  /// do. Only the given vertices cross the channel, the arcs are computed
+  /// once on a background thread with a step size per zoom level that keeps
+  /// them within a pixel of the true arc. Android only.
+  final bool geodesic;
+
+  /// Format in which [geometry] is sent to the platform side, a list of
+  /// coordinate pairs by default. Android only.
+  final LineGeometryEncoding geometryEncoding;
+
+  /// Geometry in the encoded polyline algorithm format, as returned by most
+  /// routing services, used instead of [geometry]. It is decoded on the
+  /// platform side only. Android only.
+  final String encodedGeometry;
+
+  /// Decimal digits of [encodedGeometry], 5 or 6. Defaults to 5.
+  final int encodedGeometryPrecision;
+
   static const LineOptions defaultOptions = LineOptions();
 
   LineOptions copyWith(LineOptions changes) {
@@ -77,6 +123,15 @@ class LineOptions {
       linePattern: changes.linePattern ?? linePattern,
       geometry: changes.geometry ?? geometry,
       draggable: changes.draggable ?? draggable,
+      minZoom: changes.minZoom ?? minZoom,
+      maxZoom: changes.maxZoom ?? maxZoom,
+      simplify: changes.simplify ?? simplify,
+      clip: changes.clip ?? clip,
+      geodesic: changes.geodesic ?? geodesic,
+      geometryEncoding: changes.geometryEncoding ?? geometryEncoding,
+      encodedGeometry: changes.encodedGeometry ?? encodedGeometry,
+      encodedGeometryPrecision:
+          changes.encodedGeometryPrecision ?? encodedGeometryPrecision,
     );
   }
 
@@ -97,8 +152,99 @@ class LineOptions {
     addIfPresent('lineOffset', lineOffset);
     addIfPresent('lineBlur', lineBlur);
     addIfPresent('linePattern', linePattern);
-    addIfPresent('geometry', geometry?.map((LatLng latLng) => latLng._toJson())?.toList());
+    switch (geometryEncoding) {
+      case LineGeometryEncoding.polyline6:
+        if (geometry != null) {
+          json['encodedGeometry'] = _encodePolyline(geometry, 6);
+          json['encodedGeometryPrecision'] = 6;
+        }
+        break;
+      case LineGeometryEncoding.deltaE6:
+        addIfPresent('packedGeometry', _encodeDeltaE6(geometry));
+        break;
+      default:
+        addIfPresent('geometry', geometry?.map((LatLng latLng) => latLng._toJson())?.toList());
+    }
+    if (geometry == null) {
+      addIfPresent('encodedGeometry', encodedGeometry);
+      addIfPresent('encodedGeometryPrecision', encodedGeometryPrecision);
+    }
     addIfPresent('draggable', draggable);
+    addIfPresent('minZoom', minZoom);
+    addIfPresent('maxZoom', maxZoom);
+    addIfPresent('simplify', simplify);
+    addIfPresent('clip', clip);
+    addIfPresent('geodesic', geodesic);
     return json;
   }
 }
+
+/// Formats in which [LineOptions.geometry] crosses the platform channel.
+///
+/// A coordinate pair list costs 20 to 35 bytes per vertex with the standard
+/// message codec. The compact formats are encoded in Dart and decoded on the
+/// platform side into flat arrays.
+enum LineGeometryEncoding {
+  /// A list of latitude, longitude pairs.
+  list,
+
+  /// The encoded polyline algorithm format with 6 decimal digits, typically
+  /// 4 to 8 bytes per vertex for tracks.
+  polyline6,
+
+  /// Zig-zag varint deltas of degrees times 10^6, typically 3 to 6 bytes per
+  /// vertex for tracks.
+  deltaE6,
+}
+
+String _encodePolyline(List<LatLng> geometry, int precision) {
+  final num factor = pow(10, precision);
+  final StringBuffer buffer = StringBuffer();
+  int lastLat = 0;
+  int lastLng = 0;
+  for (LatLng latLng in geometry) {
+    final int lat = (latLng.latitude * factor).round();
+    final int lng = (latLng.longitude * factor).round();
+    _encodePolylineValue(lat - lastLat, buffer);
+    _encodePolylineValue(lng - lastLng, buffer);
+    lastLat = lat;
+    lastLng = lng;
+  }
+  return buffer.toString();
+}
+
+void _encodePolylineValue(int value, StringBuffer buffer) {
+  int bits = value < 0 ? ~(value << 1) : value << 1;
+  while (bits >= 0x20) {
+    buffer.writeCharCode((0x20 | (bits & 0x1f)) + 63);
+    bits >>= 5;
+  }
+  buffer.writeCharCode(bits + 63);
+}
+
+Uint8List _encodeDeltaE6(List<LatLng> geometry) {
+  if (geometry == null) {
+    return null;
+  }
+  final List<int> bytes = <int>[];
+  int lastLat = 0;
+  int lastLng = 0;
+  for (LatLng latLng in geometry) {
+    final int lat = (latLng.latitude * 1e6).round();
+    final int lng = (latLng.longitude * 1e6).round();
+    _encodeVarint(lat - lastLat, bytes);
+    _encodeVarint(lng - lastLng, bytes);
+    lastLat = lat;
+    lastLng = lng;
+  }
+  return Uint8List.fromList(bytes);
+}
+
+void _encodeVarint(int value, List<int> bytes) {
+  int zigZag = value < 0 ? (-value << 1) - 1 : value << 1;
+  while (zigZag >= 0x80) {
+    bytes.add((zigZag & 0x7f) | 0x80);
+    zigZag >>= 7;
+  }
+  bytes.add(zigZag);
+}
@@ -103,3 +103,74 @@ class LatLngBounds {
   @override
   int get hashCode => hashValues(southwest, northeast);
 }
+
+/// A location fix of the user reported by
+/// [MapboxMapController.locationUpdates].
+class UserLocation {
+  const UserLocation._(this.position, this.accuracy, this.altitude, this.speed,
+      this.bearing, this.time);
+
+  static List<UserLocation> _fromPacked(Float64List packed) {
+    const int fields = 7;
+    final List<UserLocation> locations = <UserLocation>[];
+    for (int i = 0; i + fields <= packed.length; i += fields) {
+      locations.add(UserLocation._(
+        LatLng(packed[i], packed[i + 1]),
+        packed[i + 2] < 0 ? null : packed[i + 2],
+        packed[i + 3],
+        packed[i + 4] < 0 ? null : packed[i + 4],
+        packed[i + 5] < 0 ? null : packed[i + 5],
+        DateTime.fromMillisecondsSinceEpoch(packed[i + 6].toInt()),
+      ));
+    }
+    return locations;
+  }
+
+  final LatLng position;
+
+  /// Horizontal accuracy in meters, null if unknown.
+  final double accuracy;
+
+  /// Altitude in meters above the WGS 84 ellipsoid.
+  final double altitude;
+
+  /// Speed in meters per second, null if unknown.
+  final double speed;
+
+  /// Bearing in degrees clockwise from north, null if unknown.
+  final double bearing;
+  final DateTime time;
+
+  @override
+  String toString() => '$runtimeType($position, $accuracy, $time)';
+}
+
+/// Kind of a geofence transition reported by
+/// [MapboxMapController.onGeofenceTransition].
+enum GeofenceTransition {
+  /// A location fix inside the geofence after being outside of it.
+  enter,
+
+  /// A location fix further than the hysteresis distance outside the geofence.
+  exit,
+
+  /// The geofence has been occupied for the dwell time.
+  dwell,
+}
+
+/// A transition of a geofence loaded with [MapboxMapController.loadGeofences].
+class GeofenceEvent {
+  const GeofenceEvent._(
+      this.geofence, this.transition, this.time, this.position);
+
+  /// Id of the geofence as passed to [MapboxMapController.loadGeofences].
+  final String geofence;
+  final GeofenceTransition transition;
+
+  /// Time of the location fix that caused the transition.
+  final DateTime time;
+  final LatLng position;
+
+  @override
+  String toString() => '$runtimeType($geofence, $transition, $time)';
+}
@@ -71,6 +71,8 @@ class SymbolOptions {
     this.geometry,
     this.zIndex,
     this.draggable,
+    this.minZoom,
+    this.maxZoom,
   });
 
   final double iconSize;
@@ -101,6 +103,13 @@ class SymbolOptions {
   final int zIndex;
   final bool draggable;
 
+  /// The annotation is only shown at camera zoom levels of at least
+  /// [minZoom] and below [maxZoom]. Evaluated on the platform side when the
+  /// camera becomes idle. Use [MapboxMapController.setZoomRange] to clear
+  /// a bound. Android only.
+  final double minZoom;
+  final double maxZoom;
+
   static const SymbolOptions defaultOptions = SymbolOptions(
 
   );
@@ -137,6 +146,8 @@ class SymbolOptions {
       geometry: changes.geometry ?? geometry,
       zIndex: changes.zIndex ?? zIndex,
       draggable: changes.draggable ?? draggable,
+      minZoom: changes.minZoom ?? minZoom,
+      maxZoom: changes.maxZoom ?? maxZoom,
     );
   }
 
@@ -176,7 +187,76 @@ class SymbolOptions {
     addIfPresent('geometry', geometry?._toJson());
     addIfPresent('zIndex', zIndex);
     addIfPresent('draggable', draggable);
+    addIfPresent('minZoom', minZoom);
+    addIfPresent('maxZoom', maxZoom);
     return json;
   }
 
-}
\ No newline at end of file
+}
+
+/// Desired state of one symbol passed to [MapboxMapController.syncSymbols].
+class SymbolSyncEntry {
+  const SymbolSyncEntry(this.options, this.hash, {this.tags})
+      : assert(options != null),
+        assert(hash != null);
+
+  /// Options of the symbol, including its [SymbolOptions.minZoom] and
+  /// [SymbolOptions.maxZoom].
+  final SymbolOptions options;
+
+  /// Content hash of [options] and [tags], typically derived from the server
+  /// state the symbol represents. The symbol is only updated when the hash
+  /// changes.
+  final int hash;
+
+  /// Tags an [AnnotationFilter] can match, replacing the previous tags of the
+  /// symbol when the hash changes.
+  final List<String> tags;
+}
+
+/// Selects symbols on the platform side for
+/// [MapboxMapController.updateSymbolsWhere].
+///
+/// All criteria that are set must match; with [invert] the symbols that do
+/// not match are selected instead.
+class AnnotationFilter {
+  const AnnotationFilter({
+    this.symbols,
+    this.group,
+    this.tags,
+    this.bounds,
+    this.invert = false,
+  });
+
+  /// Restricts the filter to these symbols.
+  final List<Symbol> symbols;
+
+  /// Name of the annotation group the symbols must belong to.
+  final String group;
+
+  /// Tags of which a symbol must carry at least one, see
+  /// [MapboxMapController.setSymbolTags].
+  final List<String> tags;
+
+  /// Box the symbol geometry must lie in.
+  final LatLngBounds bounds;
+
+  final bool invert;
+
+  dynamic _toJson() {
+    final Map<String, dynamic> json = <String, dynamic>{};
+
+    void addIfPresent(String fieldName, dynamic value) {
+      if (value != null) {
+        json[fieldName] = value;
+      }
+    }
+
+    addIfPresent('ids', symbols?.map((Symbol symbol) => symbol._id)?.toList());
+    addIfPresent('group', group);
+    addIfPresent('tags', tags);
+    addIfPresent('bounds', bounds?._toList());
+    addIfPresent('invert', invert);
+    return json;
+  }
+}